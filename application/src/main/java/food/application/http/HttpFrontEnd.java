@@ -0,0 +1,273 @@
+package food.application.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import food.data.FileDataStore;
+import food.domain.Cart;
+import food.domain.Credentials;
+import food.domain.Customer;
+import food.domain.Food;
+import food.domain.Order;
+import food.domain.OrderItem;
+import food.service.AuthenticationException;
+import food.service.DefaultFoodDeliveryService;
+import food.service.FoodDeliveryService;
+import food.service.LowBalanceException;
+import food.service.Menu;
+import food.service.Session;
+import food.values.Money;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * HTTP endpoints for a {@link FoodDeliveryService}, on the JDK's built-in server with one virtual
+ * thread per request.
+ * <pre>
+ *   POST /auth      userName=..&amp;password=..   200 {"token":..}, 401
+ *   GET  /menu      [If-None-Match: version]    200 menu JSON with ETag, 304
+ *   PUT  /cart      foodId=..&amp;pieces=..        200 cart JSON, 400, 402 if over the balance
+ *   POST /checkout                              201 order JSON, 402, 409 if the cart is empty
+ *   POST /logout                                204
+ * </pre>
+ * Request bodies are form-encoded. Everything but {@code /auth} and {@code /menu} needs the
+ * token from {@code /auth} as {@code Authorization: Bearer <token>}; an unknown token is 401.
+ */
+public final class HttpFrontEnd implements AutoCloseable {
+
+    private static final System.Logger LOGGER = System.getLogger(HttpFrontEnd.class.getName());
+    private static final int MAX_BODY = 8 * 1024;
+
+    static {
+        // the server writes headers and body separately; with Nagle's algorithm every response
+        // then waits for the client's delayed ACK, about 40 ms
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final FoodDeliveryService service;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Binds the server; it accepts requests once {@link #start()} is called.
+     *
+     * @param address the address to listen on; port 0 picks a free port
+     */
+    public HttpFrontEnd(FoodDeliveryService service, InetSocketAddress address) {
+        this.service = service;
+        try {
+            this.server = HttpServer.create(address, 1024);
+        } catch (IOException e) {
+            throw new RuntimeException("IOException happened while binding to " + address, e);
+        }
+        server.setExecutor(executor);
+        server.createContext("/auth", exchange -> handle(exchange, "POST", this::authenticate));
+        server.createContext("/menu", exchange -> handle(exchange, "GET", this::menu));
+        server.createContext("/cart", exchange -> handle(exchange, "PUT", this::updateCart));
+        server.createContext("/checkout", exchange -> handle(exchange, "POST", this::checkout));
+        server.createContext("/logout", exchange -> handle(exchange, "POST", this::logout));
+    }
+
+    /**
+     * Serves the data folder given as the first argument on the port given as the second (default 8080).
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: HttpFrontEnd <data folder> [port]");
+            System.exit(2);
+        }
+        var dataStore = new FileDataStore(args[0]);
+        dataStore.init();
+        var service = new DefaultFoodDeliveryService(dataStore);
+        var frontEnd = new HttpFrontEnd(service,
+                new InetSocketAddress(args.length > 1 ? Integer.parseInt(args[1]) : 8080));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            frontEnd.close();
+            service.close();
+            dataStore.close();
+        }));
+        frontEnd.start();
+        LOGGER.log(System.Logger.Level.INFO, "Serving {0} on port {1}", args[0], frontEnd.port());
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Response handle(HttpExchange exchange) throws IOException;
+    }
+
+    private record Response(int status, String body) {
+    }
+
+    private void handle(HttpExchange exchange, String method, Handler handler) throws IOException {
+        try (exchange) {
+            Response response;
+            try {
+                response = !method.equals(exchange.getRequestMethod())
+                        ? new Response(405, error("Use " + method + "."))
+                        : handler.handle(exchange);
+            } catch (AuthenticationException e) {
+                response = new Response(401, error(e.getMessage()));
+            } catch (LowBalanceException e) {
+                response = new Response(402, error(e.getMessage()));
+            } catch (IllegalStateException e) {
+                response = new Response(409, error(e.getMessage()));
+            } catch (IllegalArgumentException e) {
+                response = new Response(400, error(e.getMessage()));
+            } catch (RuntimeException e) {
+                LOGGER.log(System.Logger.Level.ERROR, "Request " + exchange.getRequestURI() + " failed", e);
+                response = new Response(500, error("Internal error."));
+            }
+            if (response != null) {
+                send(exchange, response.status(), response.body());
+            }
+        }
+    }
+
+    private Response authenticate(HttpExchange exchange) throws IOException {
+        Map<String, String> form = readForm(exchange);
+        Session session = service.login(new Credentials(form.get("userName"), form.get("password")));
+        Customer customer = session.customer();
+        var sb = new StringBuilder(128).append("{\"token\":\"").append(session.token())
+                .append("\",\"customerId\":").append(customer.getId()).append(",\"name\":");
+        Json.appendString(sb, customer.getName()).append(",\"balance\":\"");
+        Money.appendTo(sb, customer.getBalanceMinor()).append("\"}");
+        return new Response(200, sb.toString());
+    }
+
+    // writes the response itself: the pre-rendered menu bytes go out without copying
+    private Response menu(HttpExchange exchange) throws IOException {
+        Menu menu = service.getMenu();
+        exchange.getResponseHeaders().set("ETag", menu.version());
+        if (menu.isCurrent(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            return null;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, menu.jsonLength());
+        try (OutputStream out = exchange.getResponseBody()) {
+            menu.writeJsonTo(out);
+        }
+        return null;
+    }
+
+    private Response updateCart(HttpExchange exchange) throws IOException {
+        Customer customer = session(exchange);
+        Map<String, String> form = readForm(exchange);
+        int foodId = intParameter(form, "foodId");
+        int pieces = intParameter(form, "pieces");
+        Food food = service.getMenu().findFood(foodId)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown food: " + foodId));
+        return new Response(200, cartJson(service.updateCart(customer, food, pieces)));
+    }
+
+    private Response checkout(HttpExchange exchange) {
+        Customer customer = session(exchange);
+        Order order = service.createOrder(customer);
+        var sb = new StringBuilder(96).append("{\"orderId\":").append(order.getOrderId()).append(",\"total\":\"");
+        Money.appendTo(sb, order.getPriceMinor()).append("\",\"balance\":\"");
+        Money.appendTo(sb, customer.getBalanceMinor()).append("\"}");
+        return new Response(201, sb.toString());
+    }
+
+    private Response logout(HttpExchange exchange) throws IOException {
+        service.logout(token(exchange));
+        exchange.sendResponseHeaders(204, -1);
+        return null;
+    }
+
+    private Customer session(HttpExchange exchange) {
+        return service.findSession(token(exchange)).map(Session::customer)
+                .orElseThrow(() -> new AuthenticationException("Log in first."));
+    }
+
+    private static String token(HttpExchange exchange) {
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        return authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring("Bearer ".length()) : null;
+    }
+
+    private static String cartJson(Cart cart) {
+        var sb = new StringBuilder(64 + cart.size() * 64).append("{\"items\":[");
+        boolean first = true;
+        for (OrderItem item : cart.getOrderItems()) {
+            sb.append(first ? "" : ",").append("{\"foodId\":").append(item.getFood().getId()).append(",\"name\":");
+            Json.appendString(sb, item.getFood().getName()).append(",\"pieces\":").append(item.getPieces())
+                    .append(",\"price\":\"");
+            Money.appendTo(sb, item.getPriceMinor()).append("\"}");
+            first = false;
+        }
+        sb.append("],\"total\":\"");
+        return Money.appendTo(sb, cart.getPriceMinor()).append("\"}").toString();
+    }
+
+    private static String error(String message) {
+        return Json.appendString(new StringBuilder("{\"error\":"), message).append('}').toString();
+    }
+
+    private static int intParameter(Map<String, String> form, String name) {
+        String value = form.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing parameter: " + name);
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a number: " + name + "=" + value);
+        }
+    }
+
+    private static Map<String, String> readForm(HttpExchange exchange) throws IOException {
+        byte[] body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = in.readNBytes(MAX_BODY + 1);
+        }
+        if (body.length > MAX_BODY) {
+            throw new IllegalArgumentException("Request body too large.");
+        }
+        Map<String, String> form = new HashMap<>();
+        String text = new String(body, StandardCharsets.UTF_8);
+        if (text.isEmpty()) {
+            return form;
+        }
+        for (String pair : text.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            form.putIfAbsent(name, value);
+        }
+        return form;
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package food.application.http;
+
+import food.data.FileDataStore;
+import food.domain.Credentials;
+import food.service.DefaultFoodDeliveryService;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Closed-loop load generator for {@link HttpFrontEnd}.
+ * <p>
+ * Every virtual user logs in once and then repeats a session of fetching the menu (conditionally,
+ * with the version it already has), adding a food to the cart and checking out, each request
+ * waiting for the previous response. The number of users doubles from level to level; for each
+ * level the generator reports the throughput and the p50/p99/p999 latency of single requests.
+ * <pre>
+ *   java -cp ... food.application.http.LoadGenerator [maxConcurrency] [secondsPerLevel]
+ * </pre>
+ * {@link #main} runs against a front end it starts on localhost over a generated data folder.
+ */
+public final class LoadGenerator implements AutoCloseable {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\":\"([^\"]+)\"");
+
+    private final URI base;
+    private final List<Credentials> users;
+    private final int foodCount;
+    private final HttpClient client;
+
+    /**
+     * One level of load: latencies in microseconds.
+     */
+    public record Result(int concurrency, long requests, long errors, double requestsPerSecond,
+                         long p50Micros, long p99Micros, long p999Micros) {
+
+        @Override
+        public String toString() {
+            return String.format("%6d users %10.0f req/s   p50 %8.3f ms   p99 %8.3f ms   p999 %8.3f ms   %d errors",
+                    concurrency, requestsPerSecond, p50Micros / 1000.0, p99Micros / 1000.0, p999Micros / 1000.0, errors);
+        }
+    }
+
+    /**
+     * @param users     user {@code i} logs in with {@code users.get(i % users.size())}
+     * @param foodCount foods are picked at random from the ids below this
+     */
+    public LoadGenerator(URI base, List<Credentials> users, int foodCount) {
+        this.base = base;
+        this.users = List.copyOf(users);
+        this.foodCount = foodCount;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int maxConcurrency = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+        Duration perLevel = Duration.ofSeconds(args.length > 1 ? Long.parseLong(args[1]) : 5);
+        int foods = 50;
+        Path folder = createFolder(maxConcurrency, foods);
+        var dataStore = new FileDataStore(folder.toString());
+        try (var service = new DefaultFoodDeliveryService(dataStore);
+             var frontEnd = new HttpFrontEnd(service, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))) {
+            dataStore.init();
+            frontEnd.start();
+            List<Credentials> users = new ArrayList<>();
+            for (int i = 0; i < maxConcurrency; i++) {
+                users.add(new Credentials("user" + i, "password" + i));
+            }
+            try (var generator = new LoadGenerator(URI.create("http://localhost:" + frontEnd.port()), users, foods)) {
+                for (int concurrency = 1; concurrency <= maxConcurrency; concurrency *= 2) {
+                    System.out.println(generator.run(concurrency, Duration.ofSeconds(1), perLevel));
+                }
+            }
+        } finally {
+            dataStore.close();
+            delete(folder);
+        }
+    }
+
+    /**
+     * Runs {@code concurrency} users for the warm-up and then the measured duration.
+     */
+    public Result run(int concurrency, Duration warmup, Duration duration) throws InterruptedException {
+        var histogram = new LatencyHistogram();
+        var errors = new LongAdder();
+        var measuring = new AtomicBoolean();
+        var stopped = new AtomicBoolean();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                Credentials credentials = users.get(i % users.size());
+                executor.submit(() -> runUser(credentials, histogram, errors, measuring, stopped));
+            }
+            Thread.sleep(warmup.toMillis());
+            measuring.set(true);
+            long started = System.nanoTime();
+            Thread.sleep(duration.toMillis());
+            measuring.set(false);
+            stopped.set(true);
+            long elapsed = System.nanoTime() - started;
+            executor.shutdown();
+            // requests still in flight may record a little longer
+            LatencyHistogram measured = histogram.copy();
+            long requests = measured.count();
+            return new Result(concurrency, requests, errors.sum(), requests * 1e9 / elapsed,
+                    measured.percentileMicros(0.5), measured.percentileMicros(0.99), measured.percentileMicros(0.999));
+        }
+    }
+
+    private Void runUser(Credentials credentials, LatencyHistogram histogram, LongAdder errors,
+                         AtomicBoolean measuring, AtomicBoolean stopped) throws Exception {
+        HttpResponse<String> login = client.send(post("/auth", "userName=" + encode(credentials.getUserName())
+                + "&password=" + encode(credentials.getPassword())), HttpResponse.BodyHandlers.ofString());
+        Matcher token = TOKEN.matcher(login.body());
+        if (login.statusCode() != 200 || !token.find()) {
+            errors.increment();
+            return null;
+        }
+        String authorization = "Bearer " + token.group(1);
+        String menuVersion = null;
+        var random = ThreadLocalRandom.current();
+        while (!stopped.get()) {
+            var menuRequest = HttpRequest.newBuilder(base.resolve("/menu")).GET();
+            if (menuVersion != null) {
+                menuRequest.header("If-None-Match", menuVersion);
+            }
+            HttpResponse<String> menu = timed(menuRequest.build(), histogram, errors, measuring, 200, 304);
+            if (menu != null) {
+                menuVersion = menu.headers().firstValue("ETag").orElse(menuVersion);
+            }
+            timed(HttpRequest.newBuilder(base.resolve("/cart")).header("Authorization", authorization)
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .PUT(HttpRequest.BodyPublishers.ofString("foodId=" + random.nextInt(foodCount) + "&pieces=1"))
+                    .build(), histogram, errors, measuring, 200);
+            timed(HttpRequest.newBuilder(base.resolve("/checkout")).header("Authorization", authorization)
+                    .POST(HttpRequest.BodyPublishers.noBody()).build(), histogram, errors, measuring, 201);
+        }
+        return null;
+    }
+
+    /**
+     * @return the response, or {@code null} if the request failed outright
+     */
+    private HttpResponse<String> timed(HttpRequest request, LatencyHistogram histogram, LongAdder errors,
+                                       AtomicBoolean measuring, int... expected) throws InterruptedException {
+        long started = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            errors.increment();
+            return null;
+        }
+        long elapsed = System.nanoTime() - started;
+        if (measuring.get()) {
+            histogram.recordNanos(elapsed);
+            boolean ok = false;
+            for (int status : expected) {
+                ok |= response.statusCode() == status;
+            }
+            if (!ok) {
+                errors.increment();
+            }
+        }
+        return response;
+    }
+
+    @Override
+    public void close() {
+        client.close();
+    }
+
+    private HttpRequest post(String path, String form) {
+        return HttpRequest.newBuilder(base.resolve(path))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static Path createFolder(int customers, int foods) throws IOException {
+        Path folder = Files.createTempDirectory("food-load");
+        try (BufferedWriter writer = Files.newBufferedWriter(folder.resolve("customers.csv"))) {
+            for (int i = 0; i < customers; i++) {
+                writer.write("user" + i + ",password" + i + "," + i + ",Customer " + i + ",100000000.00\n");
+            }
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(folder.resolve("foods.csv"))) {
+            for (int i = 0; i < foods; i++) {
+                writer.write("Food " + i + "," + (100 + i) + ",Description of food " + i + "," + (1 + i % 20) + ".99\n");
+            }
+        }
+        return folder;
+    }
+
+    private static void delete(Path folder) {
+        try (Stream<Path> files = Files.walk(folder)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
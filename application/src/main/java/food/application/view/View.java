@@ -7,6 +7,7 @@ import food.domain.Credentials;
 import food.domain.Customer;
 import food.domain.Food;
 import food.domain.Order;
+import food.service.Menu;
 import food.values.FoodSelection;
 
 public interface View {
@@ -16,6 +17,14 @@ public interface View {
 
     void printAllFoods(List<Food> foods);
 
+    /**
+     * Prints a menu. Implementations should print its pre-rendered {@link Menu#text()}; the default
+     * renders the foods through {@link #printAllFoods(List)}.
+     */
+    default void printMenu(Menu menu) {
+        printAllFoods(menu.foods());
+    }
+
     FoodSelection readFoodSelection(List<Food> foods);
 
     void printAddedToCart(Food food, int pieces);
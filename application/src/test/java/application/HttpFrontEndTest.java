@@ -0,0 +1,142 @@
+// HttpFrontEndTest.java
+package food.application.http;
+
+import food.data.FileDataStore;
+import food.domain.Credentials;
+import food.service.DefaultFoodDeliveryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class HttpFrontEndTest {
+
+    private FileDataStore dataStore;
+    private HttpFrontEnd frontEnd;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp(@TempDir Path tempDir) throws IOException {
+        Files.writeString(tempDir.resolve("customers.csv"), """
+                john_doe,password123,1,John Doe,100.00
+                jane_smith,secret456,2,Jane Smith,250.00
+                """);
+        Files.writeString(tempDir.resolve("foods.csv"), """
+                Pizza,300,Delicious pizza,10.00
+                Burger,450,Tasty burger,8.50
+                """);
+        dataStore = new FileDataStore(tempDir.toString());
+        dataStore.init();
+        frontEnd = new HttpFrontEnd(new DefaultFoodDeliveryService(dataStore),
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        frontEnd.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        frontEnd.close();
+        dataStore.close();
+        client.close();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + frontEnd.port() + path);
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder form(String path, String method, String body) {
+        return HttpRequest.newBuilder(uri(path)).header("Content-Type", "application/x-www-form-urlencoded")
+                .method(method, HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private String login(String userName, String password) throws Exception {
+        HttpResponse<String> response = send(form("/auth", "POST", "userName=" + userName + "&password=" + password));
+        assertThat(response.statusCode()).isEqualTo(200);
+        return response.body().replaceAll(".*\"token\":\"([^\"]+)\".*", "$1");
+    }
+
+    @Test
+    void shouldAuthenticateFillCartAndCheckOut() throws Exception {
+        // Given
+        String token = login("john_doe", "password123");
+
+        // When
+        HttpResponse<String> cart = send(form("/cart", "PUT", "foodId=0&pieces=3").header("Authorization", "Bearer " + token));
+        HttpResponse<String> order = send(form("/checkout", "POST", "").header("Authorization", "Bearer " + token));
+        HttpResponse<String> emptyCheckout = send(form("/checkout", "POST", "").header("Authorization", "Bearer " + token));
+
+        // Then
+        assertThat(cart.statusCode()).isEqualTo(200);
+        assertThat(cart.body()).isEqualTo("{\"items\":[{\"foodId\":0,\"name\":\"Pizza\",\"pieces\":3,\"price\":\"30.00\"}],\"total\":\"30.00\"}");
+        assertThat(order.statusCode()).isEqualTo(201);
+        assertThat(order.body()).isEqualTo("{\"orderId\":0,\"total\":\"30.00\",\"balance\":\"70.00\"}");
+        assertThat(emptyCheckout.statusCode()).isEqualTo(409);
+    }
+
+    @Test
+    void shouldMapFailuresToStatusCodes() throws Exception {
+        // Given
+        String token = login("john_doe", "password123");
+
+        // When / Then
+        assertThat(send(form("/auth", "POST", "userName=john_doe&password=wrong")).statusCode()).isEqualTo(401);
+        assertThat(send(form("/cart", "PUT", "foodId=0&pieces=1")).statusCode()).isEqualTo(401);
+        assertThat(send(form("/cart", "PUT", "foodId=0&pieces=1").header("Authorization", "Bearer nope")).statusCode())
+                .isEqualTo(401);
+        assertThat(send(form("/cart", "PUT", "foodId=0&pieces=11").header("Authorization", "Bearer " + token)).statusCode())
+                .isEqualTo(402);
+        assertThat(send(form("/cart", "PUT", "foodId=9&pieces=1").header("Authorization", "Bearer " + token)).statusCode())
+                .isEqualTo(400);
+        assertThat(send(form("/cart", "POST", "foodId=0&pieces=1").header("Authorization", "Bearer " + token)).statusCode())
+                .isEqualTo(405);
+    }
+
+    @Test
+    void shouldServeMenuWithVersion() throws Exception {
+        // When
+        HttpResponse<String> menu = send(HttpRequest.newBuilder(uri("/menu")).GET());
+        String version = menu.headers().firstValue("ETag").orElseThrow();
+        HttpResponse<String> unchanged = send(HttpRequest.newBuilder(uri("/menu")).header("If-None-Match", version).GET());
+
+        // Then
+        assertThat(menu.statusCode()).isEqualTo(200);
+        assertThat(menu.body()).startsWith("[{\"id\":0,\"name\":\"Pizza\"");
+        assertThat(unchanged.statusCode()).isEqualTo(304);
+        assertThat(unchanged.body()).isEmpty();
+    }
+
+    @Test
+    void shouldGenerateClosedLoopLoad() throws Exception {
+        // Given
+        var users = List.of(new Credentials("john_doe", "password123"), new Credentials("jane_smith", "secret456"));
+
+        // When
+        LoadGenerator.Result result;
+        try (var generator = new LoadGenerator(uri(""), users, 2)) {
+            // the warm-up covers the logins, which each cost a password hash
+            result = generator.run(2, Duration.ofSeconds(3), Duration.ofMillis(300));
+        }
+
+        // Then
+        assertThat(result.requests()).isPositive();
+        assertThat(result.p50Micros()).isPositive().isLessThanOrEqualTo(result.p99Micros());
+        assertThat(result.p99Micros()).isLessThanOrEqualTo(result.p999Micros());
+    }
+}
@@ -0,0 +1,34 @@
+// LatencyHistogramTest.java
+package food.application.http;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void shouldReportPercentilesWithinBucketPrecision() {
+        // Given
+        var histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 10_000; micros++) {
+            histogram.recordNanos(micros * 1000);
+        }
+
+        // Then
+        assertThat(histogram.count()).isEqualTo(10_000);
+        assertThat(histogram.percentileMicros(0.5)).isCloseTo(5_000, withinPercentage(2));
+        assertThat(histogram.percentileMicros(0.99)).isCloseTo(9_900, withinPercentage(2));
+        assertThat(histogram.percentileMicros(0.999)).isCloseTo(9_990, withinPercentage(2));
+        assertThat(new LatencyHistogram().percentileMicros(0.5)).isZero();
+    }
+
+    @Test
+    void shouldMapEveryValueIntoItsBucket() {
+        for (long micros : new long[]{0, 1, 127, 128, 129, 1000, 123_456_789, Long.MAX_VALUE / 1000}) {
+            int index = LatencyHistogram.index(micros);
+            assertThat(LatencyHistogram.highestValue(index)).isGreaterThanOrEqualTo(micros);
+            assertThat(index == 0 || LatencyHistogram.highestValue(index - 1) < micros).isTrue();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package food.benchmarks;
+
+import food.domain.Food;
+import food.domain.Order;
+import food.domain.OrderItem;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Synthetic input shared by the benchmarks: CSV files in a temporary folder plus in-memory
+ * domain objects shaped like the ones the readers produce.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static Path createFolder(int customers, int foods) {
+        try {
+            Path folder = Files.createTempDirectory("food-benchmark");
+            writeCustomers(folder.resolve("customers.csv"), customers);
+            writeFoods(folder.resolve("foods.csv"), foods);
+            return folder;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static void writeCustomers(Path file, int count) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (int i = 0; i < count; i++) {
+                writer.write(userName(i) + "," + password(i) + "," + i + ",Customer " + i + ",1000000.00\n");
+            }
+        }
+    }
+
+    static void writeFoods(Path file, int count) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (int i = 0; i < count; i++) {
+                writer.write("Food " + i + "," + (100 + i % 900) + ",Description of food " + i + "," + (1 + i % 50) + ".99\n");
+            }
+        }
+    }
+
+    static String userName(int i) {
+        return "user" + i;
+    }
+
+    static String password(int i) {
+        return "password" + i;
+    }
+
+    static Food food(int i) {
+        return new Food.Builder()
+                .name("Food " + i)
+                .calorie(new BigDecimal(100 + i % 900))
+                .description("Description of food " + i)
+                .price(new BigDecimal((1 + i % 50) + ".99"))
+                .build();
+    }
+
+    static List<Order> orders(int count, int itemsPerOrder) {
+        List<Order> orders = new ArrayList<>(count);
+        LocalDateTime timestamp = LocalDateTime.of(2025, 1, 15, 14, 30);
+        for (int i = 0; i < count; i++) {
+            List<OrderItem> items = new ArrayList<>(itemsPerOrder);
+            BigDecimal total = BigDecimal.ZERO;
+            for (int j = 0; j < itemsPerOrder; j++) {
+                Food food = food(j);
+                items.add(new OrderItem(food, 2, food.getPrice().multiply(BigDecimal.TWO)));
+                total = total.add(food.getPrice().multiply(BigDecimal.TWO));
+            }
+            orders.add(new Order((long) i, i % 1000, items, total, timestamp));
+        }
+        return orders;
+    }
+
+    static void delete(Path folder) {
+        if (folder == null) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(folder)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
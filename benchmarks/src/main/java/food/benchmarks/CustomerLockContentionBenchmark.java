@@ -0,0 +1,89 @@
+package food.benchmarks;
+
+import food.data.FileDataStore;
+import food.domain.Credentials;
+import food.domain.Customer;
+import food.domain.Food;
+import food.service.DefaultFoodDeliveryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contention of the per-customer locks in {@link DefaultFoodDeliveryService}.
+ * <p>
+ * Run with increasing thread counts ({@code -t 1,2,4,8}): {@code distinctCustomers} should scale
+ * close to linearly, while {@code sharedCustomer} is serialised on one lock. Carts need a session,
+ * so every customer is logged in: customer 0 is shared, the others go one per thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CustomerLockContentionBenchmark {
+
+    private static final int CUSTOMERS = 257;
+
+    private Path folder;
+    private FileDataStore dataStore;
+    private DefaultFoodDeliveryService service;
+    private Food food;
+    private Customer shared;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        folder = BenchmarkData.createFolder(CUSTOMERS, 2);
+        dataStore = new FileDataStore(folder.toString());
+        dataStore.init();
+        service = new DefaultFoodDeliveryService(dataStore);
+        food = service.listAllFood().get(1);
+        shared = login(service, 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        service.close();
+        dataStore.close();
+        BenchmarkData.delete(folder);
+    }
+
+    private static Customer login(DefaultFoodDeliveryService service, int index) {
+        return service.login(new Credentials(BenchmarkData.userName(index), BenchmarkData.password(index))).customer();
+    }
+
+    @State(Scope.Thread)
+    public static class PerThread {
+        Customer customer;
+        int pieces;
+
+        @Setup
+        public void setUp(CustomerLockContentionBenchmark benchmark, ThreadParams threadParams) {
+            customer = login(benchmark.service, 1 + threadParams.getThreadIndex() % (CUSTOMERS - 1));
+        }
+    }
+
+    @Benchmark
+    public void distinctCustomers(PerThread state) {
+        service.updateCart(state.customer, food, state.pieces++ % 5 + 1);
+    }
+
+    @Benchmark
+    public void sharedCustomer(PerThread state) {
+        service.updateCart(shared, food, state.pieces++ % 5 + 1);
+    }
+}
@@ -0,0 +1,116 @@
+package food.benchmarks;
+
+import food.data.CustomerStorage;
+import food.data.FileDataStore;
+import food.data.FsyncPolicy;
+import food.domain.Customer;
+import food.values.PasswordHash;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The customer storages side by side: loading {@code customers.csv}, a full scan over all
+ * customers, lookups by user name and the compare-and-set debit a checkout makes. The set-up prints how much heap the loaded customers retain.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class CustomerStorageBenchmark {
+
+    @Param({"OBJECTS", "COLUMNAR", "COLUMNAR_MAPPED"})
+    public CustomerStorage storage;
+
+    @Param({"1000000"})
+    public int rows;
+
+    private Path folder;
+    private FileDataStore dataStore;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        folder = BenchmarkData.createFolder(0, 10);
+        // customers.csv as it looks once passwords are hashed; one iteration keeps the set-up fast
+        String hash = PasswordHash.create("password", 1).encode();
+        try (BufferedWriter writer = Files.newBufferedWriter(folder.resolve("customers.csv"))) {
+            for (int i = 0; i < rows; i++) {
+                String unique = hash.substring(0, hash.length() - 8) + String.format("%08x", i);
+                writer.write(BenchmarkData.userName(i) + "," + unique + "," + i + ",Customer " + (i % 50_000) + ",1000.00\n");
+            }
+        }
+        long before = usedHeap();
+        dataStore = load();
+        System.out.printf("%n%s: %d customers retain %.1f MB%n", storage, rows, (usedHeap() - before) / 1e6);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataStore.close();
+        BenchmarkData.delete(folder);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public FileDataStore load() {
+        var store = new FileDataStore.Builder(folder.toString()).fsyncPolicy(FsyncPolicy.NONE).fsyncInterval(Duration.ZERO)
+                .snapshotInterval(Duration.ZERO).customerStorage(storage).build();
+        store.init();
+        store.close();
+        return store;
+    }
+
+    @Benchmark
+    public long scanBalances() {
+        long total = 0;
+        for (Customer customer : dataStore.getCustomers()) {
+            total += customer.getBalanceMinor();
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Customer findByUserName() {
+        next = (next + 7919) % rows;
+        return dataStore.findCustomerByUserName(BenchmarkData.userName(next)).orElseThrow();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean debitAndCredit() {
+        next = (next + 7919) % rows;
+        Customer customer = dataStore.findCustomerById(next).orElseThrow();
+        boolean debited = customer.tryDebit(1);
+        customer.credit(1);
+        return debited;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,88 @@
+package food.benchmarks;
+
+import food.data.FileDataStore;
+import food.domain.Credentials;
+import food.domain.Customer;
+import food.service.DefaultFoodDeliveryService;
+import food.values.PasswordHash;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logins against hashed passwords: {@code coldLogin} runs the password hash every time,
+ * {@code cachedLogin} repeats logins the service has already verified.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LoginBenchmark {
+
+    private static final int CUSTOMERS = 32;
+
+    @Param({"10000", "600000"})
+    public int iterations;
+
+    private Path folder;
+    private FileDataStore dataStore;
+    private DefaultFoodDeliveryService coldService;
+    private DefaultFoodDeliveryService cachedService;
+    private Credentials[] credentials;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        folder = BenchmarkData.createFolder(0, 10);
+        credentials = new Credentials[CUSTOMERS];
+        try (BufferedWriter writer = Files.newBufferedWriter(folder.resolve("customers.csv"))) {
+            for (int i = 0; i < CUSTOMERS; i++) {
+                String hash = PasswordHash.create(BenchmarkData.password(i), iterations).encode();
+                writer.write(BenchmarkData.userName(i) + "," + hash + "," + i + ",Customer " + i + ",1000.00\n");
+                credentials[i] = new Credentials(BenchmarkData.userName(i), BenchmarkData.password(i));
+            }
+        }
+        dataStore = new FileDataStore(folder.toString());
+        dataStore.init();
+        coldService = new DefaultFoodDeliveryService(dataStore, 0, Duration.ZERO);
+        cachedService = new DefaultFoodDeliveryService(dataStore, CUSTOMERS, Duration.ofHours(1));
+        for (Credentials login : credentials) {
+            cachedService.authenticate(login);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataStore.close();
+        BenchmarkData.delete(folder);
+    }
+
+    @Benchmark
+    public Customer coldLogin() {
+        return coldService.authenticate(credentials[next++ % CUSTOMERS]);
+    }
+
+    @Benchmark
+    public Customer cachedLogin() {
+        return cachedService.authenticate(credentials[next++ % CUSTOMERS]);
+    }
+}
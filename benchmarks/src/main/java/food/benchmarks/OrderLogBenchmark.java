@@ -0,0 +1,108 @@
+package food.benchmarks;
+
+import food.data.FoodCatalog;
+import food.data.LogBuffer;
+import food.data.OrderLogConverter;
+import food.data.OrderLogFormat;
+import food.data.OrderLogReader;
+import food.domain.Order;
+import food.domain.OrderItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Encoding and replaying the order log in the CSV and the binary format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class OrderLogBenchmark {
+
+    @Param({"100000"})
+    public int orderCount;
+
+    @Param({"3"})
+    public int itemsPerOrder;
+
+    @Param({"CSV", "BINARY"})
+    public String format;
+
+    private OrderLogFormat logFormat;
+    private FoodCatalog catalog;
+    private List<Order> orders;
+    private final LogBuffer buffer = new LogBuffer(1 << 20);
+    private Path folder;
+    private Path log;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        logFormat = format.equals("BINARY") ? OrderLogFormat.BINARY : OrderLogFormat.CSV;
+        catalog = FoodCatalog.of(IntStream.range(0, itemsPerOrder).mapToObj(BenchmarkData::food).toList());
+        orders = new ArrayList<>(orderCount);
+        for (Order order : BenchmarkData.orders(orderCount, itemsPerOrder)) {
+            List<OrderItem> items = order.getOrderItems().stream()
+                    .map(item -> new OrderItem(catalog.intern(item.getFood()), item.getPieces(), item.getPriceMinor()))
+                    .toList();
+            orders.add(new Order(order.getOrderId(), order.getCustomerId(), items, order.getPriceMinor(),
+                    order.getTimestampCreated()));
+        }
+        folder = Files.createTempDirectory("food-benchmark");
+        Path csv = folder.resolve("source.csv");
+        var out = new LogBuffer();
+        orders.forEach(order -> OrderLogFormat.CSV.write(order, out));
+        try (var channel = FileChannel.open(csv, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.write(out.asByteBuffer());
+        }
+        log = folder.resolve(logFormat.fileName());
+        OrderLogConverter.convert(csv, OrderLogFormat.CSV, log, logFormat, catalog);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkData.delete(folder);
+    }
+
+    @Benchmark
+    public int encode() {
+        buffer.clear();
+        logFormat.writePreamble(0, -1, buffer);
+        for (Order order : orders) {
+            logFormat.write(order, buffer);
+        }
+        return buffer.size();
+    }
+
+    @Benchmark
+    public void replay(Blackhole blackhole) throws IOException {
+        try (OrderLogReader reader = logFormat.openReader(log, 0, catalog)) {
+            for (Order order; (order = reader.next()) != null; ) {
+                blackhole.consume(order);
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package food.benchmarks;
+
+import food.data.OrderWriter;
+import food.domain.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appending a single order versus rewriting the whole order history.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class OrderWriterBenchmark {
+
+    @Param({"100", "10000"})
+    public int orderCount;
+
+    @Param({"3"})
+    public int itemsPerOrder;
+
+    private final OrderWriter orderWriter = new OrderWriter();
+    private List<Order> orders;
+    private Order order;
+    private Path folder;
+    private String appendFile;
+    private String rewriteFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        orders = BenchmarkData.orders(orderCount, itemsPerOrder);
+        order = orders.get(orders.size() - 1);
+        folder = Files.createTempDirectory("food-benchmark");
+        appendFile = folder.resolve("append.csv").toString();
+        rewriteFile = folder.resolve("rewrite.csv").toString();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetFiles() throws IOException {
+        Files.deleteIfExists(Path.of(appendFile));
+        Files.deleteIfExists(Path.of(rewriteFile));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkData.delete(folder);
+    }
+
+    @Benchmark
+    public void appendOrder() {
+        orderWriter.appendOrder(order, appendFile);
+    }
+
+    @Benchmark
+    public void writeOrders() {
+        orderWriter.writeOrders(orders, rewriteFile);
+    }
+}
@@ -0,0 +1,62 @@
+package food.benchmarks;
+
+import food.data.CustomerReader;
+import food.data.FoodReader;
+import food.domain.Customer;
+import food.domain.Food;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of parsing customers.csv and foods.csv at several file sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ReaderBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private final CustomerReader customerReader = new CustomerReader();
+    private final FoodReader foodReader = new FoodReader();
+    private Path folder;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        folder = BenchmarkData.createFolder(rows, rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkData.delete(folder);
+    }
+
+    @Benchmark
+    public List<Customer> readCustomers() {
+        return customerReader.read(folder.resolve("customers.csv").toString());
+    }
+
+    @Benchmark
+    public List<Food> readFoods() {
+        return foodReader.read(folder.resolve("foods.csv").toString());
+    }
+}
@@ -0,0 +1,136 @@
+package food.benchmarks;
+
+import food.data.FileDataStore;
+import food.data.FsyncPolicy;
+import food.domain.Credentials;
+import food.domain.Customer;
+import food.domain.Food;
+import food.domain.Order;
+import food.service.DefaultFoodDeliveryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot paths of {@link DefaultFoodDeliveryService}: login, cart updates on large carts and
+ * concurrent checkout.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ServiceBenchmark {
+
+    @Param({"1000", "1000000"})
+    public int customers;
+
+    @Param({"500"})
+    public int foods;
+
+    @Param({"PER_BATCH"})
+    public FsyncPolicy fsyncPolicy;
+
+    private Path folder;
+    private FileDataStore dataStore;
+    private DefaultFoodDeliveryService service;
+    private List<Food> menu;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        folder = BenchmarkData.createFolder(customers, foods);
+        dataStore = new FileDataStore.Builder(folder.toString()).fsyncPolicy(fsyncPolicy)
+                .fsyncInterval(Duration.ofMillis(5)).build();
+        dataStore.init();
+        service = new DefaultFoodDeliveryService(dataStore);
+        menu = service.listAllFood();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        service.close();
+        dataStore.close();
+        BenchmarkData.delete(folder);
+    }
+
+    /**
+     * One logged-in customer per benchmark thread, with a cart of {@code cartSize} distinct foods.
+     * <p>
+     * Every iteration tops the customer's balance up by what the longest iteration could spend at
+     * {@value #MAX_ORDERS_PER_SECOND} orders a second of the dearest food, so {@link #createOrder}
+     * never runs out of money, however fast it is.
+     */
+    @State(Scope.Thread)
+    public static class Session {
+        static final long MAX_ORDERS_PER_SECOND = 1_000_000;
+
+        @Param({"10", "500"})
+        public int cartSize;
+
+        Customer customer;
+        Credentials credentials;
+        String token;
+        int next;
+
+        @Setup(Level.Iteration)
+        public void setUp(ServiceBenchmark benchmark, ThreadParams threadParams, BenchmarkParams params) {
+            int index = threadParams.getThreadIndex() % benchmark.customers;
+            credentials = new Credentials(BenchmarkData.userName(index), BenchmarkData.password(index));
+            // a fresh session starts with an empty cart and gives the last one's hold back
+            if (token != null) {
+                benchmark.service.logout(token);
+            }
+            food.service.Session session = benchmark.service.login(credentials);
+            token = session.token();
+            customer = session.customer();
+            customer.credit(topUp(benchmark.menu, params));
+            for (int i = 0; i < Math.min(cartSize, benchmark.menu.size()); i++) {
+                benchmark.service.updateCart(customer, benchmark.menu.get(i), 1);
+            }
+        }
+
+        private static long topUp(List<Food> menu, BenchmarkParams params) {
+            long dearest = menu.stream().mapToLong(Food::getPriceMinor).max().orElse(0);
+            long seconds = Math.max(params.getWarmup().getTime().convertTo(TimeUnit.SECONDS),
+                    params.getMeasurement().getTime().convertTo(TimeUnit.SECONDS)) + 1;
+            return Math.multiplyExact(Math.multiplyExact(seconds, MAX_ORDERS_PER_SECOND), dearest);
+        }
+    }
+
+    @Benchmark
+    public Customer authenticate(Session session) {
+        return service.authenticate(session.credentials);
+    }
+
+    @Benchmark
+    public void updateCart(Session session) {
+        int index = session.next++ % Math.min(session.cartSize, menu.size());
+        service.updateCart(session.customer, menu.get(index), 1 + session.next % 3);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Order createOrder(Session session) {
+        service.updateCart(session.customer, menu.get(session.next++ % menu.size()), 1);
+        return service.createOrder(session.customer);
+    }
+}
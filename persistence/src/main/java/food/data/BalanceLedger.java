@@ -0,0 +1,228 @@
+package food.data;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Customer balances in minor units, one {@code long} slot per customer row, kept outside the Java
+ * heap so the garbage collector never scans or copies them.
+ * <p>
+ * Slots come in segments of a fixed number of slots, each a direct {@link ByteBuffer} or, for a
+ * ledger file, a region of the file mapped into memory. Segments are never moved once handed out.
+ * Slots are accessed through a {@link VarHandle} view of the buffer, so {@link #tryDebit} and
+ * {@link #credit} are compare-and-set loops that need no lock.
+ * <p>
+ * A ledger file is a 64-byte header (magic {@code FDBL}, version, clean flag, row count, segment
+ * size, fingerprint) followed by the segments, little-endian. The clean flag is cleared when the
+ * file is opened and set again by {@link #close(long, long)}, so balances are only
+ * {@linkplain #restoredRows() restored} from a file that was closed after its last write. The
+ * fingerprint is the caller's: a value that identifies what the slots belong to, checked by the
+ * caller before it trusts restored balances.
+ */
+final class BalanceLedger implements AutoCloseable {
+
+    static final String FILE_NAME = "balances.ledger";
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final byte[] MAGIC = {'F', 'D', 'B', 'L'};
+    private static final byte VERSION = 2;
+    private static final int HEADER_SIZE = 64;
+    private static final int CLEAN_AT = 5;
+    private static final int ROWS_AT = 8;
+    private static final int SEGMENT_SLOTS_AT = 16;
+    private static final int FINGERPRINT_AT = 24;
+
+    private final int segmentSlots;
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final long restoredRows;
+    private final long restoredFingerprint;
+    private volatile ByteBuffer[] segments = new ByteBuffer[0];
+
+    private BalanceLedger(int segmentSlots, Path file, FileChannel channel, MappedByteBuffer header, long restoredRows,
+                          long restoredFingerprint) {
+        this.segmentSlots = segmentSlots;
+        this.file = file;
+        this.channel = channel;
+        this.header = header;
+        this.restoredRows = restoredRows;
+        this.restoredFingerprint = restoredFingerprint;
+    }
+
+    /**
+     * A ledger in direct memory, gone with the process.
+     */
+    static BalanceLedger inMemory(int segmentSlots) {
+        return new BalanceLedger(segmentSlots, null, null, null, -1, 0);
+    }
+
+    /**
+     * Opens or creates a ledger file. If it was closed cleanly with the same segment size, its
+     * balances are kept and {@link #restoredRows()} and {@link #restoredFingerprint()} tell what
+     * they were written for.
+     */
+    static BalanceLedger map(Path file, int segmentSlots) {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            boolean existed = channel.size() >= HEADER_SIZE;
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            byte[] magic = new byte[MAGIC.length];
+            header.get(0, magic);
+            long restoredRows = -1;
+            long restoredFingerprint = 0;
+            if (existed && Arrays.equals(magic, MAGIC) && header.get(MAGIC.length) == VERSION
+                    && header.get(CLEAN_AT) == 1 && header.getLong(SEGMENT_SLOTS_AT) == segmentSlots) {
+                restoredRows = header.getLong(ROWS_AT);
+                restoredFingerprint = header.getLong(FINGERPRINT_AT);
+            }
+            header.put(0, MAGIC).put(MAGIC.length, VERSION).put(CLEAN_AT, (byte) 0)
+                    .putLong(SEGMENT_SLOTS_AT, segmentSlots);
+            header.force();
+            return new BalanceLedger(segmentSlots, file, channel, header, restoredRows, restoredFingerprint);
+        } catch (IOException e) {
+            closeQuietly(channel);
+            throw new RuntimeException("IOException happened while opening file: " + file, e);
+        }
+    }
+
+    /**
+     * Rows whose balances were restored from a cleanly closed ledger file; -1 if none were.
+     */
+    long restoredRows() {
+        return restoredRows;
+    }
+
+    /**
+     * The fingerprint the restored rows were closed with; 0 if none were restored.
+     */
+    long restoredFingerprint() {
+        return restoredFingerprint;
+    }
+
+    int segmentSlots() {
+        return segmentSlots;
+    }
+
+    /**
+     * Segment {@code index}, allocating it and every segment before it as needed. The slots of
+     * a new segment are zero, or whatever the ledger file held there.
+     */
+    synchronized ByteBuffer segment(int index) {
+        ByteBuffer[] current = segments;
+        if (index < current.length) {
+            return current[index];
+        }
+        ByteBuffer[] grown = Arrays.copyOf(current, index + 1);
+        for (int i = current.length; i <= index; i++) {
+            grown[i] = allocate(i);
+        }
+        segments = grown;
+        return grown[index];
+    }
+
+    static long get(ByteBuffer segment, int slot) {
+        return (long) LONGS.getOpaque(segment, slot << 3);
+    }
+
+    static void set(ByteBuffer segment, int slot, long value) {
+        LONGS.setRelease(segment, slot << 3, value);
+    }
+
+    /**
+     * Subtracts {@code amount} unless that would take the balance below zero.
+     *
+     * @return whether the balance was debited
+     */
+    static boolean tryDebit(ByteBuffer segment, int slot, long amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Debit must not be negative: " + amount);
+        }
+        long balance;
+        do {
+            balance = (long) LONGS.getVolatile(segment, slot << 3);
+            if (balance < amount) {
+                return false;
+            }
+        } while (!LONGS.compareAndSet(segment, slot << 3, balance, balance - amount));
+        return true;
+    }
+
+    /**
+     * Adds {@code amount} and returns the new balance.
+     *
+     * @throws ArithmeticException if the balance would overflow
+     */
+    static long credit(ByteBuffer segment, int slot, long amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Credit must not be negative: " + amount);
+        }
+        long balance;
+        long credited;
+        do {
+            balance = (long) LONGS.getVolatile(segment, slot << 3);
+            credited = Math.addExact(balance, amount);
+        } while (!LONGS.compareAndSet(segment, slot << 3, balance, credited));
+        return credited;
+    }
+
+    @Override
+    public void close() {
+        close(-1, 0);
+    }
+
+    /**
+     * Writes a ledger file back and marks it clean with {@code rows} rows and the
+     * {@code fingerprint} they belong to, so the next {@link #map} restores it; a negative row
+     * count leaves it unclean. No-op in memory.
+     */
+    synchronized void close(long rows, long fingerprint) {
+        if (channel == null || !channel.isOpen()) {
+            return;
+        }
+        try {
+            for (ByteBuffer segment : segments) {
+                ((MappedByteBuffer) segment).force();
+            }
+            if (rows >= 0) {
+                header.putLong(ROWS_AT, rows).putLong(FINGERPRINT_AT, fingerprint).put(CLEAN_AT, (byte) 1);
+                header.force();
+            }
+        } finally {
+            closeQuietly(channel);
+        }
+    }
+
+    private ByteBuffer allocate(int index) {
+        long bytes = (long) segmentSlots << 3;
+        if (channel == null) {
+            return ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        try {
+            return channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + index * bytes, bytes)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+        } catch (IOException e) {
+            throw new RuntimeException("IOException happened while mapping file: " + file, e);
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // mappings outlive their channel, so nothing is lost
+            }
+        }
+    }
+}
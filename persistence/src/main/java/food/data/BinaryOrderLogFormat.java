@@ -0,0 +1,293 @@
+package food.data;
+
+import food.domain.Food;
+import food.domain.Order;
+import food.domain.OrderItem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * The {@code orders.log} format: one length-prefixed, checksummed record per order.
+ * <p>
+ * The file starts with the magic {@code FDOL} and a version byte. Every record is
+ * <pre>
+ *   int32   payload length (big-endian)
+ *   payload
+ *   int32   CRC32C of the payload (big-endian)
+ * </pre>
+ * and the payload holds the order id as an unsigned varint, then the customer id, the creation
+ * time in epoch milliseconds (UTC) and the total in minor units as zig-zag varints, then the item
+ * count and per item a food reference, the pieces and the price. A food reference is the food's
+ * catalog id plus one, or {@code 0} followed by the length-prefixed UTF-8 name for foods without
+ * an id. Catalog ids never change meaning: {@link FileDataStore} records them in {@code foods.ids}
+ * and seeds every catalog with them (see {@link FoodCatalog#of(List, List)}), and a food that left
+ * the menu keeps its id, so a log stays readable whatever happens to {@code foods.csv}.
+ */
+final class BinaryOrderLogFormat implements OrderLogFormat {
+
+    static final byte[] MAGIC = {'F', 'D', 'O', 'L'};
+    static final byte VERSION = 1;
+    static final int HEADER_SIZE = MAGIC.length + 1;
+    static final int MAX_RECORD_SIZE = 16 * 1024 * 1024;
+
+    private static final int LENGTH_SIZE = 4;
+    private static final int CRC_SIZE = 4;
+
+    @Override
+    public String fileName() {
+        return "orders.log";
+    }
+
+    @Override
+    public void writePreamble(long size, int lastByte, LogBuffer out) {
+        if (size == 0) {
+            out.writeBytes(MAGIC, 0, MAGIC.length);
+            out.writeByte(VERSION);
+        }
+    }
+
+    @Override
+    public void write(Order order, LogBuffer out) {
+        int lengthAt = out.size();
+        out.writeIntBigEndian(0);
+        int payloadAt = out.size();
+        out.writeVarLong(order.getOrderId());
+        out.writeSignedVarLong(order.getCustomerId());
+        out.writeSignedVarLong(order.getTimestampCreated().toInstant(ZoneOffset.UTC).toEpochMilli());
+        out.writeSignedVarLong(order.getPriceMinor());
+        List<OrderItem> items = order.getOrderItems();
+        out.writeVarLong(items.size());
+        for (OrderItem item : items) {
+            Food food = item.getFood();
+            if (food.hasId()) {
+                out.writeVarLong(food.getId() + 1L);
+            } else {
+                byte[] name = food.getName().getBytes(StandardCharsets.UTF_8);
+                out.writeVarLong(0);
+                out.writeVarLong(name.length);
+                out.writeBytes(name, 0, name.length);
+            }
+            out.writeVarLong(item.getPieces());
+            out.writeSignedVarLong(item.getPriceMinor());
+        }
+        int payloadLength = out.size() - payloadAt;
+        var crc = new CRC32C();
+        crc.update(out.array(), payloadAt, payloadLength);
+        out.writeIntBigEndian((int) crc.getValue());
+        patchInt(out.array(), lengthAt, payloadLength);
+    }
+
+    @Override
+    public OrderLogReader openReader(Path file, long offset, FoodCatalog catalog) throws IOException {
+        var channel = FileChannel.open(file);
+        try {
+            channel.position(offset);
+            return new Reader(channel, catalog, offset);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static void patchInt(byte[] bytes, int at, int value) {
+        bytes[at] = (byte) (value >>> 24);
+        bytes[at + 1] = (byte) (value >>> 16);
+        bytes[at + 2] = (byte) (value >>> 8);
+        bytes[at + 3] = (byte) value;
+    }
+
+    private static final class Reader implements OrderLogReader {
+        private final FileChannel channel;
+        private final FoodCatalog catalog;
+        private final CRC32C crc = new CRC32C();
+        private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        private boolean endOfInput;
+        private boolean finished;
+        private boolean truncated;
+        private long position;
+        private long validLength;
+        private long recordOffset;
+
+        Reader(FileChannel channel, FoodCatalog catalog, long offset) throws IOException {
+            this.channel = channel;
+            this.catalog = catalog;
+            this.position = offset;
+            this.validLength = offset;
+            this.recordOffset = offset;
+            buffer.limit(0);
+            if (offset == 0) {
+                readHeader();
+            }
+        }
+
+        @Override
+        public Order next() {
+            if (finished) {
+                return null;
+            }
+            try {
+                if (!ensure(LENGTH_SIZE)) {
+                    return end(buffer.hasRemaining());
+                }
+                int length = buffer.getInt(buffer.position());
+                if (length <= 0 || length > MAX_RECORD_SIZE || !ensure(LENGTH_SIZE + length + CRC_SIZE)) {
+                    return end(true);
+                }
+                int payloadAt = buffer.position() + LENGTH_SIZE;
+                crc.reset();
+                crc.update(buffer.array(), buffer.arrayOffset() + payloadAt, length);
+                if ((int) crc.getValue() != buffer.getInt(payloadAt + length)) {
+                    return end(true);
+                }
+                Order order = decode(buffer.slice(payloadAt, length));
+                int recordSize = LENGTH_SIZE + length + CRC_SIZE;
+                buffer.position(buffer.position() + recordSize);
+                recordOffset = position;
+                position += recordSize;
+                validLength = position;
+                return order;
+            } catch (IOException e) {
+                throw new RuntimeException("IOException happened while reading order log", e);
+            }
+        }
+
+        @Override
+        public long validLength() {
+            return validLength;
+        }
+
+        @Override
+        public long recordOffset() {
+            return recordOffset;
+        }
+
+        @Override
+        public void seek(long offset) {
+            long bufferStart = position - buffer.position();
+            if (offset >= bufferStart && offset <= bufferStart + buffer.limit()) {
+                buffer.position((int) (offset - bufferStart));
+            } else {
+                try {
+                    channel.position(offset);
+                } catch (IOException e) {
+                    throw new RuntimeException("IOException happened while reading order log", e);
+                }
+                buffer.clear().limit(0);
+                endOfInput = false;
+            }
+            position = offset;
+            validLength = offset;
+            recordOffset = offset;
+            finished = false;
+            truncated = false;
+        }
+
+        @Override
+        public boolean isTruncated() {
+            return truncated;
+        }
+
+        @Override
+        public void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new RuntimeException("IOException happened while closing order log", e);
+            }
+        }
+
+        private void readHeader() throws IOException {
+            if (!ensure(HEADER_SIZE)) {
+                // an empty log, or one torn while its header was written
+                end(buffer.hasRemaining());
+                return;
+            }
+            for (byte b : MAGIC) {
+                if (buffer.get() != b) {
+                    throw new IllegalStateException("Not a binary order log: bad magic");
+                }
+            }
+            byte version = buffer.get();
+            if (version != VERSION) {
+                throw new IllegalStateException("Unsupported binary order log version: " + version);
+            }
+            position = HEADER_SIZE;
+            validLength = HEADER_SIZE;
+            recordOffset = HEADER_SIZE;
+        }
+
+        private Order end(boolean damaged) {
+            finished = true;
+            truncated = damaged;
+            return null;
+        }
+
+        /**
+         * Makes at least {@code bytes} unread bytes available, reading more of the file as needed.
+         *
+         * @return {@code false} if the file ends first
+         */
+        private boolean ensure(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return true;
+            }
+            buffer.compact();
+            if (buffer.capacity() < bytes) {
+                buffer.flip();
+                buffer = ByteBuffer.allocate(Math.max(bytes, buffer.capacity() * 2)).put(buffer);
+            }
+            while (buffer.position() < bytes && !endOfInput) {
+                if (channel.read(buffer) < 0) {
+                    endOfInput = true;
+                }
+            }
+            buffer.flip();
+            return buffer.remaining() >= bytes;
+        }
+
+        private Order decode(ByteBuffer payload) {
+            long orderId = LogBuffer.readVarLong(payload);
+            long customerId = LogBuffer.readSignedVarLong(payload);
+            var timestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(LogBuffer.readSignedVarLong(payload)), ZoneOffset.UTC);
+            long total = LogBuffer.readSignedVarLong(payload);
+            int count = Math.toIntExact(LogBuffer.readVarLong(payload));
+            List<OrderItem> items = new ArrayList<>(Math.min(count, 64));
+            for (int i = 0; i < count; i++) {
+                Food food = readFood(payload);
+                int pieces = Math.toIntExact(LogBuffer.readVarLong(payload));
+                items.add(new OrderItem(food, pieces, LogBuffer.readSignedVarLong(payload)));
+            }
+            if (payload.hasRemaining()) {
+                throw new IllegalStateException("Corrupt order log record at offset " + position
+                        + ": " + payload.remaining() + " trailing bytes");
+            }
+            return new Order(orderId, customerId, items, total, timestamp);
+        }
+
+        private Food readFood(ByteBuffer payload) {
+            long ref = LogBuffer.readVarLong(payload);
+            if (ref > 0) {
+                try {
+                    return catalog.get(Math.toIntExact(ref - 1));
+                } catch (IllegalArgumentException | ArithmeticException e) {
+                    throw new IllegalStateException("Order log record at offset " + position
+                            + " refers to food id " + (ref - 1) + ", which the food catalog never assigned", e);
+                }
+            }
+            var name = new byte[Math.toIntExact(LogBuffer.readVarLong(payload))];
+            payload.get(name);
+            String foodName = new String(name, StandardCharsets.UTF_8);
+            return catalog.findByName(foodName).orElseGet(() -> new Food.Builder().name(foodName).build());
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package food.data;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Objects;
+
+/**
+ * Pull-based CSV cursor reading a channel through one reusable buffer.
+ * <p>
+ * Only the current line is held in memory: consumed lines are compacted away before the next
+ * read, and the buffer only grows when a single line does not fit into it. Blank lines are
+ * skipped, and both {@code \n} and {@code \r\n} terminate a line.
+ */
+final class CsvCursor implements AutoCloseable {
+
+    static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final ReadableByteChannel channel;
+    private final CsvRow row = new CsvRow();
+    private ByteBuffer buffer;
+    private int position;
+    private boolean endOfInput;
+    // input offset of buffer index 0, and of the current row's bounds
+    private long bufferOffset;
+    private long rowStart;
+    private long rowEnd;
+    private boolean rowTerminated;
+
+    CsvCursor(ReadableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    CsvCursor(ReadableByteChannel channel, int bufferSize) {
+        this(channel, bufferSize, 0);
+    }
+
+    /**
+     * @param startOffset the input offset the channel is positioned at, reported by {@link #rowStart()}
+     */
+    CsvCursor(ReadableByteChannel channel, int bufferSize, long startOffset) {
+        this.channel = Objects.requireNonNull(channel);
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.buffer.limit(0);
+        this.bufferOffset = startOffset;
+    }
+
+    /**
+     * Advances to the next non-blank line.
+     *
+     * @return {@code false} once the input is exhausted
+     */
+    boolean next() {
+        try {
+            while (true) {
+                int newLine = indexOfNewLine(position, buffer.limit());
+                if (newLine >= 0) {
+                    int start = position;
+                    position = newLine + 1;
+                    rowTerminated = true;
+                    if (parse(start, newLine)) {
+                        return true;
+                    }
+                } else if (endOfInput) {
+                    int start = position;
+                    position = buffer.limit();
+                    rowTerminated = false;
+                    return start < position && parse(start, position);
+                } else {
+                    fill();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Continues at input offset {@code offset}, the start of a line. Within the buffered input this
+     * is only a jump; elsewhere the channel, which must then be seekable, is repositioned.
+     */
+    void seek(long offset) {
+        if (offset >= bufferOffset && offset <= bufferOffset + buffer.limit()) {
+            position = (int) (offset - bufferOffset);
+            return;
+        }
+        if (!(channel instanceof SeekableByteChannel seekable)) {
+            throw new UnsupportedOperationException("Input is not seekable");
+        }
+        try {
+            seekable.position(offset);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear().limit(0);
+        position = 0;
+        bufferOffset = offset;
+        endOfInput = false;
+    }
+
+    /**
+     * The current row; only valid until the next call to {@link #next()}.
+     */
+    CsvRow row() {
+        return row;
+    }
+
+    /**
+     * Input offset of the first byte of the current row.
+     */
+    long rowStart() {
+        return rowStart;
+    }
+
+    /**
+     * Input offset just past the current row, including its line terminator.
+     */
+    long rowEnd() {
+        return rowEnd;
+    }
+
+    /**
+     * Whether the current row ended with a line terminator rather than at the end of the input.
+     */
+    boolean rowTerminated() {
+        return rowTerminated;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean parse(int start, int end) {
+        rowStart = bufferOffset + start;
+        rowEnd = bufferOffset + position;
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        if (end == start) {
+            return false;
+        }
+        row.parse(buffer, start, end);
+        return true;
+    }
+
+    private int indexOfNewLine(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void fill() throws IOException {
+        buffer.position(position);
+        buffer.compact();
+        bufferOffset += position;
+        position = 0;
+        if (!buffer.hasRemaining()) {
+            // a single line is longer than the buffer
+            buffer.flip();
+            buffer = ByteBuffer.allocate(buffer.capacity() * 2).put(buffer);
+        }
+        if (channel.read(buffer) < 0) {
+            endOfInput = true;
+        }
+        buffer.flip();
+    }
+}
@@ -0,0 +1,178 @@
+package food.data;
+
+import food.domain.Food;
+import food.domain.Order;
+import food.domain.OrderItem;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code orders.csv} format: one line per order item, repeating the order columns.
+ * <p>
+ * CSV has no record framing, so damage is detected only at the end of the file, by checking that
+ * the last order's record is complete: its last line must be terminated, or at least end with a
+ * whole total, and a cut-off line after it must not carry its id. Order totals are not checked
+ * against their items, which a discount may undercut. A tear that happens to end on a line break
+ * inside an order cannot be told from a complete order; the checksummed
+ * {@link OrderLogFormat#BINARY} format has no such gap.
+ */
+final class CsvOrderLogFormat implements OrderLogFormat {
+
+    private static final int COLUMNS = 7;
+
+    private final OrderWriter orderWriter = new OrderWriter();
+
+    @Override
+    public String fileName() {
+        return "orders.csv";
+    }
+
+    @Override
+    public void writePreamble(long size, int lastByte, LogBuffer out) {
+        if (size > 0 && lastByte != '\n') {
+            out.writeByte('\n');
+        }
+    }
+
+    @Override
+    public void write(Order order, LogBuffer out) {
+        var sb = new StringBuilder(128);
+        orderWriter.appendOrderLines(sb, order);
+        out.writeUtf8(sb);
+    }
+
+    @Override
+    public OrderLogReader openReader(Path file, long offset, FoodCatalog catalog) throws IOException {
+        var channel = FileChannel.open(file);
+        channel.position(offset);
+        return new Reader(new CsvCursor(channel, CsvCursor.DEFAULT_BUFFER_SIZE, offset), catalog, offset);
+    }
+
+    /**
+     * One parsed line, detached from the reused {@link CsvRow}.
+     */
+    private record Line(long orderId, long customerId, String foodName, int pieces, long price,
+                        LocalDateTime timestamp, long total, long start, long end, boolean complete) {
+    }
+
+    private static final class Reader implements OrderLogReader {
+        private final CsvCursor cursor;
+        private final FoodCatalog catalog;
+        private Line pending;
+        private boolean exhausted;
+        private boolean truncated;
+        // the start of a cut-off last line up to its first comma, if it has one
+        private String tornLinePrefix;
+        private long validLength;
+        private long recordOffset;
+
+        Reader(CsvCursor cursor, FoodCatalog catalog, long offset) {
+            this.cursor = cursor;
+            this.catalog = catalog;
+            this.validLength = offset;
+            this.recordOffset = offset;
+        }
+
+        @Override
+        public Order next() {
+            Line first = pending != null ? pending : readLine();
+            pending = null;
+            if (first == null) {
+                return null;
+            }
+            List<OrderItem> items = new ArrayList<>();
+            items.add(item(first));
+            Line last = first;
+            Line line;
+            while ((line = readLine()) != null && line.orderId() == first.orderId()) {
+                items.add(item(line));
+                last = line;
+            }
+            pending = line;
+            if (!last.complete() || truncated && (first.orderId() + ",").startsWith(tornLinePrefix)) {
+                // the write of the last order was torn, in its final line or in one that was cut off
+                truncated = true;
+                return null;
+            }
+            recordOffset = first.start();
+            validLength = last.end();
+            return new Order(first.orderId(), first.customerId(), items, first.total(), first.timestamp());
+        }
+
+        @Override
+        public long validLength() {
+            return validLength;
+        }
+
+        @Override
+        public long recordOffset() {
+            return recordOffset;
+        }
+
+        @Override
+        public void seek(long offset) {
+            cursor.seek(offset);
+            pending = null;
+            exhausted = false;
+            truncated = false;
+            tornLinePrefix = null;
+            validLength = offset;
+            recordOffset = offset;
+        }
+
+        @Override
+        public boolean isTruncated() {
+            return truncated;
+        }
+
+        @Override
+        public void close() {
+            cursor.close();
+        }
+
+        // amounts are written with two decimals, so a total cut short has fewer
+        private static boolean hasWholeAmount(String text) {
+            int point = text.length() - 3;
+            return point > 0 && text.charAt(point) == '.'
+                    && Character.isDigit(text.charAt(point + 1)) && Character.isDigit(text.charAt(point + 2));
+        }
+
+        private OrderItem item(Line line) {
+            Food food = catalog.findByName(line.foodName())
+                    .orElseGet(() -> new Food.Builder().name(line.foodName()).build());
+            return new OrderItem(food, line.pieces(), line.price());
+        }
+
+        private Line readLine() {
+            if (exhausted || !cursor.next()) {
+                exhausted = true;
+                return null;
+            }
+            CsvRow row = cursor.row();
+            try {
+                if (row.size() != COLUMNS) {
+                    throw new IllegalArgumentException("Expected " + COLUMNS + " columns: " + row);
+                }
+                return new Line(row.getLong(0), row.getLong(1), row.getString(2), (int) row.getLong(3),
+                        row.getMoney(4), LocalDateTime.parse(row.getString(5), OrderWriter.DATE_TIME_FORMATTER),
+                        row.getMoney(6), cursor.rowStart(), cursor.rowEnd(),
+                        cursor.rowTerminated() || hasWholeAmount(row.getString(6)));
+            } catch (IllegalArgumentException | ArithmeticException | DateTimeParseException e) {
+                long offset = cursor.rowStart();
+                tornLinePrefix = row.size() > 1 ? row.getString(0) + "," : row.getString(0);
+                if (cursor.rowTerminated() || cursor.next()) {
+                    throw new IllegalStateException("Corrupt order log line at offset " + offset + ": " + e.getMessage(), e);
+                }
+                exhausted = true;
+                truncated = true;
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package food.data;
+
+import food.values.Money;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * One CSV row parsed in place out of a byte buffer.
+ * <p>
+ * The row only records where each field starts and ends; nothing is copied until a field is
+ * asked for, and numeric fields are parsed straight from the bytes. A row is reused for every
+ * line of a file, so its fields are only valid until the next line is parsed.
+ * <p>
+ * Fields are separated by commas. A comma between double quotes does not split, and the quotes
+ * are kept as part of the field text.
+ */
+public final class CsvRow {
+
+    private static final int MAX_FAST_DIGITS = 18;
+
+    private ByteBuffer buffer;
+    private int[] starts = new int[8];
+    private int[] ends = new int[8];
+    private int size;
+    private byte[] scratch = new byte[64];
+
+    /**
+     * Splits {@code buffer[from, to)} into fields. The range must not contain the line terminator.
+     */
+    void parse(ByteBuffer buffer, int from, int to) {
+        this.buffer = buffer;
+        size = 0;
+        int fieldStart = from;
+        boolean quoted = false;
+        for (int i = from; i < to; i++) {
+            byte b = buffer.get(i);
+            if (b == '"') {
+                quoted = !quoted;
+            } else if (b == ',' && !quoted) {
+                addField(fieldStart, i);
+                fieldStart = i + 1;
+            }
+        }
+        addField(fieldStart, to);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String getString(int field) {
+        int start = start(field);
+        int length = ends[field] - start;
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + start, length, StandardCharsets.UTF_8);
+        }
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    public long getLong(int field) {
+        int start = start(field);
+        int end = ends[field];
+        boolean negative = start < end && buffer.get(start) == '-';
+        int i = negative || (start < end && buffer.get(start) == '+') ? start + 1 : start;
+        if (i == end) {
+            throw numberFormatException(field);
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw numberFormatException(field);
+            }
+            value = Math.addExact(Math.multiplyExact(value, 10), negative ? -digit : digit);
+        }
+        return value;
+    }
+
+    public BigDecimal getBigDecimal(int field) {
+        int start = start(field);
+        int end = ends[field];
+        boolean negative = start < end && buffer.get(start) == '-';
+        int i = negative || (start < end && buffer.get(start) == '+') ? start + 1 : start;
+        long unscaled = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b == '.' && scale < 0) {
+                scale = 0;
+            } else if (b >= '0' && b <= '9' && digits < MAX_FAST_DIGITS) {
+                unscaled = unscaled * 10 + (b - '0');
+                digits++;
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else {
+                // exponents, very long numbers and malformed input take the slow path
+                return new BigDecimal(getString(field));
+            }
+        }
+        if (digits == 0) {
+            throw numberFormatException(field);
+        }
+        return BigDecimal.valueOf(negative ? -unscaled : unscaled, Math.max(scale, 0));
+    }
+
+    /**
+     * Parses a money amount into {@link Money} minor units without creating a {@link BigDecimal}.
+     */
+    public long getMoney(int field) {
+        int start = start(field);
+        int end = ends[field];
+        boolean negative = start < end && buffer.get(start) == '-';
+        int i = negative || (start < end && buffer.get(start) == '+') ? start + 1 : start;
+        long minor = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else if (b >= '0' && b <= '9' && fractionDigits < Money.SCALE && digits < MAX_FAST_DIGITS) {
+                minor = minor * 10 + (b - '0');
+                digits++;
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else {
+                return Money.of(getBigDecimal(field));
+            }
+        }
+        if (digits == 0) {
+            throw numberFormatException(field);
+        }
+        for (int d = Math.max(fractionDigits, 0); d < Money.SCALE; d++) {
+            minor = Math.multiplyExact(minor, 10);
+        }
+        return negative ? -minor : minor;
+    }
+
+    @Override
+    public String toString() {
+        var fields = new String[size];
+        for (int i = 0; i < size; i++) {
+            fields[i] = getString(i);
+        }
+        return String.join(",", fields);
+    }
+
+    private int start(int field) {
+        if (field < 0 || field >= size) {
+            throw new IllegalArgumentException("Row has " + size + " fields, no field " + field + ": " + this);
+        }
+        return starts[field];
+    }
+
+    private NumberFormatException numberFormatException(int field) {
+        return new NumberFormatException("Not a number in field " + field + ": " + getString(field));
+    }
+
+    private void addField(int start, int end) {
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size * 2);
+            ends = Arrays.copyOf(ends, size * 2);
+        }
+        starts[size] = start;
+        ends[size] = end;
+        size++;
+    }
+}
@@ -0,0 +1,81 @@
+package food.data;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import food.domain.Customer;
+
+/**
+ * Hash indexes over the loaded customers, by user name and by id.
+ * <p>
+ * The user name a customer was indexed under is remembered next to it, so a customer whose
+ * user name was changed in place can still be re-keyed by {@link #put(Customer)}.
+ * <p>
+ * Lookups are lock-free; writers must be serialised by the caller.
+ */
+final class CustomerIndex {
+
+    private final Map<Long, Entry> byId = new ConcurrentHashMap<>();
+    private final Map<String, Customer> byUserName = new ConcurrentHashMap<>();
+
+    CustomerIndex() {
+    }
+
+    CustomerIndex(Iterable<Customer> customers) {
+        for (Customer customer : customers) {
+            putIfAbsent(customer);
+        }
+    }
+
+    Optional<Customer> findByUserName(String userName) {
+        return userName == null ? Optional.empty() : Optional.ofNullable(byUserName.get(userName));
+    }
+
+    Optional<Customer> findById(long id) {
+        Entry entry = byId.get(id);
+        return entry == null ? Optional.empty() : Optional.of(entry.customer());
+    }
+
+    /**
+     * Indexes the customer unless its id or user name is already taken. Mirrors the
+     * first-match-wins behaviour of the former linear scans when the input has duplicates.
+     */
+    boolean putIfAbsent(Customer customer) {
+        if (byId.containsKey(customer.getId())
+                || (customer.getUserName() != null && byUserName.containsKey(customer.getUserName()))) {
+            return false;
+        }
+        byId.put(customer.getId(), new Entry(customer, customer.getUserName()));
+        if (customer.getUserName() != null) {
+            byUserName.put(customer.getUserName(), customer);
+        }
+        return true;
+    }
+
+    /**
+     * Indexes the customer, replacing whatever was stored under its id and re-keying the
+     * user name index if the user name changed.
+     *
+     * @return the customer previously stored under the same id, or {@code null}
+     * @throws IllegalArgumentException if the user name belongs to a different customer
+     */
+    Customer put(Customer customer) {
+        String userName = customer.getUserName();
+        Customer owner = userName == null ? null : byUserName.get(userName);
+        if (owner != null && owner.getId() != customer.getId()) {
+            throw new IllegalArgumentException("User name is already taken: " + userName);
+        }
+        Entry previous = byId.put(customer.getId(), new Entry(customer, userName));
+        if (previous != null && previous.userName() != null && !previous.userName().equals(userName)) {
+            byUserName.remove(previous.userName());
+        }
+        if (userName != null) {
+            byUserName.put(userName, customer);
+        }
+        return previous == null ? null : previous.customer();
+    }
+
+    private record Entry(Customer customer, String userName) {
+    }
+}
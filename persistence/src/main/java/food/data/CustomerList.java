@@ -0,0 +1,122 @@
+package food.data;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.RandomAccess;
+
+import food.domain.Customer;
+
+/**
+ * {@link CustomerStorage#OBJECTS}: the customers as read, in a list, with a {@link CustomerIndex}.
+ * <p>
+ * The list is an array that grows by doubling, with the position of every id, so a save costs
+ * O(1) amortised whether it adds or replaces a customer. The array is published before the size,
+ * so {@link #customers()} reads it without a lock.
+ */
+final class CustomerList implements CustomerStore {
+
+    private volatile Customer[] all;
+    private volatile int size;
+    // written by save only, which the caller serialises
+    private final Map<Long, Integer> positions = new HashMap<>();
+    private final CustomerIndex index;
+    private final List<Customer> view = new Customers();
+
+    CustomerList(List<Customer> loaded) {
+        this.all = loaded.toArray(new Customer[Math.max(loaded.size(), 16)]);
+        this.size = loaded.size();
+        for (int i = 0; i < loaded.size(); i++) {
+            positions.putIfAbsent(loaded.get(i).getId(), i);
+        }
+        this.index = new CustomerIndex(loaded);
+    }
+
+    @Override
+    public List<Customer> customers() {
+        return view;
+    }
+
+    @Override
+    public Optional<Customer> findByUserName(String userName) {
+        return index.findByUserName(userName);
+    }
+
+    @Override
+    public Optional<Customer> findById(long id) {
+        return index.findById(id);
+    }
+
+    @Override
+    public void save(Customer customer) {
+        Customer previous = index.put(customer);
+        if (previous == null) {
+            append(customer);
+        } else if (previous != customer) {
+            customer.setOrderHistory(previous.getOrderHistory());
+            Customer[] current = all;
+            current[positions.get(customer.getId())] = customer;
+            all = current; // publishes the replacement
+        }
+    }
+
+    private void append(Customer customer) {
+        int at = size;
+        Customer[] current = all;
+        if (at == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        current[at] = customer;
+        all = current;
+        positions.put(customer.getId(), at);
+        size = at + 1;
+    }
+
+    @Override
+    public long plaintextPasswords() {
+        return view.stream().filter(c -> c.getPasswordHash() == null).count();
+    }
+
+    private final class Customers extends AbstractList<Customer> implements RandomAccess {
+
+        @Override
+        public Customer get(int index) {
+            Objects.checkIndex(index, size);
+            return all[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        // reads the size and array once instead of on every step
+        @Override
+        public Iterator<Customer> iterator() {
+            int end = size;
+            Customer[] current = all;
+            return new Iterator<>() {
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < end;
+                }
+
+                @Override
+                public Customer next() {
+                    if (next >= end) {
+                        throw new NoSuchElementException();
+                    }
+                    return current[next++];
+                }
+            };
+        }
+    }
+}
@@ -1,33 +1,25 @@
 package food.data;
 
-import java.math.BigDecimal;
-import java.util.List;
-import java.util.stream.Collectors;
-
-import food.domain.Cart;
 import food.domain.Customer;
+import food.values.PasswordHash;
 
-public class CustomerReader extends Reader {
+public class CustomerReader extends Reader<Customer> {
 
+    /**
+     * The password column holds a {@link PasswordHash} in its text form, or a plaintext password
+     * from before hashes were introduced.
+     */
     @Override
-    public List<Customer> read(String path) {
-        var lines = readFromFile(path);
-        return lines
-                .stream()
-                .map(this::buildCustomer)
-                .collect(Collectors.toList());
-    }
-
-    private Customer buildCustomer(String line) {
-        var strings = splitLineByComma(line);
-        var customerId = Long.parseLong(strings[2]);
+    protected Customer parse(CsvRow row) {
+        String password = row.getString(1);
+        boolean hashed = PasswordHash.isEncoded(password);
         return new Customer.Builder()
-            .userName(strings[0])
-            .password(strings[1])
-            .id(customerId)
-            .name(strings[3])
-            .balance(new BigDecimal(strings[4]))
-            .cart(Cart.getEmptyCart())
+            .userName(row.getString(0))
+            .password(hashed ? null : password)
+            .passwordHash(hashed ? PasswordHash.parse(password) : null)
+            .id(row.getLong(2))
+            .name(row.getString(3))
+            .balanceMinor(row.getMoney(4))
             .build();
     }
 }
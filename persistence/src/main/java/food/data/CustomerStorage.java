@@ -0,0 +1,22 @@
+package food.data;
+
+/**
+ * How {@link FileDataStore} holds {@code customers.csv} in memory.
+ */
+public enum CustomerStorage {
+    /** One {@link food.domain.Customer} object per row, read in parallel. */
+    OBJECTS,
+    /**
+     * A {@code CustomerTable}: primitive columns and pooled UTF-8 strings, with customers handed
+     * out as flyweight views. Takes a fraction of the heap of {@link #OBJECTS} for large files.
+     * Balances are kept off the heap.
+     */
+    COLUMNAR,
+    /**
+     * {@link #COLUMNAR} with the balances in a memory-mapped {@code balances.ledger} next to
+     * {@code customers.csv}. After a clean shutdown they are restored from it instead of being
+     * recomputed from the order journal, unless the ids or opening balances in
+     * {@code customers.csv} have changed since.
+     */
+    COLUMNAR_MAPPED
+}
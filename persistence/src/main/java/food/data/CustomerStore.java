@@ -0,0 +1,50 @@
+package food.data;
+
+import java.util.List;
+import java.util.Optional;
+
+import food.domain.Customer;
+
+/**
+ * Where {@link FileDataStore} keeps the customers it loaded, see {@link CustomerStorage}.
+ * <p>
+ * Lookups are lock-free; {@link #save(Customer)} must be serialised by the caller.
+ */
+interface CustomerStore {
+
+    /**
+     * All customers in file order, followed by those saved since.
+     */
+    List<Customer> customers();
+
+    Optional<Customer> findByUserName(String userName);
+
+    Optional<Customer> findById(long id);
+
+    /**
+     * Adds the customer, or replaces the one with the same id; the replacement takes over its
+     * order history.
+     *
+     * @throws IllegalArgumentException if the user name belongs to a different customer
+     */
+    void save(Customer customer);
+
+    /**
+     * Number of customers without a password hash.
+     */
+    long plaintextPasswords();
+
+    /**
+     * Whether the balances are the ones written back at the last close, which already have the
+     * order journal debited.
+     */
+    default boolean balancesRestored() {
+        return false;
+    }
+
+    /**
+     * Releases what the store holds outside the heap.
+     */
+    default void close() {
+    }
+}
@@ -0,0 +1,595 @@
+package food.data;
+
+import food.domain.Cart;
+import food.domain.Customer;
+import food.domain.OrderHistory;
+import food.values.PasswordHash;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link CustomerStorage#COLUMNAR}: customers as rows of parallel primitive columns.
+ * <p>
+ * Every customer is a dense row number. Ids are a {@code long} column and balances are slots of a
+ * {@link BalanceLedger}, off the heap; user names,
+ * passwords (a {@link PasswordHash} in its text form, or plaintext) and names are references into
+ * a {@link StringPool}, where names are deduplicated. Columns are allocated in chunks of
+ * {@value #CHUNK_SIZE} rows, so growing the table never copies a column that another thread may
+ * be writing a balance to. Ids and user names are indexed by open-addressing tables of row
+ * numbers. Only the few customers that have an order history, a cart or a hold keep an object
+ * for it, in maps keyed by row.
+ * <p>
+ * {@link #customers()} and the lookups hand out a fresh {@link Customer} view of the row on every
+ * call. A view holds nothing but its row number: its getters read the columns and its setters
+ * write them, so all views of a customer see the same state. Changing the user name re-keys the
+ * index right away. A customer with a password hash keeps no plaintext password.
+ * <p>
+ * Lookups and the getters are lock-free. Adding rows and writing strings is serialised on the
+ * table; balances are compare-and-set in the ledger. Strings that are overwritten stay in the pool
+ * until the table is reloaded.
+ * <p>
+ * With a ledger file, {@link #close()} writes the balances back together with a fingerprint of
+ * the file's rows: their ids and opening balances, in order. If the next table reads a
+ * {@code customers.csv} with the same fingerprint, it keeps those balances instead of the opening
+ * balances, and {@link #balancesRestored()} tells the caller not to debit the order journal from
+ * them again. A file whose rows were reordered, replaced or topped up in between has a different
+ * fingerprint, so its ledger is discarded.
+ */
+final class CustomerTable implements CustomerStore {
+
+    static final int CHUNK_SIZE = 1 << 12;
+
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int CHUNK_BITS = Integer.numberOfTrailingZeros(CHUNK_SIZE);
+    // index slots hold row + 1; a removed entry keeps probe chains intact
+    private static final int EMPTY = 0;
+    private static final int REMOVED = -1;
+
+    private final StringPool strings = new StringPool();
+    private final BalanceLedger ledger;
+    private boolean balancesRestored;
+    // rows read from customers.csv and their fingerprint; saved customers after them are not in the file
+    private int fileRows;
+    private long fileFingerprint;
+    private volatile Chunk[] chunks = new Chunk[0];
+    private volatile int size;
+    private volatile AtomicIntegerArray byId = new AtomicIntegerArray(16);
+    private volatile AtomicIntegerArray byUserName = new AtomicIntegerArray(16);
+    private int idSlotsUsed;
+    private int userNameSlotsUsed;
+    private final Map<Integer, OrderHistory> histories = new ConcurrentHashMap<>();
+    private final Map<Integer, Cart> carts = new ConcurrentHashMap<>();
+    private final Map<Integer, AtomicLong> holds = new ConcurrentHashMap<>();
+    private final List<Customer> rows = new Rows();
+
+    private static final class Chunk {
+        final long[] ids = new long[CHUNK_SIZE];
+        final AtomicIntegerArray userNames = new AtomicIntegerArray(CHUNK_SIZE);
+        final AtomicIntegerArray passwords = new AtomicIntegerArray(CHUNK_SIZE);
+        final AtomicIntegerArray names = new AtomicIntegerArray(CHUNK_SIZE);
+        // this chunk's segment of the ledger
+        final ByteBuffer balances;
+
+        Chunk(ByteBuffer balances) {
+            this.balances = balances;
+        }
+    }
+
+    CustomerTable() {
+        this(BalanceLedger.inMemory(CHUNK_SIZE));
+    }
+
+    /**
+     * @param ledger holds the balances, in segments of {@link #CHUNK_SIZE} slots
+     */
+    CustomerTable(BalanceLedger ledger) {
+        if (ledger.segmentSlots() != CHUNK_SIZE) {
+            throw new IllegalArgumentException("Ledger segments must have " + CHUNK_SIZE + " slots: " + ledger.segmentSlots());
+        }
+        this.ledger = ledger;
+    }
+
+    /**
+     * Reads a {@code customers.csv} in the columns of {@link CustomerReader} straight into a table,
+     * without creating a customer object per row. A row whose id or user name is already taken is
+     * kept, but only the first one is indexed.
+     *
+     * @throws IllegalArgumentException if a password column looks like a hash but does not parse
+     */
+    static CustomerTable read(String pathOfFile) {
+        return read(pathOfFile, BalanceLedger.inMemory(CHUNK_SIZE));
+    }
+
+    /**
+     * Like {@link #read(String)}, with the balances in {@code ledger}. While a restored ledger is
+     * checked against the file, the opening balances are held aside in case it does not match.
+     */
+    static CustomerTable read(String pathOfFile, BalanceLedger ledger) {
+        var table = new CustomerTable(ledger);
+        boolean restoring = ledger.restoredRows() >= 0;
+        long[] opening = new long[restoring ? CHUNK_SIZE : 0];
+        long fingerprint = 0;
+        try (var cursor = new CsvCursor(FileChannel.open(Reader.toPath(pathOfFile)))) {
+            while (cursor.next()) {
+                CsvRow row = cursor.row();
+                String password = row.getString(1);
+                if (PasswordHash.isEncoded(password)) {
+                    PasswordHash.parse(password);
+                }
+                long id = row.getLong(2);
+                long balance = row.getMoney(4);
+                fingerprint = fingerprint(fingerprint, id, balance);
+                int at = table.append(id, row.getString(0), password, row.getString(3), balance, !restoring);
+                if (restoring) {
+                    if (at == opening.length) {
+                        opening = Arrays.copyOf(opening, opening.length * 2);
+                    }
+                    opening[at] = balance;
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new RuntimeException("IOException happened while reading file: " + pathOfFile,
+                    e instanceof UncheckedIOException unchecked ? unchecked.getCause() : e);
+        }
+        table.fileRows = table.size;
+        table.fileFingerprint = fingerprint;
+        if (restoring && ledger.restoredRows() == table.size && ledger.restoredFingerprint() == fingerprint) {
+            table.balancesRestored = true;
+        } else if (restoring) {
+            for (int row = 0; row < table.size; row++) {
+                BalanceLedger.set(table.chunk(row).balances, row & CHUNK_MASK, opening[row]);
+            }
+        }
+        return table;
+    }
+
+    @Override
+    public List<Customer> customers() {
+        return rows;
+    }
+
+    @Override
+    public Optional<Customer> findByUserName(String userName) {
+        int row = userName == null ? -1 : rowOfUserName(userName.getBytes(StandardCharsets.UTF_8));
+        return row < 0 ? Optional.empty() : Optional.of(new CustomerView(row));
+    }
+
+    @Override
+    public Optional<Customer> findById(long id) {
+        int row = rowOfId(id);
+        return row < 0 ? Optional.empty() : Optional.of(new CustomerView(row));
+    }
+
+    /**
+     * Views of this table are already stored; any other customer is copied into the row with its
+     * id, or into a new row.
+     */
+    @Override
+    public synchronized void save(Customer customer) {
+        if (customer instanceof CustomerView view && view.table() == this) {
+            return;
+        }
+        String userName = customer.getUserName();
+        int owner = userName == null ? -1 : rowOfUserName(userName.getBytes(StandardCharsets.UTF_8));
+        int row = rowOfId(customer.getId());
+        if (owner >= 0 && owner != row) {
+            throw new IllegalArgumentException("User name is already taken: " + userName);
+        }
+        String password = customer.getPasswordHash() != null ? customer.getPasswordHash().encode() : customer.getPassword();
+        if (row < 0) {
+            row = append(customer.getId(), userName, password, customer.getName(), customer.getBalanceMinor(), true);
+            if (customer.getOrderHistory().size() > 0) {
+                histories.put(row, customer.getOrderHistory());
+            }
+        } else {
+            rename(row, userName);
+            chunk(row).passwords.set(row & CHUNK_MASK, strings.add(password));
+            chunk(row).names.set(row & CHUNK_MASK, strings.intern(customer.getName()));
+            BalanceLedger.set(chunk(row).balances, row & CHUNK_MASK, customer.getBalanceMinor());
+        }
+        if (customer.getCart() != null) {
+            carts.put(row, customer.getCart());
+        } else {
+            carts.remove(row);
+        }
+    }
+
+    @Override
+    public long plaintextPasswords() {
+        long count = 0;
+        for (int row = 0, rows = size; row < rows; row++) {
+            if (!PasswordHash.isEncoded(strings.get(chunk(row).passwords.get(row & CHUNK_MASK)))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public boolean balancesRestored() {
+        return balancesRestored;
+    }
+
+    /**
+     * Writes a ledger file back, marked clean for the rows that were read from the file.
+     */
+    @Override
+    public synchronized void close() {
+        ledger.close(fileRows, fileFingerprint);
+    }
+
+    // order-sensitive 64-bit mix of every row's id and opening balance
+    private static long fingerprint(long hash, long id, long balanceMinor) {
+        hash = Long.rotateLeft((hash ^ id) * 0x9E3779B97F4A7C15L, 29);
+        return Long.rotateLeft((hash ^ balanceMinor) * 0xC2B2AE3D27D4EB4FL, 31);
+    }
+
+    int size() {
+        return size;
+    }
+
+    private Chunk chunk(int row) {
+        return chunks[row >>> CHUNK_BITS];
+    }
+
+    private synchronized int append(long id, String userName, String password, String name, long balanceMinor,
+                                    boolean writeBalance) {
+        int row = size;
+        if (row == Integer.MAX_VALUE) {
+            throw new IllegalStateException("Customer table is full");
+        }
+        if (row >>> CHUNK_BITS == chunks.length) {
+            Chunk[] grown = Arrays.copyOf(chunks, chunks.length + 1);
+            grown[chunks.length] = new Chunk(ledger.segment(chunks.length));
+            chunks = grown;
+        }
+        Chunk chunk = chunk(row);
+        int at = row & CHUNK_MASK;
+        chunk.ids[at] = id;
+        chunk.userNames.set(at, strings.add(userName));
+        chunk.passwords.set(at, strings.add(password));
+        chunk.names.set(at, strings.intern(name));
+        if (writeBalance) {
+            BalanceLedger.set(chunk.balances, at, balanceMinor);
+        }
+        boolean taken = rowOfId(id) >= 0
+                || (userName != null && rowOfUserName(userName.getBytes(StandardCharsets.UTF_8)) >= 0);
+        if (!taken) {
+            indexId(row);
+            if (userName != null) {
+                indexUserName(row);
+            }
+        }
+        size = row + 1;
+        return row;
+    }
+
+    /**
+     * Changes the user name of a row and re-keys the index.
+     */
+    private synchronized void rename(int row, String userName) {
+        int at = row & CHUNK_MASK;
+        int oldRef = chunk(row).userNames.get(at);
+        String old = strings.get(oldRef);
+        if (Objects.equals(old, userName)) {
+            return;
+        }
+        if (userName != null) {
+            int owner = rowOfUserName(userName.getBytes(StandardCharsets.UTF_8));
+            if (owner >= 0 && owner != row) {
+                throw new IllegalArgumentException("User name is already taken: " + userName);
+            }
+        }
+        boolean indexed = rowOfId(chunk(row).ids[at]) == row;
+        if (indexed && old != null) {
+            unindexUserName(row, strings.hash(oldRef));
+        }
+        chunk(row).userNames.set(at, strings.add(userName));
+        if (indexed && userName != null) {
+            indexUserName(row);
+        }
+    }
+
+    private int rowOfId(long id) {
+        AtomicIntegerArray slots = byId;
+        int mask = slots.length() - 1;
+        for (int i = hash(id) & mask; ; i = (i + 1) & mask) {
+            int slot = slots.get(i);
+            if (slot == EMPTY) {
+                return -1;
+            }
+            if (slot != REMOVED && chunk(slot - 1).ids[(slot - 1) & CHUNK_MASK] == id) {
+                return slot - 1;
+            }
+        }
+    }
+
+    private int rowOfUserName(byte[] utf8) {
+        AtomicIntegerArray slots = byUserName;
+        int mask = slots.length() - 1;
+        for (int i = StringPool.hash(utf8, 0, utf8.length) & mask; ; i = (i + 1) & mask) {
+            int slot = slots.get(i);
+            if (slot == EMPTY) {
+                return -1;
+            }
+            if (slot != REMOVED && strings.equals(chunk(slot - 1).userNames.get((slot - 1) & CHUNK_MASK), utf8)) {
+                return slot - 1;
+            }
+        }
+    }
+
+    private void indexId(int row) {
+        if ((idSlotsUsed + 1) * 2 > byId.length()) {
+            byId = rebuilt(byId, r -> hash(chunk(r).ids[r & CHUNK_MASK]));
+            idSlotsUsed = count(byId);
+        }
+        insert(byId, row, hash(chunk(row).ids[row & CHUNK_MASK]));
+        idSlotsUsed++;
+    }
+
+    private void indexUserName(int row) {
+        if ((userNameSlotsUsed + 1) * 2 > byUserName.length()) {
+            byUserName = rebuilt(byUserName, this::userNameHash);
+            userNameSlotsUsed = count(byUserName);
+        }
+        insert(byUserName, row, userNameHash(row));
+        userNameSlotsUsed++;
+    }
+
+    private void unindexUserName(int row, int hash) {
+        AtomicIntegerArray slots = byUserName;
+        int mask = slots.length() - 1;
+        for (int i = hash & mask; slots.get(i) != EMPTY; i = (i + 1) & mask) {
+            if (slots.get(i) == row + 1) {
+                slots.set(i, REMOVED);
+                return;
+            }
+        }
+    }
+
+    private int userNameHash(int row) {
+        return strings.hash(chunk(row).userNames.get(row & CHUNK_MASK));
+    }
+
+    private interface RowHash {
+        int of(int row);
+    }
+
+    // twice the live entries, and without the removed ones; published once complete
+    private static AtomicIntegerArray rebuilt(AtomicIntegerArray slots, RowHash hash) {
+        int live = count(slots);
+        var larger = new AtomicIntegerArray(Math.max(16, Integer.highestOneBit(Math.max(1, live + 1) * 4 - 1)));
+        for (int i = 0; i < slots.length(); i++) {
+            int slot = slots.get(i);
+            if (slot != EMPTY && slot != REMOVED) {
+                insert(larger, slot - 1, hash.of(slot - 1));
+            }
+        }
+        return larger;
+    }
+
+    private static int count(AtomicIntegerArray slots) {
+        int live = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            int slot = slots.get(i);
+            if (slot != EMPTY && slot != REMOVED) {
+                live++;
+            }
+        }
+        return live;
+    }
+
+    private static void insert(AtomicIntegerArray slots, int row, int hash) {
+        int mask = slots.length() - 1;
+        int i = hash & mask;
+        while (slots.get(i) != EMPTY) {
+            i = (i + 1) & mask;
+        }
+        slots.set(i, row + 1);
+    }
+
+    private static int hash(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private final class Rows extends AbstractList<Customer> implements RandomAccess {
+
+        @Override
+        public Customer get(int index) {
+            Objects.checkIndex(index, size);
+            return new CustomerView(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        // reads the row count and chunk table once instead of on every step
+        @Override
+        public Iterator<Customer> iterator() {
+            int end = size;
+            Chunk[] all = chunks;
+            return new Iterator<>() {
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < end;
+                }
+
+                @Override
+                public Customer next() {
+                    if (next >= end) {
+                        throw new NoSuchElementException();
+                    }
+                    int row = next++;
+                    return new CustomerView(row, all[row >>> CHUNK_BITS]);
+                }
+            };
+        }
+    }
+
+    /**
+     * A customer that reads and writes one row of the table.
+     */
+    private final class CustomerView extends Customer {
+        private final int row;
+        // chunks never move, so the view can skip the chunk table
+        private final Chunk chunk;
+        private final int at;
+
+        CustomerView(int row) {
+            this(row, chunk(row));
+        }
+
+        CustomerView(int row, Chunk chunk) {
+            this.row = row;
+            this.chunk = chunk;
+            this.at = row & CHUNK_MASK;
+        }
+
+        CustomerTable table() {
+            return CustomerTable.this;
+        }
+
+        @Override
+        public long getId() {
+            return chunk.ids[at];
+        }
+
+        @Override
+        public void setId(long id) {
+            throw new UnsupportedOperationException("A stored customer keeps its id; save a new customer instead");
+        }
+
+        @Override
+        public String getUserName() {
+            return strings.get(chunk.userNames.get(at));
+        }
+
+        @Override
+        public void setUserName(String userName) {
+            rename(row, userName);
+        }
+
+        @Override
+        public String getPassword() {
+            String password = storedPassword();
+            return PasswordHash.isEncoded(password) ? null : password;
+        }
+
+        @Override
+        public void setPassword(String password) {
+            synchronized (CustomerTable.this) {
+                if (password != null || !PasswordHash.isEncoded(storedPassword())) {
+                    chunk.passwords.set(at, strings.add(password));
+                }
+            }
+        }
+
+        @Override
+        public PasswordHash getPasswordHash() {
+            String password = storedPassword();
+            return PasswordHash.isEncoded(password) ? PasswordHash.parse(password) : null;
+        }
+
+        @Override
+        public void setPasswordHash(PasswordHash passwordHash) {
+            synchronized (CustomerTable.this) {
+                if (passwordHash != null || PasswordHash.isEncoded(storedPassword())) {
+                    chunk.passwords.set(at,
+                            strings.add(passwordHash == null ? null : passwordHash.encode()));
+                }
+            }
+        }
+
+        @Override
+        public String getName() {
+            return strings.get(chunk.names.get(at));
+        }
+
+        @Override
+        public void setName(String name) {
+            synchronized (CustomerTable.this) {
+                chunk.names.set(at, strings.intern(name));
+            }
+        }
+
+        @Override
+        public long getBalanceMinor() {
+            return BalanceLedger.get(chunk.balances, at);
+        }
+
+        @Override
+        public void setBalanceMinor(long balanceMinor) {
+            BalanceLedger.set(chunk.balances, at, balanceMinor);
+        }
+
+        @Override
+        public long getHeldMinor() {
+            AtomicLong held = holds.get(row);
+            return held == null ? 0 : held.get();
+        }
+
+        @Override
+        protected boolean compareAndSetHeld(long expected, long heldMinor) {
+            return holds.computeIfAbsent(row, r -> new AtomicLong()).compareAndSet(expected, heldMinor);
+        }
+
+        @Override
+        public boolean tryDebit(long amountMinor) {
+            return BalanceLedger.tryDebit(chunk.balances, at, amountMinor);
+        }
+
+        @Override
+        public long credit(long amountMinor) {
+            return BalanceLedger.credit(chunk.balances, at, amountMinor);
+        }
+
+        @Override
+        public Cart getCart() {
+            return carts.get(row);
+        }
+
+        @Override
+        public void setCart(Cart cart) {
+            if (cart == null) {
+                carts.remove(row);
+            } else {
+                carts.put(row, cart);
+            }
+        }
+
+        @Override
+        public OrderHistory getOrderHistory() {
+            return histories.computeIfAbsent(row, r -> OrderHistory.inMemory(List.of()));
+        }
+
+        @Override
+        public void setOrderHistory(OrderHistory orderHistory) {
+            histories.put(row, Objects.requireNonNull(orderHistory, "orderHistory"));
+        }
+
+        private String storedPassword() {
+            return strings.get(chunk.passwords.get(at));
+        }
+    }
+}
@@ -1,20 +1,45 @@
 package food.data;
 
 import java.util.List;
+import java.util.Optional;
 
 import food.domain.Customer;
 import food.domain.Food;
 import food.domain.Order;
 
-public interface DataStore {
+public interface DataStore extends AutoCloseable {
     void init();
     List<Customer> getCustomers();
 
+    Optional<Customer> findCustomerByUserName(String userName);
+
+    Optional<Customer> findCustomerById(long id);
+
+    /**
+     * Adds the customer, or replaces the one stored under the same id, keeping the lookup
+     * indexes consistent. Call it again after changing a stored customer's user name.
+     */
+    void saveCustomer(Customer customer);
+
     List<Food> getFoods();
 
+    FoodCatalog getFoodCatalog();
+
+    Optional<Food> findFoodById(int id);
+
     List<Order> getOrders();
 
+    /**
+     * One page of the orders matching the query, newest first unless asked otherwise.
+     *
+     * @throws IllegalArgumentException if the query's cursor did not come from a previous page
+     */
+    OrderPage findOrders(OrderQuery query);
+
     Order createOrder(Order order);
 
     void writeOrders();
+
+    @Override
+    void close();
 }
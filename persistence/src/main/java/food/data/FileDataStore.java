@@ -3,80 +3,717 @@ package food.data;
 import food.domain.Customer;
 import food.domain.Food;
 import food.domain.Order;
+import food.values.Money;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
+/**
+ * Data store backed by the CSV files of one folder.
+ * <p>
+ * Once {@link #init()} has returned, the store may be shared by any number of request threads:
+ * order ids come from an {@link AtomicLong}, orders live in a concurrent map and customer lookups
+ * go through concurrent indexes. Only {@link #saveCustomer(Customer)} takes a lock.
+ * <p>
+ * Orders are journaled as they are created and replayed by {@link #init()}, so a restart restores
+ * the customers' balances and continues the id sequence. A background thread periodically folds
+ * the journal into a {@link StoreSnapshot} and archives the folded segments; start-up then loads
+ * the snapshot and only replays the journal written after it, so {@link #getOrders()} holds the
+ * orders of that tail and of the current run. A customer's {@link Customer#getOrderHistory()} also
+ * covers the snapshot's orders, which it reads from the archived segments page by page.
+ */
 public class FileDataStore implements DataStore {
 
+    public static final Duration DEFAULT_SNAPSHOT_INTERVAL = Duration.ofMinutes(10);
+
+    private static final System.Logger LOGGER = System.getLogger(FileDataStore.class.getName());
+
     private final String folder;                  // e.g. "test"
     private final String CUSTOMERS = "customers.csv";
     private final String FOODS     = "foods.csv";
     private final String ORDERS    = "orders.csv";
+    // the food ids the order logs refer to, see FoodCatalog#names()
+    private final String FOOD_IDS  = "foods.ids";
 
-    private final CustomerReader customerReader = new CustomerReader();
+    private final ParallelReader<Customer> customerReader = new ParallelReader<>(new CustomerReader());
     private final FoodReader foodReader         = new FoodReader();
     private final OrderWriter orderWriter       = new OrderWriter();
+    private final OrderLogFormat orderLogFormat;
+    private final FsyncPolicy fsyncPolicy;
+    private final Duration fsyncInterval;
+    private volatile OrderJournal orderJournal;
+
+    private final CustomerStorage customerStorage;
+    private volatile CustomerStore customers = new CustomerList(List.of());
+    private volatile FoodCatalog foodCatalog  = FoodCatalog.empty();
+    private final ConcurrentNavigableMap<Long, Order> orders = new ConcurrentSkipListMap<>();
+    private final OrderIndex orderIndex = new OrderIndex(this::openArchive);
+    private final AtomicLong nextOrderId = new AtomicLong();
+    private volatile JournalReplay lastReplay = JournalReplay.NONE;
+
+    // orders.csv export of a non-CSV journal: it holds every order with a lower id than exportedBelow
+    private final Object exportLock = new Object();
+    private long exportedBelow;
+    private long firstLiveOrderId;
+    private final Set<Long> abandonedOrderIds = ConcurrentHashMap.newKeySet();
+    // order id -> segment and record offset of the snapshot's orders not exported yet
+    private final NavigableMap<Long, long[]> unexportedArchive = new TreeMap<>();
+
+    private FileWatcher foodsWatcher;
 
-    private List<Customer> customers = new ArrayList<>();
-    private List<Food> foods         = new ArrayList<>();
-    private List<Order> orders       = new ArrayList<>();
+    private final Duration snapshotInterval;
+    private final JournalRotation rotation;
+    private final JournalSegments segments;
+    private final JournalCompactor compactor;
+    private final Object snapshotLock = new Object();
+    private volatile StoreSnapshot snapshot = StoreSnapshot.empty();
+    private ScheduledExecutorService snapshotScheduler;
 
+    /**
+     * A store over {@code inputFolderPath} with the defaults of {@link Builder}.
+     */
     public FileDataStore(String inputFolderPath) {
-        this.folder = inputFolderPath;
+        this(new Builder(inputFolderPath));
+    }
+
+    private FileDataStore(Builder builder) {
+        this.folder = builder.inputFolderPath;
+        this.orderLogFormat = builder.orderLogFormat;
+        this.fsyncPolicy = builder.fsyncPolicy;
+        this.fsyncInterval = builder.fsyncInterval;
+        this.snapshotInterval = builder.snapshotInterval;
+        this.rotation = builder.rotation;
+        this.customerStorage = builder.customerStorage;
+        this.segments = new JournalSegments(Path.of(folder), orderLogFormat);
+        this.compactor = new JournalCompactor(Path.of(folder), orderLogFormat, segments);
     }
 
     @Override
-    public void init() {
-        customers = customerReader.read(path(CUSTOMERS));
-        foods     = foodReader.read(path(FOODS));
-        orders    = new ArrayList<>(); // start fresh for this run
+    public synchronized void init() {
+        var foodsLoaded = CompletableFuture.supplyAsync(() -> foodReader.read(path(FOODS)));
+        customers.close();
+        customers = switch (customerStorage) {
+            case OBJECTS -> new CustomerList(customerReader.read(path(CUSTOMERS)));
+            case COLUMNAR -> CustomerTable.read(path(CUSTOMERS));
+            case COLUMNAR_MAPPED -> CustomerTable.read(path(CUSTOMERS),
+                    BalanceLedger.map(Path.of(path(BalanceLedger.FILE_NAME)), CustomerTable.CHUNK_SIZE));
+        };
+        long plaintext = customers.plaintextPasswords();
+        if (plaintext > 0) {
+            LOGGER.log(System.Logger.Level.WARNING, "{0} customers in {1} still have plaintext passwords",
+                    plaintext, path(CUSTOMERS));
+        }
+        List<String> foodIds = FoodCatalog.readNames(Path.of(path(FOOD_IDS)));
+        try {
+            foodCatalog = FoodCatalog.of(foodsLoaded.join(), foodIds);
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        if (foodCatalog.names().size() > foodIds.size()) {
+            foodCatalog.writeNames(Path.of(path(FOOD_IDS)));
+        }
+        stopSnapshots();
+        synchronized (snapshotLock) {
+            if (orderJournal != null) {
+                orderJournal.close();
+                orderJournal = null;
+            }
+            snapshot = compactor.loadSnapshot();
+            segments.load();
+            segments.coverAtLeast(snapshot.coveredSegment());
+            lastReplay = replayJournal();
+            synchronized (exportLock) {
+                firstLiveOrderId = nextOrderId.get();
+                abandonedOrderIds.clear();
+                unexportedArchive.clear();
+                exportedBelow = orderLogFormat.fileName().equals(ORDERS) ? 0 : resumeExport();
+            }
+            LOGGER.log(System.Logger.Level.INFO, "Order journal {0}: {1}", journalPath(), lastReplay);
+            orderJournal = new OrderJournal(journalPath(), orderLogFormat, fsyncPolicy, fsyncInterval, segments, rotation);
+        }
+        startSnapshots();
     }
 
     @Override
     public List<Customer> getCustomers() {
-        return customers;
+        return customers.customers();
+    }
+
+    @Override
+    public Optional<Customer> findCustomerByUserName(String userName) {
+        return customers.findByUserName(userName);
+    }
+
+    @Override
+    public Optional<Customer> findCustomerById(long id) {
+        return customers.findById(id);
+    }
+
+    @Override
+    public synchronized void saveCustomer(Customer customer) {
+        if (customer == null) throw new IllegalArgumentException("customer is null");
+
+        customers.save(customer);
     }
 
     @Override
     public List<Food> getFoods() {
-        return foods;
+        return foodCatalog.foods();
+    }
+
+    @Override
+    public FoodCatalog getFoodCatalog() {
+        return foodCatalog;
+    }
+
+    @Override
+    public Optional<Food> findFoodById(int id) {
+        return foodCatalog.findById(id);
     }
 
     @Override
     public List<Order> getOrders() {
-        return orders;
+        return List.copyOf(orders.values());
+    }
+
+    /**
+     * Served from in-memory indexes over every order. Orders folded into a snapshot before the
+     * last start are indexed by location and read from the archived segments for the page.
+     */
+    @Override
+    public OrderPage findOrders(OrderQuery query) {
+        if (query == null) throw new IllegalArgumentException("query is null");
+        return orderIndex.find(query);
     }
 
     @Override
     public Order createOrder(Order order) {
         if (order == null) throw new IllegalArgumentException("order is null");
+        // the CSV formats store an order as its item lines, so an order without items would vanish
+        if (order.getOrderItems().isEmpty()) throw new IllegalArgumentException("order has no items");
+        if (orderJournal == null) throw new IllegalStateException("data store is not initialised");
 
-        // Simple ID generation
-        long nextId = orders.size();
-        order.setOrderId(nextId);
-
-        // Add to matching customer if found
-        customers.stream()
-                .filter(c -> c.getId() == order.getCustomerId())
-                .findFirst()
-                .ifPresent(c -> c.getOrders().add(order));
+        order.setOrderId(nextOrderId.getAndIncrement());
 
-        // Always keep in memory
-        orders.add(order);
+        // Append to the journal, group-committed with concurrent callers
+        try {
+            orderJournal.append(order).join();
+        } catch (CompletionException e) {
+            abandonedOrderIds.add(order.getOrderId());
+            throw new RuntimeException("Failed to append order to file: " + journalPath(), e.getCause());
+        }
 
-        // Append to CSV
-        orderWriter.appendOrder(order, path(ORDERS));
+        // Publish only once durable
+        orders.put(order.getOrderId(), order);
+        orderIndex.add(order);
+        findCustomerById(order.getCustomerId())
+                .ifPresent(c -> c.getOrderHistory().append(order));
 
         return order;
     }
 
     @Override
     public void writeOrders() {
-        orderWriter.writeOrders(orders, path(ORDERS));
+        orderJournal.flush();
+        if (orderLogFormat.fileName().equals(ORDERS)) {
+            return; // the CSV journal already is orders.csv
+        }
+        synchronized (exportLock) {
+            // export in id order, up to the first order that is still being journaled; ids below
+            // firstLiveOrderId that are in neither map were never stored
+            long limit = nextOrderId.get();
+            long from = exportedBelow;
+            long to = from;
+            while (to < limit && (orders.containsKey(to) || to < firstLiveOrderId || abandonedOrderIds.remove(to))) {
+                to++;
+            }
+            if (to > from) {
+                try (var archive = openArchive()) {
+                    Stream<Order> exported = LongStream.range(from, to)
+                            .mapToObj(id -> exportedOrder(id, archive))
+                            .filter(Objects::nonNull);
+                    orderWriter.appendOrders(exported::iterator, Path.of(path(ORDERS)));
+                }
+                unexportedArchive.headMap(to).clear();
+                exportedBelow = to;
+            }
+        }
+    }
+
+    private Order exportedOrder(long orderId, SegmentOrderReader archive) {
+        Order order = orders.get(orderId);
+        if (order != null) {
+            return order;
+        }
+        long[] location = unexportedArchive.get(orderId);
+        return location == null ? null : archive.read(orderId, location[0], location[1]);
+    }
+
+    /**
+     * Cuts a torn or garbled tail off the export, including the last order if a crash tore it, and
+     * finds the snapshot's orders from there on, which are no longer held in memory.
+     *
+     * @return the id to export from
+     */
+    private long resumeExport() {
+        Path file = Path.of(path(ORDERS));
+        ExportTail tail = exportTail(file);
+        long lastId = tail.lastOrderId();
+        for (long customerId : snapshot.customerIds()) {
+            long[] locations = snapshot.orderLocations(customerId);
+            for (int i = 0; i < locations.length; i += StoreSnapshot.LOCATION_SIZE) {
+                if (locations[i] >= lastId && !orders.containsKey(locations[i])) {
+                    unexportedArchive.put(locations[i], new long[]{locations[i + 1], locations[i + 2]});
+                }
+            }
+        }
+        boolean complete = false;
+        if (tail.lastOrderEnd() >= 0) {
+            Order last;
+            try (var archive = openArchive()) {
+                last = exportedOrder(lastId, archive);
+            }
+            // an order this store does not know is left as it is
+            complete = last == null || last.getOrderItems().size() == tail.lastOrderLines();
+        }
+        long keep = complete ? tail.lastOrderEnd() : tail.lastOrderStart();
+        if (Files.exists(file) && keep < size(file)) {
+            long discarded = cutTornTail(file, keep);
+            LOGGER.log(System.Logger.Level.WARNING, "Cut {0} bytes of a torn export off {1}", discarded, file);
+        }
+        unexportedArchive.headMap(complete ? lastId + 1 : lastId).clear();
+        return complete ? lastId + 1 : Math.max(lastId, 0);
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            throw new RuntimeException("IOException happened while reading file: " + file, e);
+        }
+    }
+
+    /**
+     * Seals the live journal into a segment right away, independent of the rotation limits.
+     */
+    public void rotateJournal() {
+        if (orderJournal == null) throw new IllegalStateException("data store is not initialised");
+        orderJournal.rotate().join();
+    }
+
+    /**
+     * Rotates the journal, folds everything not yet covered into a new snapshot and archives the
+     * folded journal segments. Appends are only held up while the journal file is renamed.
+     */
+    public void snapshot() {
+        synchronized (snapshotLock) {
+            if (orderJournal == null) throw new IllegalStateException("data store is not initialised");
+            snapshot = compactor.compact(orderJournal, journalPath(), snapshot, foodCatalog);
+        }
+    }
+
+    /**
+     * Reads {@code foods.csv} again and, if it is valid and differs, publishes it as the next
+     * version of the food catalog (see {@link FoodCatalog#update(List)}). Readers switch to it
+     * without locking; carts and orders keep the foods they already hold. An unreadable or
+     * invalid file is logged and leaves the current catalog in place.
+     *
+     * @return whether a new catalog was published
+     */
+    public synchronized boolean reloadFoods() {
+        FoodCatalog current = foodCatalog;
+        FoodCatalog next;
+        try {
+            next = current.update(foodReader.read(path(FOODS)));
+        } catch (RuntimeException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Ignoring invalid " + path(FOODS) + ", keeping the current menu", e);
+            return false;
+        }
+        if (unchanged(current.foods(), next.foods())) {
+            return false;
+        }
+        // before any order can refer to a new id
+        if (next.names().size() > current.names().size()) {
+            try {
+                next.writeNames(Path.of(path(FOOD_IDS)));
+            } catch (RuntimeException e) {
+                LOGGER.log(System.Logger.Level.WARNING, "Could not record the new food ids, keeping the current menu", e);
+                return false;
+            }
+        }
+        foodCatalog = next;
+        LOGGER.log(System.Logger.Level.INFO, "Reloaded {0} foods from {1}", next.size(), path(FOODS));
+        return true;
+    }
+
+    // an update reuses the instance of every food that did not change
+    private static boolean unchanged(List<Food> current, List<Food> next) {
+        if (current.size() != next.size()) {
+            return false;
+        }
+        for (int i = 0; i < current.size(); i++) {
+            if (current.get(i) != next.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reloads {@code foods.csv} in the background whenever it changes, until {@link #close()}.
+     *
+     * @param settleDelay how long the file must stay unchanged before it is read, so a
+     *                    half-written file is not picked up
+     */
+    public synchronized void watchFoods(Duration settleDelay) {
+        if (foodsWatcher == null) {
+            foodsWatcher = new FileWatcher(Path.of(path(FOODS)), settleDelay, this::reloadFoods);
+        }
+    }
+
+    /**
+     * What the last {@link #init()} restored from the order journal, and how fast.
+     */
+    public JournalReplay getLastReplay() {
+        return lastReplay;
+    }
+
+    @Override
+    public void close() {
+        FileWatcher watcher;
+        synchronized (this) {
+            watcher = foodsWatcher;
+            foodsWatcher = null;
+        }
+        if (watcher != null) {
+            watcher.close();
+        }
+        stopSnapshots();
+        synchronized (snapshotLock) {
+            if (orderJournal != null) {
+                orderJournal.close();
+                orderJournal = null;
+            }
+        }
+        // after the journal, so the balances written back have every order debited
+        customers.close();
+    }
+
+    private void startSnapshots() {
+        if (snapshotInterval.isZero()) {
+            return;
+        }
+        snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "snapshot-" + Path.of(folder).getFileName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = snapshotInterval.toMillis();
+        snapshotScheduler.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot();
+            } catch (RuntimeException e) {
+                LOGGER.log(System.Logger.Level.WARNING, "Snapshot of " + folder + " failed, retrying later", e);
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    private void stopSnapshots() {
+        if (snapshotScheduler == null) {
+            return;
+        }
+        snapshotScheduler.shutdown(); // let a running snapshot finish, it must not be interrupted mid-way
+        try {
+            snapshotScheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        snapshotScheduler = null;
+    }
+
+    /**
+     * Restores the state after the snapshot: its balances and id sequence, then every journal
+     * segment it does not cover and finally the live journal. The files are read in parallel and
+     * applied in journal order. Customer balances are read from the customer file, which is never
+     * rewritten, so every order since the beginning is debited again, unless the customers restored
+     * balances that were written back after the journal was closed. A torn record at the end of
+     * the live journal is cut off the file.
+     */
+    private JournalReplay replayJournal() {
+        orders.clear();
+        orderIndex.clear();
+        long started = System.nanoTime();
+        for (long customerId : snapshot.customerIds()) {
+            orderIndex.addArchived(customerId, snapshot.orderLocations(customerId));
+        }
+        List<Path> tail = new ArrayList<>();
+        segments.after(snapshot.coveredSegment()).forEach(segment -> tail.add(segments.path(segment)));
+        Path journal = journalPath();
+        if (Files.exists(journal)) {
+            tail.add(journal);
+        }
+        FoodCatalog catalog = foodCatalog;
+        List<CompletableFuture<LogContent>> reads = tail.stream()
+                .map(file -> CompletableFuture.supplyAsync(() -> LogContent.read(orderLogFormat, file, catalog)))
+                .toList();
+
+        long maxId = snapshot.nextOrderId() - 1;
+        long count = 0;
+        long bytes = 0;
+        LogContent last = null;
+        Map<Long, List<Order>> ordersByCustomer = new HashMap<>();
+        for (var read : reads) {
+            try {
+                last = read.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+            for (Order order : last.orders()) {
+                orders.put(order.getOrderId(), order);
+                orderIndex.add(order);
+                ordersByCustomer.computeIfAbsent(order.getCustomerId(), id -> new ArrayList<>()).add(order);
+                maxId = Math.max(maxId, order.getOrderId());
+            }
+            count += last.orders().size();
+            bytes += last.validLength();
+        }
+        // only customers who ordered have anything to restore
+        boolean restored = customers.balancesRestored();
+        Set<Long> ordered = new HashSet<>(snapshot.customerIds());
+        ordered.addAll(ordersByCustomer.keySet());
+        for (long customerId : ordered) {
+            Customer customer = findCustomerById(customerId).orElse(null);
+            if (customer == null) {
+                continue;
+            }
+            long spent = snapshot.spent(customer.getId());
+            List<Order> customerOrders = ordersByCustomer.getOrDefault(customer.getId(), List.of());
+            for (Order order : customerOrders) {
+                spent = Money.add(spent, order.getPriceMinor());
+            }
+            long[] archived = snapshot.orderLocations(customer.getId());
+            if (archived.length > 0 || !customerOrders.isEmpty()) {
+                customer.setOrderHistory(new JournalOrderHistory(archived, this::openArchive, customerOrders));
+            }
+            if (!restored) {
+                customer.setBalanceMinor(Money.subtract(customer.getBalanceMinor(), spent));
+            }
+        }
+        nextOrderId.set(maxId + 1);
+        long discarded = last != null && last.truncated() && last.file().equals(journal)
+                ? cutTornTail(journal, last.validLength()) : 0;
+        return new JournalReplay(count, bytes, discarded, Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    private SegmentOrderReader openArchive() {
+        return new SegmentOrderReader(segments, orderLogFormat, foodCatalog);
+    }
+
+    /**
+     * Everything intact in one journal file.
+     */
+    private record LogContent(Path file, List<Order> orders, long validLength, boolean truncated) {
+
+        static LogContent read(OrderLogFormat format, Path file, FoodCatalog catalog) {
+            List<Order> orders = new ArrayList<>();
+            try (var reader = format.openReader(file, 0, catalog)) {
+                for (Order order; (order = reader.next()) != null; ) {
+                    orders.add(order);
+                }
+                return new LogContent(file, orders, reader.validLength(), reader.isTruncated());
+            } catch (IOException e) {
+                throw new RuntimeException("IOException happened while reading file: " + file, e);
+            }
+        }
+    }
+
+    private static long cutTornTail(Path journal, long validLength) {
+        try (var channel = FileChannel.open(journal, StandardOpenOption.WRITE)) {
+            long discarded = channel.size() - validLength;
+            channel.truncate(validLength);
+            channel.force(true);
+            return discarded;
+        } catch (IOException e) {
+            throw new RuntimeException("IOException happened while truncating file: " + journal, e);
+        }
+    }
+
+    /**
+     * The last order of a CSV order export.
+     *
+     * @param lastOrderId    its id, -1 if the file holds no order
+     * @param lastOrderStart the offset of its first line
+     * @param lastOrderEnd   the offset past the line break of its last line, -1 if that line has none
+     * @param lastOrderLines how many lines it has
+     */
+    private record ExportTail(long lastOrderId, long lastOrderStart, long lastOrderEnd, int lastOrderLines) {
+    }
+
+    /**
+     * Finds the last order of a CSV order export, reading from the end of the file. Lines without
+     * an order id are skipped, back to the last line that has one.
+     */
+    private static ExportTail exportTail(Path file) {
+        if (!Files.exists(file)) {
+            return new ExportTail(-1, 0, 0, 0);
+        }
+        try (var channel = FileChannel.open(file)) {
+            long size = channel.size();
+            for (int window = 4096; ; window *= 2) {
+                long start = Math.max(0, size - window);
+                var bytes = ByteBuffer.allocate((int) (size - start));
+                int read;
+                do {
+                    read = channel.read(bytes, start + bytes.position());
+                } while (read >= 0 && bytes.hasRemaining());
+                byte[] text = bytes.array();
+                long lastId = -1;
+                long lastEnd = 0;
+                int lines = 0;
+                int end = text.length;
+                while (true) {
+                    int lineStart = end;
+                    while (lineStart > 0 && text[lineStart - 1] != '\n') {
+                        lineStart--;
+                    }
+                    if (lineStart == 0 && start > 0) {
+                        break; // the line may begin before the window
+                    }
+                    long id = orderIdOf(text, lineStart, end);
+                    if (lastId >= 0 && id != lastId) {
+                        return new ExportTail(lastId, start + end + 1, lastEnd, lines);
+                    }
+                    if (lastId < 0 && id >= 0) {
+                        lastId = id;
+                        lastEnd = end < text.length ? start + end + 1 : -1;
+                    }
+                    if (id >= 0) {
+                        lines++;
+                    }
+                    if (lineStart == 0) {
+                        return new ExportTail(lastId, 0, lastEnd, lines);
+                    }
+                    end = lineStart - 1;
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("IOException happened while reading file: " + file, e);
+        }
+    }
+
+    /**
+     * The order id a CSV line starts with, or -1 if it does not start with one.
+     */
+    private static long orderIdOf(byte[] text, int from, int to) {
+        long id = 0;
+        for (int i = from; i < to && i - from <= 18; i++) {
+            if (text[i] == ',') {
+                return i > from ? id : -1;
+            }
+            if (text[i] < '0' || text[i] > '9') {
+                return -1;
+            }
+            id = id * 10 + text[i] - '0';
+        }
+        return -1;
+    }
+
+    private Path journalPath() {
+        return Path.of(path(orderLogFormat.fileName()));
     }
 
     private String path(String fileName) {
         return folder.endsWith("/") ? folder + fileName : folder + "/" + fileName;
     }
+
+    /**
+     * Options of a {@link FileDataStore}; every option has a default.
+     */
+    public static class Builder {
+        private final String inputFolderPath;
+        private OrderLogFormat orderLogFormat = OrderLogFormat.CSV;
+        private FsyncPolicy fsyncPolicy = FsyncPolicy.PER_BATCH;
+        private Duration fsyncInterval = OrderJournal.DEFAULT_FSYNC_INTERVAL;
+        private Duration snapshotInterval = DEFAULT_SNAPSHOT_INTERVAL;
+        private JournalRotation rotation = JournalRotation.DEFAULT;
+        private CustomerStorage customerStorage = CustomerStorage.OBJECTS;
+
+        public Builder(String inputFolderPath) {
+            this.inputFolderPath = inputFolderPath;
+        }
+
+        /**
+         * Encoding of the order journal; with anything but CSV the journal gets its own file and
+         * {@link FileDataStore#writeOrders()} still exports {@code orders.csv}.
+         */
+        public Builder orderLogFormat(OrderLogFormat orderLogFormat) {
+            this.orderLogFormat = orderLogFormat;
+            return this;
+        }
+
+        public Builder fsyncPolicy(FsyncPolicy fsyncPolicy) {
+            this.fsyncPolicy = fsyncPolicy;
+            return this;
+        }
+
+        public Builder fsyncInterval(Duration fsyncInterval) {
+            this.fsyncInterval = fsyncInterval;
+            return this;
+        }
+
+        /**
+         * How often to snapshot and compact the journal; zero disables it,
+         * {@link FileDataStore#snapshot()} can still be called explicitly.
+         */
+        public Builder snapshotInterval(Duration snapshotInterval) {
+            this.snapshotInterval = snapshotInterval;
+            return this;
+        }
+
+        /**
+         * When the live journal is sealed into a segment between snapshots.
+         */
+        public Builder rotation(JournalRotation rotation) {
+            this.rotation = rotation;
+            return this;
+        }
+
+        /**
+         * How the customers are held in memory.
+         */
+        public Builder customerStorage(CustomerStorage customerStorage) {
+            this.customerStorage = customerStorage;
+            return this;
+        }
+
+        public FileDataStore build() {
+            return new FileDataStore(this);
+        }
+    }
 }
@@ -0,0 +1,99 @@
+package food.data;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calls back on a daemon thread when a file has been created or modified.
+ * <p>
+ * Editors often write a file in several steps, so the callback runs only once the file has been
+ * left alone for the settle delay. The directory is watched rather than the file, which also
+ * catches a new version being moved into place.
+ */
+final class FileWatcher implements AutoCloseable {
+
+    private static final System.Logger LOGGER = System.getLogger(FileWatcher.class.getName());
+
+    private final Path file;
+    private final long settleNanos;
+    private final Runnable onChange;
+    private final WatchService watchService;
+    private final Thread thread;
+
+    FileWatcher(Path file, Duration settleDelay, Runnable onChange) {
+        this.file = file.toAbsolutePath().normalize();
+        this.settleNanos = settleDelay.toNanos();
+        this.onChange = onChange;
+        Path directory = this.file.getParent();
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            throw new RuntimeException("IOException happened while watching folder: " + directory, e);
+        }
+        thread = new Thread(this::run, "watch-" + this.file.getFileName());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Closing the watch of " + file + " failed", e);
+        }
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        long dueAt = 0;
+        boolean pending = false;
+        try {
+            while (true) {
+                long remaining = dueAt - System.nanoTime();
+                WatchKey key = !pending ? watchService.take()
+                        : remaining > 0 ? watchService.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                if (key != null) {
+                    if (concernsFile(key)) {
+                        pending = true;
+                        dueAt = System.nanoTime() + settleNanos;
+                    }
+                    key.reset();
+                } else if (pending && System.nanoTime() - dueAt >= 0) {
+                    pending = false;
+                    try {
+                        onChange.run();
+                    } catch (RuntimeException e) {
+                        LOGGER.log(System.Logger.Level.WARNING, "Handling a change of " + file + " failed", e);
+                    }
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // closed
+        }
+    }
+
+    private boolean concernsFile(WatchKey key) {
+        boolean concerns = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || file.getFileName().equals(event.context())) {
+                concerns = true;
+            }
+        }
+        return concerns;
+    }
+}
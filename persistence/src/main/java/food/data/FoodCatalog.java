@@ -0,0 +1,234 @@
+package food.data;
+
+import food.domain.Food;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Immutable menu in which every food has a dense int id.
+ * <p>
+ * Ids are assigned in file order starting at 0, so a lookup by id is an array access. Each food
+ * exists exactly once: a name that repeats in the input keeps its first definition. Carts and
+ * orders compare foods by that id (see {@link Food#equals(Object)}).
+ * <p>
+ * A catalog is never changed; {@link #update(List)} derives the next version. A food keeps its id
+ * across versions, and its instance too if nothing about it changed, while a changed food gets a
+ * new instance. Carts and orders holding a food from an older version therefore keep the food
+ * they were priced with. A name never loses its id: a food that leaves the menu is still found
+ * by {@link #get(int)}, so orders that refer to it by id stay readable, and it gets its old id
+ * back if it returns.
+ * <p>
+ * Ids only mean something together with the names they were given to. {@link #names()} lists
+ * them, {@link #writeNames(Path)} and {@link #readNames(Path)} keep them in a file, and
+ * {@link #of(List, List)} seeds a new catalog with them, so the ids survive a restart however
+ * {@code foods.csv} was edited in the meantime.
+ */
+public final class FoodCatalog {
+
+    private static final FoodCatalog EMPTY = new FoodCatalog(new Food[0], Map.of(), List.of());
+
+    // indexed by id, including foods that are no longer on the menu
+    private final Food[] foods;
+    // the foods on the menu
+    private final Map<String, Food> byName;
+    private final List<Food> view;
+
+    private FoodCatalog(Food[] foods, Map<String, Food> byName, List<Food> view) {
+        this.foods = foods;
+        this.byName = byName;
+        this.view = view;
+    }
+
+    public static FoodCatalog empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds a catalog from reader output. The input foods are copied and never modified.
+     */
+    public static FoodCatalog of(List<Food> foods) {
+        return EMPTY.derive(foods);
+    }
+
+    /**
+     * Like {@link #of(List)}, with the ids of an earlier catalog: the food named
+     * {@code names.get(id)} gets that id, and new foods get ids after them.
+     *
+     * @param names as returned by {@link #names()} or {@link #readNames(Path)}
+     * @throws IllegalArgumentException if a name is blank or listed twice
+     */
+    public static FoodCatalog of(List<Food> foods, List<String> names) {
+        var known = new Food[names.size()];
+        var seen = new HashMap<String, Food>();
+        for (int id = 0; id < known.length; id++) {
+            String name = names.get(id);
+            if (name == null || name.isBlank()) {
+                throw new IllegalArgumentException("Food id " + id + " has no name");
+            }
+            known[id] = new Food.Builder().id(id).name(name).build();
+            if (seen.put(name, known[id]) != null) {
+                throw new IllegalArgumentException("Food name listed twice: " + name);
+            }
+        }
+        return new FoodCatalog(known, Map.of(), List.of()).derive(foods);
+    }
+
+    /**
+     * Reads the names written by {@link #writeNames(Path)}, in id order; none if the file does not exist.
+     */
+    public static List<String> readNames(Path file) {
+        if (!Files.exists(file)) {
+            return List.of();
+        }
+        try {
+            return Files.readAllLines(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException("IOException happened while reading file: " + file, e);
+        }
+    }
+
+    /**
+     * The next version of this catalog, listing {@code foods} in their order. Foods are matched
+     * to this version by name: a known food keeps its id, a new one gets an id no food had before.
+     *
+     * @throws IllegalArgumentException if the list is empty, or a food has no name or a negative price
+     */
+    public FoodCatalog update(List<Food> foods) {
+        if (foods.isEmpty()) {
+            throw new IllegalArgumentException("A menu needs at least one food");
+        }
+        for (Food food : foods) {
+            if (food.getName() == null || food.getName().isBlank()) {
+                throw new IllegalArgumentException("Food without a name: " + food);
+            }
+            if (food.getPriceMinor() < 0) {
+                throw new IllegalArgumentException("Negative price: " + food);
+            }
+        }
+        return derive(foods);
+    }
+
+    private FoodCatalog derive(List<Food> foods) {
+        List<Food> interned = new ArrayList<>(foods.size());
+        Map<String, Food> newByName = new HashMap<>();
+        Map<String, Food> known = new HashMap<>();
+        for (Food food : this.foods) {
+            known.put(food.getName(), food);
+        }
+        int nextId = this.foods.length;
+        for (Food food : foods) {
+            if (newByName.containsKey(food.getName())) {
+                continue;
+            }
+            Food previous = known.get(food.getName());
+            Food copy = previous != null && sameContent(previous, food) ? previous : new Food.Builder()
+                    .id(previous != null ? previous.getId() : nextId++)
+                    .name(food.getName())
+                    .calorie(food.getCalorie())
+                    .description(food.getDescription())
+                    .priceMinor(food.getPriceMinor())
+                    .build();
+            interned.add(copy);
+            newByName.put(copy.getName(), copy);
+        }
+        var byId = Arrays.copyOf(this.foods, nextId);
+        for (Food food : interned) {
+            byId[food.getId()] = food;
+        }
+        return new FoodCatalog(byId, Map.copyOf(newByName), List.copyOf(interned));
+    }
+
+    private static boolean sameContent(Food a, Food b) {
+        return a.getPriceMinor() == b.getPriceMinor()
+                && Objects.equals(a.getDescription(), b.getDescription())
+                && (a.getCalorie() == null ? b.getCalorie() == null
+                    : b.getCalorie() != null && a.getCalorie().compareTo(b.getCalorie()) == 0);
+    }
+
+    /**
+     * The food with this id, even if it is no longer on the menu; for reading orders.
+     *
+     * @throws IllegalArgumentException if no food ever had this id
+     */
+    public Food get(int id) {
+        if (id < 0 || id >= foods.length) {
+            throw new IllegalArgumentException("Unknown food id: " + id);
+        }
+        return foods[id];
+    }
+
+    /**
+     * The food on the menu with this id.
+     */
+    public Optional<Food> findById(int id) {
+        if (id < 0 || id >= foods.length) {
+            return Optional.empty();
+        }
+        Food food = foods[id];
+        return byName.get(food.getName()) == food ? Optional.of(food) : Optional.empty();
+    }
+
+    public Optional<Food> findByName(String name) {
+        return Optional.ofNullable(byName.get(name));
+    }
+
+    /**
+     * Returns the catalog's own instance of a food with the same content, or the food itself if
+     * the catalog has none.
+     */
+    public Food intern(Food food) {
+        Food known = byName.get(food.getName());
+        return known != null && sameContent(known, food) ? known : food;
+    }
+
+    /**
+     * All foods in file order, as an immutable list. Before any {@link #update(List)} that is id order.
+     */
+    public List<Food> foods() {
+        return view;
+    }
+
+    public int size() {
+        return view.size();
+    }
+
+    /**
+     * The name of every food that ever had an id, in id order.
+     */
+    public List<String> names() {
+        var names = new ArrayList<String>(foods.length);
+        for (Food food : foods) {
+            names.add(food.getName());
+        }
+        return names;
+    }
+
+    /**
+     * Writes {@link #names()} to {@code file}, one per line, replacing it atomically.
+     */
+    public void writeNames(Path file) {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.write(temp, names(), StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException("IOException happened while writing file: " + file, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FoodCatalog{" + view + '}';
+    }
+}
@@ -1,29 +1,16 @@
 package food.data;
 
-import java.math.BigDecimal;
-import java.util.ArrayList;
-import java.util.List;
-
 import food.domain.Food;
 
-public class FoodReader extends Reader {
-
-    @Override public List<Food> read(String pathOfFile) {
-        var lines = readFromFile(pathOfFile);
-        var foods = new ArrayList<Food>(lines.size());
-        for (var s : lines) {
-            foods.add(buildFood(s));
-        }
-        return foods;
-    }
+public class FoodReader extends Reader<Food> {
 
-    private Food buildFood(String line) {
-        var strings = splitLineByComma(line);
+    @Override
+    protected Food parse(CsvRow row) {
         return new Food.Builder()
-            .name(strings[0])
-            .calorie(new BigDecimal(strings[1]))
-            .description(strings[2])
-            .price(new BigDecimal(strings[3]))
+            .name(row.getString(0))
+            .calorie(row.getBigDecimal(1))
+            .description(row.getString(2))
+            .priceMinor(row.getMoney(3))
             .build();
     }
 }
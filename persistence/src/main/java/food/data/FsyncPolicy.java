@@ -0,0 +1,13 @@
+package food.data;
+
+/**
+ * When {@link OrderJournal} forces appended orders to the storage device.
+ */
+public enum FsyncPolicy {
+    /** Never force; an order counts as durable once it has been handed to the OS. */
+    NONE,
+    /** Force after every group-committed batch. */
+    PER_BATCH,
+    /** Force at most once per configured interval; callers wait for the next force. */
+    INTERVAL
+}
@@ -0,0 +1,88 @@
+package food.data;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Folds sealed {@link JournalSegments} into {@link StoreSnapshot}s.
+ * <p>
+ * Compaction rotates the live journal into {@code segments/}, folds every segment the current
+ * snapshot does not cover yet into a new snapshot, writes that snapshot and then moves the folded
+ * segments to {@code archive/}. A crash between any two of these steps leaves either an extra
+ * segment or an unarchived one behind, both of which the next start-up or compaction picks up.
+ * Archived segments are kept, so the full history stays readable and a lost snapshot can be
+ * rebuilt from them.
+ */
+final class JournalCompactor {
+
+    private static final System.Logger LOGGER = System.getLogger(JournalCompactor.class.getName());
+
+    private final Path folder;
+    private final OrderLogFormat format;
+    private final JournalSegments segments;
+
+    JournalCompactor(Path folder, OrderLogFormat format, JournalSegments segments) {
+        this.folder = folder;
+        this.format = format;
+        this.segments = segments;
+    }
+
+    /**
+     * The stored snapshot, or an empty one if there is none, it is damaged or it was written by an
+     * older version; the segments are never deleted, so an empty snapshot only costs a longer replay.
+     */
+    StoreSnapshot loadSnapshot() {
+        Path file = folder.resolve(StoreSnapshot.FILE_NAME);
+        if (!Files.exists(file)) {
+            return StoreSnapshot.empty();
+        }
+        try {
+            return StoreSnapshot.read(file);
+        } catch (IllegalStateException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Ignoring damaged snapshot, replaying all segments: " + file, e);
+            return StoreSnapshot.empty();
+        }
+    }
+
+    /**
+     * Rotates {@code journal} if it holds any order and folds all uncovered segments into a new
+     * snapshot. Only blocks appends for the instant the journal file is renamed.
+     *
+     * @return the new snapshot, or {@code snapshot} itself if there was nothing to fold
+     */
+    StoreSnapshot compact(OrderJournal journal, Path journalFile, StoreSnapshot snapshot, FoodCatalog catalog) {
+        try {
+            segments.coverAtLeast(snapshot.coveredSegment());
+            if (hasOrders(journalFile, catalog)) {
+                journal.rotate().join();
+            }
+            List<JournalSegments.Segment> pending = segments.after(snapshot.coveredSegment());
+            if (pending.isEmpty()) {
+                return snapshot;
+            }
+            for (JournalSegments.Segment segment : pending) {
+                try (var reader = format.openReader(segments.path(segment), 0, catalog)) {
+                    snapshot = snapshot.fold(segment.number(), reader);
+                }
+            }
+            snapshot.write(folder.resolve(StoreSnapshot.FILE_NAME));
+            for (JournalSegments.Segment segment : pending) {
+                segments.archive(segment.number());
+            }
+            return snapshot;
+        } catch (IOException e) {
+            throw new RuntimeException("IOException happened while compacting order journal in: " + folder, e);
+        }
+    }
+
+    private boolean hasOrders(Path journalFile, FoodCatalog catalog) throws IOException {
+        if (!Files.exists(journalFile)) {
+            return false;
+        }
+        try (var reader = format.openReader(journalFile, 0, catalog)) {
+            return reader.next() != null;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package food.data;
+
+import food.domain.AppendOnlyOrderList;
+import food.domain.Order;
+import food.domain.OrderHistory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A customer's order history backed by the order journal.
+ * <p>
+ * Orders covered by the snapshot are known only by their locations (see
+ * {@link StoreSnapshot#orderLocations(long)}) and decoded from the archived segments when a page
+ * needs them, through one {@link SegmentOrderReader} per page; nothing read is kept. The orders of
+ * the journal tail and of the current run are held on the heap anyway by the data store, so they
+ * are simply referenced.
+ */
+final class JournalOrderHistory implements OrderHistory {
+
+    private final long[] archived;
+    private final Supplier<SegmentOrderReader> archive;
+    private final AppendOnlyOrderList recent;
+
+    /**
+     * @param archived locations as laid out by {@link StoreSnapshot#orderLocations(long)}; shared,
+     *                 never modified
+     * @param archive  opens a reader for the archived orders of one page
+     * @param recent   the orders after the archived ones, oldest first
+     */
+    JournalOrderHistory(long[] archived, Supplier<SegmentOrderReader> archive, List<Order> recent) {
+        this.archived = archived;
+        this.archive = archive;
+        this.recent = new AppendOnlyOrderList(recent);
+    }
+
+    @Override
+    public int size() {
+        return archivedCount() + recent.size();
+    }
+
+    @Override
+    public List<Order> page(int from, int limit) {
+        int archivedCount = archivedCount();
+        int size = archivedCount + recent.size();
+        Objects.checkFromToIndex(from, from, size);
+        int to = (int) Math.min(size, (long) from + Math.max(0, limit));
+        List<Order> page = new ArrayList<>(to - from);
+        if (from < archivedCount) {
+            try (var reader = archive.get()) {
+                for (int i = from; i < Math.min(to, archivedCount); i++) {
+                    int at = i * StoreSnapshot.LOCATION_SIZE;
+                    page.add(reader.read(archived[at], archived[at + 1], archived[at + 2]));
+                }
+            }
+        }
+        if (to > archivedCount) {
+            page.addAll(recent.range(Math.max(from, archivedCount) - archivedCount, to - archivedCount));
+        }
+        return page;
+    }
+
+    @Override
+    public void append(Order order) {
+        recent.append(order);
+    }
+
+    private int archivedCount() {
+        return archived.length / StoreSnapshot.LOCATION_SIZE;
+    }
+}
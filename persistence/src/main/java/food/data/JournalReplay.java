@@ -0,0 +1,33 @@
+package food.data;
+
+import java.time.Duration;
+
+/**
+ * Outcome of replaying the order journal when a {@link FileDataStore} starts.
+ *
+ * @param orders         orders restored from the journal
+ * @param bytes          intact journal bytes that were read
+ * @param discardedBytes bytes of a torn record cut off the end of the journal
+ * @param elapsed        wall-clock time of the replay
+ */
+public record JournalReplay(long orders, long bytes, long discardedBytes, Duration elapsed) {
+
+    static final JournalReplay NONE = new JournalReplay(0, 0, 0, Duration.ZERO);
+
+    public double ordersPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : orders * 1e9 / nanos;
+    }
+
+    public double megabytesPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : bytes * 1e9 / nanos / (1024 * 1024);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("replayed %d orders (%d bytes) in %d ms, %.0f orders/s, %.1f MB/s%s",
+                orders, bytes, elapsed.toMillis(), ordersPerSecond(), megabytesPerSecond(),
+                discardedBytes > 0 ? ", discarded a torn tail of " + discardedBytes + " bytes" : "");
+    }
+}
@@ -0,0 +1,33 @@
+package food.data;
+
+import java.time.Duration;
+
+/**
+ * When the live order journal is sealed into a segment and a new one is started.
+ *
+ * @param maxBytes rotate once the journal file has grown to this size
+ * @param maxAge   rotate once the journal file has been written to for this long, even if idle
+ */
+public record JournalRotation(long maxBytes, Duration maxAge) {
+
+    public static final JournalRotation DEFAULT = new JournalRotation(64L * 1024 * 1024, Duration.ofHours(1));
+
+    /** Only snapshots rotate the journal. */
+    public static final JournalRotation NEVER = new JournalRotation(Long.MAX_VALUE, Duration.ZERO);
+
+    public JournalRotation {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive: " + maxBytes);
+        }
+        if (maxAge.isNegative()) {
+            throw new IllegalArgumentException("maxAge must not be negative: " + maxAge);
+        }
+    }
+
+    /**
+     * Whether time-based rotation is on; a zero age turns it off.
+     */
+    boolean rotatesByAge() {
+        return !maxAge.isZero();
+    }
+}
@@ -0,0 +1,211 @@
+package food.data;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * The sealed segments of a rolling order journal and their manifest.
+ * <p>
+ * The live journal keeps the format's file name ({@code orders.csv}, {@code orders.log}). When it
+ * rolls over it is renamed to {@code segments/orders-NNNNNN.<ext>} with the next segment number,
+ * and once a snapshot covers a segment it moves on to {@code archive/}. The manifest
+ * {@code journal.manifest} has one line per segment,
+ * <pre>
+ *   number,directory,bytes,sealedAtEpochMillis
+ * </pre>
+ * and is rewritten atomically on every change. The files stay authoritative: loading reconciles
+ * the manifest with what is actually on disk, so a crash between a rename and the manifest update
+ * loses nothing.
+ * <p>
+ * Segment numbers are handed out by {@link #seal} only, which the journal's writer thread calls
+ * for every rotation; the numbers therefore follow the order the segments were written in.
+ */
+final class JournalSegments {
+
+    static final String SEGMENTS = "segments";
+    static final String ARCHIVE = "archive";
+    static final String MANIFEST = "journal.manifest";
+
+    private final Path folder;
+    private final String prefix;
+    private final String suffix;
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private long coveredFloor;
+
+    /**
+     * @param directory {@link #SEGMENTS} or {@link #ARCHIVE}
+     */
+    record Segment(long number, String directory, long bytes, long sealedAtEpochMillis) {
+    }
+
+    JournalSegments(Path folder, OrderLogFormat format) {
+        this.folder = folder;
+        String fileName = format.fileName();
+        int dot = fileName.lastIndexOf('.');
+        this.prefix = (dot < 0 ? fileName : fileName.substring(0, dot)) + "-";
+        this.suffix = dot < 0 ? "" : fileName.substring(dot);
+    }
+
+    /**
+     * Reads the manifest and reconciles it with the segment folders.
+     */
+    synchronized void load() {
+        segments.clear();
+        Path manifest = folder.resolve(MANIFEST);
+        if (Files.exists(manifest)) {
+            try (Stream<String> lines = Files.lines(manifest)) {
+                lines.filter(line -> !line.isBlank()).forEach(line -> {
+                    String[] fields = line.split(",");
+                    var segment = new Segment(Long.parseLong(fields[0]), fields[1],
+                            Long.parseLong(fields[2]), Long.parseLong(fields[3]));
+                    segments.put(segment.number(), segment);
+                });
+            } catch (IOException e) {
+                throw new RuntimeException("IOException happened while reading file: " + manifest, e);
+            }
+        }
+        var onDisk = new TreeMap<Long, Segment>();
+        for (String directory : List.of(SEGMENTS, ARCHIVE)) {
+            Path dir = folder.resolve(directory);
+            if (!Files.isDirectory(dir)) {
+                continue;
+            }
+            try (Stream<Path> files = Files.list(dir)) {
+                files.forEach(file -> {
+                    long number = segmentNumber(file.getFileName().toString());
+                    if (number > 0) {
+                        Segment listed = segments.get(number);
+                        onDisk.put(number, new Segment(number, directory, size(file),
+                                listed == null ? lastModified(file) : listed.sealedAtEpochMillis()));
+                    }
+                });
+            } catch (IOException e) {
+                throw new RuntimeException("IOException happened while listing folder: " + dir, e);
+            }
+        }
+        if (!onDisk.equals(segments)) {
+            segments.clear();
+            segments.putAll(onDisk);
+            writeManifest();
+        }
+    }
+
+    /**
+     * All segments numbered above {@code covered}, oldest first.
+     */
+    synchronized List<Segment> after(long covered) {
+        return new ArrayList<>(segments.tailMap(covered, false).values());
+    }
+
+    synchronized long lastNumber() {
+        return segments.isEmpty() ? 0 : segments.lastKey();
+    }
+
+    /**
+     * Moves the live journal file into the next segment.
+     */
+    synchronized Segment seal(Path liveFile) throws IOException {
+        long number = Math.max(lastNumber(), coveredFloor) + 1;
+        Path target = path(SEGMENTS, number);
+        Files.createDirectories(target.getParent());
+        Files.move(liveFile, target, StandardCopyOption.ATOMIC_MOVE);
+        var segment = new Segment(number, SEGMENTS, size(target), System.currentTimeMillis());
+        segments.put(number, segment);
+        writeManifest();
+        return segment;
+    }
+
+    /**
+     * Moves a segment to the archive.
+     */
+    synchronized void archive(long number) throws IOException {
+        Segment segment = segments.get(number);
+        if (segment == null || segment.directory().equals(ARCHIVE)) {
+            return;
+        }
+        Path target = path(ARCHIVE, number);
+        Files.createDirectories(target.getParent());
+        Files.move(path(segment), target, StandardCopyOption.ATOMIC_MOVE);
+        segments.put(number, new Segment(number, ARCHIVE, segment.bytes(), segment.sealedAtEpochMillis()));
+        writeManifest();
+    }
+
+    /**
+     * Segment numbers never go below what a snapshot has covered, even if those files are gone.
+     */
+    synchronized void coverAtLeast(long covered) {
+        coveredFloor = Math.max(coveredFloor, covered);
+    }
+
+    /**
+     * Where segment {@code number} currently is.
+     *
+     * @throws IllegalStateException if there is no such segment
+     */
+    synchronized Path path(long number) {
+        Segment segment = segments.get(number);
+        if (segment == null) {
+            throw new IllegalStateException("Unknown journal segment: " + number);
+        }
+        return path(segment);
+    }
+
+    Path path(Segment segment) {
+        return path(segment.directory(), segment.number());
+    }
+
+    private Path path(String directory, long number) {
+        return folder.resolve(directory).resolve(String.format("%s%06d%s", prefix, number, suffix));
+    }
+
+    private void writeManifest() {
+        var text = new StringBuilder();
+        for (Segment segment : segments.values()) {
+            text.append(segment.number()).append(',')
+                    .append(segment.directory()).append(',')
+                    .append(segment.bytes()).append(',')
+                    .append(segment.sealedAtEpochMillis()).append('\n');
+        }
+        Path manifest = folder.resolve(MANIFEST);
+        Path temp = folder.resolve(MANIFEST + ".tmp");
+        try {
+            Files.writeString(temp, text);
+            Files.move(temp, manifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException("IOException happened while writing file: " + manifest, e);
+        }
+    }
+
+    private long segmentNumber(String fileName) {
+        if (!fileName.startsWith(prefix) || !fileName.endsWith(suffix)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(fileName.substring(prefix.length(), fileName.length() - suffix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            throw new RuntimeException("IOException happened while reading file: " + file, e);
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            throw new RuntimeException("IOException happened while reading file: " + file, e);
+        }
+    }
+}
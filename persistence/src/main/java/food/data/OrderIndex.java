@@ -0,0 +1,161 @@
+package food.data;
+
+import food.domain.Order;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+
+/**
+ * Secondary indexes over the stored orders, by creation time and by customer then creation time.
+ * <p>
+ * Both are concurrent skip lists keyed by {@code (timestampCreated, orderId)}, so a page is a
+ * range scan that touches only the orders it returns, and adding an order never blocks a query.
+ * Orders covered by the snapshot are indexed by their location only (see
+ * {@link StoreSnapshot#orderLocations(long)}) and read from the archived segments when a page
+ * returns them.
+ */
+final class OrderIndex {
+
+    private final ConcurrentNavigableMap<Key, Entry> byTime = new ConcurrentSkipListMap<>();
+    private final Map<Long, ConcurrentNavigableMap<Key, Entry>> byCustomer = new ConcurrentHashMap<>();
+    private final Supplier<SegmentOrderReader> archive;
+
+    /**
+     * @param archive opens a reader for the archived orders of one page
+     */
+    OrderIndex(Supplier<SegmentOrderReader> archive) {
+        this.archive = archive;
+    }
+
+    /**
+     * An indexed order: on the heap, or only where it is stored when {@code order} is {@code null}.
+     */
+    private record Entry(Order order, long orderId, long segment, long recordOffset) {
+    }
+
+    /**
+     * Position of an order in both indexes.
+     */
+    record Key(LocalDateTime timestamp, long orderId) implements Comparable<Key> {
+
+        private static final Comparator<Key> ORDER = Comparator.comparing(Key::timestamp).thenComparingLong(Key::orderId);
+
+        static Key of(Order order) {
+            return new Key(order.getTimestampCreated(), order.getOrderId());
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            return ORDER.compare(this, other);
+        }
+
+        String toCursor() {
+            return timestamp + "_" + orderId;
+        }
+
+        /**
+         * @throws IllegalArgumentException if the cursor was not produced by {@link #toCursor()}
+         */
+        static Key fromCursor(String cursor) {
+            int separator = cursor.lastIndexOf('_');
+            try {
+                return new Key(LocalDateTime.parse(cursor.substring(0, separator)),
+                        Long.parseLong(cursor.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid order cursor: " + cursor, e);
+            }
+        }
+    }
+
+    void add(Order order) {
+        put(order.getCustomerId(), Key.of(order), new Entry(order, order.getOrderId(), 0, 0));
+    }
+
+    /**
+     * Indexes the orders of a customer that the snapshot covers.
+     *
+     * @param locations as laid out by {@link StoreSnapshot#orderLocations(long)}
+     */
+    void addArchived(long customerId, long[] locations) {
+        for (int i = 0; i < locations.length; i += StoreSnapshot.LOCATION_SIZE) {
+            var created = LocalDateTime.ofInstant(Instant.ofEpochMilli(locations[i + 3]), ZoneOffset.UTC);
+            put(customerId, new Key(created, locations[i]), new Entry(null, locations[i], locations[i + 1], locations[i + 2]));
+        }
+    }
+
+    private void put(long customerId, Key key, Entry entry) {
+        byTime.put(key, entry);
+        byCustomer.computeIfAbsent(customerId, id -> new ConcurrentSkipListMap<>()).put(key, entry);
+    }
+
+    void clear() {
+        byTime.clear();
+        byCustomer.clear();
+    }
+
+    OrderPage find(OrderQuery query) {
+        NavigableMap<Key, Entry> orders = query.getCustomerId()
+                .<NavigableMap<Key, Entry>>map(id -> byCustomer.getOrDefault(id, new ConcurrentSkipListMap<>()))
+                .orElse(byTime);
+        Key lowest = query.getCreatedFrom().map(from -> new Key(from, Long.MIN_VALUE)).orElse(null);
+        Key highest = query.getCreatedBefore().map(before -> new Key(before, Long.MIN_VALUE)).orElse(null);
+        Key cursor = query.getCursor().map(Key::fromCursor).orElse(null);
+        if (cursor != null) {
+            if (query.isNewestFirst()) {
+                highest = highest == null || cursor.compareTo(highest) < 0 ? cursor : highest;
+            } else {
+                lowest = lowest == null || cursor.compareTo(lowest) >= 0 ? new Key(cursor.timestamp(), cursor.orderId() + 1) : lowest;
+            }
+        }
+        NavigableMap<Key, Entry> range = lowest == null ? orders : orders.tailMap(lowest, true);
+        range = highest == null ? range : range.headMap(highest, false);
+        if (query.isNewestFirst()) {
+            range = range.descendingMap();
+        }
+
+        List<Entry> entries = new ArrayList<>(Math.min(query.getLimit(), 64));
+        Key last = null;
+        String nextCursor = null;
+        for (var entry : range.entrySet()) {
+            if (entries.size() == query.getLimit()) {
+                nextCursor = last.toCursor();
+                break;
+            }
+            entries.add(entry.getValue());
+            last = entry.getKey();
+        }
+        return new OrderPage(load(entries), nextCursor);
+    }
+
+    private List<Order> load(List<Entry> entries) {
+        List<Order> page = new ArrayList<>(entries.size());
+        SegmentOrderReader reader = null;
+        try {
+            for (Entry entry : entries) {
+                if (entry.order() != null) {
+                    page.add(entry.order());
+                } else {
+                    if (reader == null) {
+                        reader = archive.get();
+                    }
+                    page.add(reader.read(entry.orderId(), entry.segment(), entry.recordOffset()));
+                }
+            }
+        } finally {
+            if (reader != null) {
+                reader.close();
+            }
+        }
+        return page;
+    }
+}
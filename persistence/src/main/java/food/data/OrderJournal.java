@@ -0,0 +1,390 @@
+package food.data;
+
+import food.domain.Order;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Long-lived, append-only order journal.
+ * <p>
+ * The journal keeps a single {@link FileChannel} open. Appends from concurrent callers are queued
+ * and a dedicated writer thread drains the queue, encodes everything it found into one buffer and
+ * writes it with a single call (group commit). The future returned by {@link #append(Order)}
+ * completes once the order is durable according to the configured {@link FsyncPolicy}. Records
+ * are encoded by an {@link OrderLogFormat}, CSV unless another one is given. A future only fails
+ * if its record did not make it into the file, or was cut off it again, so a failed order is never
+ * replayed.
+ * <p>
+ * A journal given {@link JournalSegments} rolls over: once the file reaches the size or age of
+ * its {@link JournalRotation}, or when {@link #rotate()} is called, the writer thread seals it
+ * into the next segment between two batches and carries on with a new file.
+ */
+public class OrderJournal implements AutoCloseable {
+
+    static final Duration DEFAULT_FSYNC_INTERVAL = Duration.ofMillis(50);
+    private static final int MAX_BATCH_SIZE = 1024;
+    private static final System.Logger LOGGER = System.getLogger(OrderJournal.class.getName());
+
+    private final Path file;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalNanos;
+    private final OrderLogFormat format;
+    private final JournalSegments segments;
+    private final JournalRotation rotation;
+    private final BlockingQueue<PendingAppend> queue = new LinkedBlockingQueue<>();
+    private FileChannel channel;
+    private final Thread writerThread;
+
+    private final LogBuffer records = new LogBuffer(8192);
+    private final LogBuffer preamble = new LogBuffer(16);
+    private final ByteBuffer lastByte = ByteBuffer.allocate(1);
+    private long expectedSize = -1;
+
+    // only touched by the writer thread; the records of awaitingFsync fill the file from settledSize on
+    private final List<PendingAppend> awaitingFsync = new ArrayList<>();
+    private final List<PendingAppend> rotations = new ArrayList<>();
+    private long settledSize;
+    private long lastFsyncNanos = System.nanoTime();
+    private long openedNanos = System.nanoTime();
+    private boolean hasRecords;
+
+    private volatile boolean closed;
+
+    public OrderJournal(Path file) {
+        this(file, FsyncPolicy.PER_BATCH, DEFAULT_FSYNC_INTERVAL);
+    }
+
+    public OrderJournal(Path file, FsyncPolicy fsyncPolicy, Duration fsyncInterval) {
+        this(file, OrderLogFormat.CSV, fsyncPolicy, fsyncInterval);
+    }
+
+    public OrderJournal(Path file, OrderLogFormat format, FsyncPolicy fsyncPolicy, Duration fsyncInterval) {
+        this(file, format, fsyncPolicy, fsyncInterval, null, JournalRotation.NEVER);
+    }
+
+    /**
+     * A rolling journal: whenever {@code rotation} says so, the file is sealed into the next of
+     * {@code segments} and a new file is started.
+     */
+    OrderJournal(Path file, OrderLogFormat format, FsyncPolicy fsyncPolicy, Duration fsyncInterval,
+                 JournalSegments segments, JournalRotation rotation) {
+        this.file = Objects.requireNonNull(file);
+        this.format = Objects.requireNonNull(format);
+        this.segments = segments;
+        this.rotation = Objects.requireNonNull(rotation);
+        this.fsyncPolicy = Objects.requireNonNull(fsyncPolicy);
+        this.fsyncIntervalNanos = Objects.requireNonNull(fsyncInterval).toNanos();
+        try {
+            this.channel = open(file);
+            this.settledSize = channel.size();
+            this.hasRecords = settledSize > 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("IOException happened while opening order journal: " + file, e);
+        }
+        this.writerThread = new Thread(this::writeLoop, "order-journal-" + file.getFileName());
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Queues the order for the next group commit. The order must already carry its id.
+     *
+     * @return a future completed with the order once it is durable
+     */
+    public CompletableFuture<Order> append(Order order) {
+        Objects.requireNonNull(order, "order is null");
+        if (closed) {
+            throw new IllegalStateException("Order journal is closed: " + file);
+        }
+        return enqueue(new PendingAppend(order, new CompletableFuture<>(), false));
+    }
+
+    /**
+     * Seals the current file into the next segment and continues in a new, empty file.
+     * <p>
+     * Appends queued before the call end up in the sealed segment; appends racing with the call
+     * may land in either file, but always in exactly one of them.
+     *
+     * @return a future completed once the segment is durable and the new file is in use
+     */
+    public CompletableFuture<Void> rotate() {
+        if (segments == null) {
+            throw new IllegalStateException("Order journal is not segmented: " + file);
+        }
+        if (closed) {
+            throw new IllegalStateException("Order journal is closed: " + file);
+        }
+        return enqueue(new PendingAppend(null, new CompletableFuture<>(), true)).thenApply(order -> null);
+    }
+
+    /**
+     * Blocks until everything appended so far is written and forced to the storage device.
+     */
+    public void flush() {
+        if (closed) {
+            return;
+        }
+        enqueue(new PendingAppend(null, new CompletableFuture<>(), false)).join();
+    }
+
+    private CompletableFuture<Order> enqueue(PendingAppend pending) {
+        queue.add(pending);
+        if (closed) {
+            // close() may have drained the queue between the caller's check and the add; if the
+            // writer got to it first this does nothing
+            pending.future().completeExceptionally(new IllegalStateException("Order journal is closed: " + file));
+        }
+        return pending.future();
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        flush();
+        closed = true;
+        writerThread.interrupt();
+        try {
+            writerThread.join();
+            var closedFailure = new IllegalStateException("Order journal is closed: " + file);
+            for (PendingAppend pending; (pending = queue.poll()) != null; ) {
+                pending.future().completeExceptionally(closedFailure);
+            }
+            channel.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new UncheckedIOException("IOException happened while closing order journal: " + file, e);
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingAppend> batch = new ArrayList<>();
+        while (!closed) {
+            try {
+                long wait = nanosUntilNextWakeUp();
+                PendingAppend first = wait == Long.MAX_VALUE
+                        ? queue.take()
+                        : queue.poll(wait, TimeUnit.NANOSECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+                    commit(batch);
+                    batch.clear();
+                }
+                if (!awaitingFsync.isEmpty() && nanosUntilNextFsync() <= 0) {
+                    forceAndComplete();
+                }
+                if (rotationDue()) {
+                    forceAndComplete();
+                    rotateFile();
+                }
+            } catch (IOException e) {
+                // the live file stays in place and keeps taking appends; retry after another interval
+                LOGGER.log(System.Logger.Level.WARNING, "Failed to rotate order journal: " + file, e);
+                openedNanos = System.nanoTime();
+                reopenAfterFailedRotation();
+            } catch (InterruptedException e) {
+                // close() interrupts only after the final flush has completed
+                break;
+            }
+        }
+    }
+
+    private void commit(List<PendingAppend> batch) {
+        boolean barrier = false;
+        try {
+            records.clear();
+            for (PendingAppend pending : batch) {
+                if (pending.order() == null) {
+                    barrier = true;
+                } else {
+                    format.write(pending.order(), records);
+                }
+            }
+            if (!records.isEmpty()) {
+                write();
+            }
+        } catch (IOException | RuntimeException e) {
+            // write() has cut off whatever part of the batch reached the file; earlier batches are intact
+            fail(batch, "appending to", e);
+            reopenAfterFailedRotation();
+            return;
+        }
+        try {
+            if (fsyncPolicy == FsyncPolicy.PER_BATCH || barrier) {
+                for (PendingAppend pending : batch) {
+                    (pending.rotate() ? rotations : awaitingFsync).add(pending);
+                }
+                if (!rotations.isEmpty()) {
+                    // the whole batch goes into the sealed segment, then every caller is released
+                    rotateFile();
+                    complete(rotations);
+                }
+                forceAndComplete();
+            } else if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+                awaitingFsync.addAll(batch);
+            } else {
+                complete(batch);
+                settledSize = expectedSize;
+            }
+        } catch (IOException e) {
+            // the orders are in a file either way; only those asking for the rotation hear of it
+            fail(rotations, "rotating", e);
+            reopenAfterFailedRotation();
+            forceAndComplete();
+        } finally {
+            rotations.clear();
+        }
+    }
+
+    /**
+     * Forces the file, which releases everything awaiting the fsync, and seals it into the next
+     * segment.
+     */
+    private void rotateFile() throws IOException {
+        channel.force(true);
+        settle();
+        channel.close();
+        segments.seal(file);
+        channel = open(file);
+        expectedSize = -1;
+        settledSize = 0;
+        openedNanos = System.nanoTime();
+        hasRecords = false;
+    }
+
+    private boolean rotationDue() {
+        return segments != null && hasRecords
+                && (expectedSize >= rotation.maxBytes() || rotation.rotatesByAge() && nanosUntilAgeRotation() <= 0);
+    }
+
+    private long nanosUntilAgeRotation() {
+        return rotation.maxAge().toNanos() - (System.nanoTime() - openedNanos);
+    }
+
+    private long nanosUntilNextWakeUp() {
+        long wait = awaitingFsync.isEmpty() ? Long.MAX_VALUE : nanosUntilNextFsync();
+        if (segments != null && hasRecords && rotation.rotatesByAge()) {
+            wait = Math.min(wait, Math.max(nanosUntilAgeRotation(), 0));
+        }
+        return wait;
+    }
+
+    private void reopenAfterFailedRotation() {
+        if (!channel.isOpen()) {
+            try {
+                channel = open(file);
+                expectedSize = -1;
+                settledSize = channel.size();
+            } catch (IOException e) {
+                // every later batch fails the same way and reports it to its callers
+            }
+        }
+    }
+
+    private void write() throws IOException {
+        long size = channel.size();
+        long position = size;
+        try {
+            if (size != expectedSize) {
+                // first write, or someone else touched the file: let the format repair or start it
+                preamble.clear();
+                format.writePreamble(size, size > 0 ? lastByte(size) : -1, preamble);
+                position = writeFully(preamble.asByteBuffer(), position);
+            }
+            expectedSize = writeFully(records.asByteBuffer(), position);
+        } catch (IOException e) {
+            truncate(size, e);
+            throw e;
+        }
+        hasRecords = true;
+    }
+
+    /**
+     * Cuts records that are failed to their callers off the file, so they are not replayed.
+     */
+    private void truncate(long size, IOException cause) {
+        expectedSize = -1;
+        try {
+            channel.truncate(size);
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    private long writeFully(ByteBuffer bytes, long position) throws IOException {
+        while (bytes.hasRemaining()) {
+            position += channel.write(bytes, position);
+        }
+        return position;
+    }
+
+    private int lastByte(long size) throws IOException {
+        lastByte.clear();
+        channel.read(lastByte, size - 1);
+        return lastByte.get(0) & 0xFF;
+    }
+
+    private void forceAndComplete() {
+        try {
+            channel.force(false);
+            lastFsyncNanos = System.nanoTime();
+            settle();
+        } catch (IOException e) {
+            // the records may not be durable: drop them before telling their callers they failed
+            truncate(settledSize, e);
+            fail(awaitingFsync, "forcing", e);
+            awaitingFsync.clear();
+        }
+    }
+
+    private void settle() {
+        complete(awaitingFsync);
+        awaitingFsync.clear();
+        if (expectedSize >= 0) {
+            settledSize = expectedSize;
+        }
+    }
+
+    private void fail(List<PendingAppend> pendings, String action, Exception cause) {
+        var failure = new UncheckedIOException("IOException happened while " + action + " order journal: " + file,
+                cause instanceof IOException io ? io : new IOException(cause));
+        pendings.forEach(pending -> pending.future().completeExceptionally(failure));
+    }
+
+    private static FileChannel open(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.READ);
+    }
+
+    private long nanosUntilNextFsync() {
+        return fsyncIntervalNanos - (System.nanoTime() - lastFsyncNanos);
+    }
+
+    private static void complete(List<PendingAppend> batch) {
+        for (PendingAppend pending : batch) {
+            pending.future().complete(pending.order());
+        }
+    }
+
+    /**
+     * A queued order, or a barrier when {@code order} is {@code null}; a barrier with
+     * {@code rotate} set also seals the file into the next segment.
+     */
+    private record PendingAppend(Order order, CompletableFuture<Order> future, boolean rotate) {
+    }
+}
@@ -0,0 +1,69 @@
+package food.data;
+
+import food.domain.Order;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Converts an order log between {@link OrderLogFormat}s, e.g. an existing {@code orders.csv}
+ * into {@code orders.log}.
+ * <p>
+ * Orders are streamed one at a time, so memory use does not depend on the size of the log. The
+ * target is written next to its final location and moved into place only when complete.
+ */
+public final class OrderLogConverter {
+
+    private static final int FLUSH_THRESHOLD = 256 * 1024;
+
+    private OrderLogConverter() {
+    }
+
+    /**
+     * @param catalog resolves food names and ids on both sides; for a binary log, the catalog whose
+     *                ids are recorded with it
+     * @return the number of converted orders
+     * @throws IllegalStateException if the source ends with a damaged record
+     */
+    public static long convert(Path source, OrderLogFormat from, Path target, OrderLogFormat to, FoodCatalog catalog) {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        long count = 0;
+        try (var reader = from.openReader(source, 0, catalog);
+             var channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            var out = new LogBuffer(FLUSH_THRESHOLD + 4096);
+            to.writePreamble(0, -1, out);
+            for (Order order; (order = reader.next()) != null; count++) {
+                to.write(order, out);
+                if (out.size() >= FLUSH_THRESHOLD) {
+                    drain(out, channel);
+                }
+            }
+            if (reader.isTruncated()) {
+                throw new IllegalStateException("Order log is damaged after offset " + reader.validLength() + ": " + source);
+            }
+            drain(out, channel);
+            channel.force(false);
+        } catch (IOException e) {
+            throw new RuntimeException("IOException happened while converting order log: " + source, e);
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException("IOException happened while writing order log: " + target, e);
+        }
+        return count;
+    }
+
+    private static void drain(LogBuffer out, FileChannel channel) throws IOException {
+        var bytes = out.asByteBuffer();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        out.clear();
+    }
+}
@@ -0,0 +1,41 @@
+package food.data;
+
+import food.domain.Order;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Encoding of the order log that {@link OrderJournal} appends to and that is replayed on start-up.
+ */
+public interface OrderLogFormat {
+
+    /** One CSV line per order item, as written by {@link OrderWriter}. */
+    OrderLogFormat CSV = new CsvOrderLogFormat();
+
+    /** One length-prefixed, checksummed binary record per order. */
+    OrderLogFormat BINARY = new BinaryOrderLogFormat();
+
+    /**
+     * The file name the log gets in a data store folder.
+     */
+    String fileName();
+
+    /**
+     * Writes whatever has to come before new records in a log that is {@code size} bytes long and
+     * whose last byte is {@code lastByte} ({@code -1} for an empty log), e.g. a file header.
+     */
+    void writePreamble(long size, int lastByte, LogBuffer out);
+
+    /**
+     * Appends the record of one order. The order must carry its id.
+     */
+    void write(Order order, LogBuffer out);
+
+    /**
+     * Opens a reader positioned at {@code offset}, which must be 0 or the end of a record.
+     *
+     * @param catalog resolves the foods referenced by the log
+     */
+    OrderLogReader openReader(Path file, long offset, FoodCatalog catalog) throws IOException;
+}
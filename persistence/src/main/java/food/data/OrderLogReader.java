@@ -0,0 +1,42 @@
+package food.data;
+
+import food.domain.Order;
+
+/**
+ * Sequential reader over an order log.
+ * <p>
+ * A record that is cut short or fails its integrity check ends the log: {@link #next()} returns
+ * {@code null}, {@link #isTruncated()} reports it and {@link #validLength()} tells where the
+ * intact part of the log ends, so the damaged tail can be cut off.
+ */
+public interface OrderLogReader extends AutoCloseable {
+
+    /**
+     * @return the next order, or {@code null} at the end of the intact log
+     */
+    Order next();
+
+    /**
+     * Offset just past the last record returned by {@link #next()}.
+     */
+    long validLength();
+
+    /**
+     * Offset of the first byte of the last record returned by {@link #next()}.
+     */
+    long recordOffset();
+
+    /**
+     * Moves to {@code offset}, which must be the start of a record, so that {@link #next()} reads
+     * that record. Data already buffered is reused when the record lies within it.
+     */
+    void seek(long offset);
+
+    /**
+     * Whether reading stopped at a damaged or incomplete record rather than the end of the file.
+     */
+    boolean isTruncated();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,27 @@
+package food.data;
+
+import food.domain.Order;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * One page of {@link DataStore#findOrders(OrderQuery)} results.
+ *
+ * @param orders     the orders of this page, in query order
+ * @param nextCursor where the next page starts, or {@code null} if this is the last page
+ */
+public record OrderPage(List<Order> orders, String nextCursor) {
+
+    public OrderPage {
+        orders = List.copyOf(orders);
+    }
+
+    public Optional<String> getNextCursor() {
+        return Optional.ofNullable(nextCursor);
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
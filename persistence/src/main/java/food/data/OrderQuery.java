@@ -0,0 +1,135 @@
+package food.data;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * One page worth of an order history query, see {@link DataStore#findOrders(OrderQuery)}.
+ * <p>
+ * Orders are sorted by creation time and then by id, newest first unless {@link Builder#oldestFirst()}
+ * is set. To get the next page, pass the {@link OrderPage#nextCursor()} of the previous one to
+ * {@link Builder#after(String)}; the cursor is a position, so orders created in the meantime
+ * never shift a page.
+ */
+public final class OrderQuery {
+
+    public static final int MAX_LIMIT = 1000;
+
+    private final Long customerId;
+    private final LocalDateTime createdFrom;
+    private final LocalDateTime createdBefore;
+    private final int limit;
+    private final String cursor;
+    private final boolean newestFirst;
+
+    private OrderQuery(Long customerId, LocalDateTime createdFrom, LocalDateTime createdBefore, int limit,
+                       String cursor, boolean newestFirst) {
+        this.customerId = customerId;
+        this.createdFrom = createdFrom;
+        this.createdBefore = createdBefore;
+        this.limit = limit;
+        this.cursor = cursor;
+        this.newestFirst = newestFirst;
+    }
+
+    /**
+     * The {@code limit} most recent orders of a customer.
+     */
+    public static OrderQuery lastOrdersOf(long customerId, int limit) {
+        return new Builder().customerId(customerId).limit(limit).build();
+    }
+
+    public Optional<Long> getCustomerId() {
+        return Optional.ofNullable(customerId);
+    }
+
+    /**
+     * Inclusive lower bound of the creation time, if any.
+     */
+    public Optional<LocalDateTime> getCreatedFrom() {
+        return Optional.ofNullable(createdFrom);
+    }
+
+    /**
+     * Exclusive upper bound of the creation time, if any.
+     */
+    public Optional<LocalDateTime> getCreatedBefore() {
+        return Optional.ofNullable(createdBefore);
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public Optional<String> getCursor() {
+        return Optional.ofNullable(cursor);
+    }
+
+    public boolean isNewestFirst() {
+        return newestFirst;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderQuery{" +
+                "customerId=" + customerId +
+                ", createdFrom=" + createdFrom +
+                ", createdBefore=" + createdBefore +
+                ", limit=" + limit +
+                ", cursor='" + cursor + '\'' +
+                ", newestFirst=" + newestFirst +
+                '}';
+    }
+
+    public static class Builder {
+        private Long customerId;
+        private LocalDateTime createdFrom;
+        private LocalDateTime createdBefore;
+        private int limit = 20;
+        private String cursor;
+        private boolean newestFirst = true;
+
+        public Builder customerId(long customerId) {
+            this.customerId = customerId;
+            return this;
+        }
+
+        public Builder createdFrom(LocalDateTime createdFrom) {
+            this.createdFrom = createdFrom;
+            return this;
+        }
+
+        public Builder createdBefore(LocalDateTime createdBefore) {
+            this.createdBefore = createdBefore;
+            return this;
+        }
+
+        public Builder limit(int limit) {
+            this.limit = limit;
+            return this;
+        }
+
+        /**
+         * Continues after the last order of a previous page.
+         */
+        public Builder after(String cursor) {
+            this.cursor = cursor;
+            return this;
+        }
+
+        public Builder oldestFirst() {
+            this.newestFirst = false;
+            return this;
+        }
+
+        /**
+         * @throws IllegalArgumentException if the limit is not between 1 and {@link #MAX_LIMIT}
+         */
+        public OrderQuery build() {
+            if (limit < 1 || limit > MAX_LIMIT) {
+                throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT + ": " + limit);
+            }
+            return new OrderQuery(customerId, createdFrom, createdBefore, limit, cursor, newestFirst);
+        }
+    }
+}
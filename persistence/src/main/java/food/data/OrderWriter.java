@@ -2,62 +2,117 @@ package food.data;
 
 import food.domain.Order;
 import food.domain.OrderItem;
+import food.values.Money;
 
-import java.io.FileWriter;
 import java.io.IOException;
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class OrderWriter {
-    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
 
+    private static final int FLUSH_THRESHOLD = 64 * 1024;
+
+    /**
+     * Replaces {@code outputFile} with the given orders.
+     * <p>
+     * Orders are encoded one at a time into a small buffer that is flushed to a temporary file,
+     * which is then moved over the target. Memory use does not depend on the number of orders, and
+     * a crash half-way leaves the previous file untouched.
+     */
     public void writeOrders(List<Order> orders, String outputFile) {
-        try (var fileWriter = new FileWriter(outputFile)) {
-            fileWriter.write(addOrders(orders));
+        Path target = Path.of(outputFile);
+        try {
+            replace(target, channel -> writeLines(orders, channel));
+        } catch (IOException e) {
+            throw new RuntimeException("IOException happened while writing order file: " + outputFile, e);
+        }
+    }
+
+    /**
+     * Adds the given orders to the end of {@code outputFile} in place and forces them to the
+     * storage device, so the cost does not depend on what the file already holds. A crash can
+     * leave the last order torn; the reader of the file has to cut it off, as
+     * {@link FileDataStore#init()} does for its export.
+     */
+    public void appendOrders(Iterable<Order> orders, Path outputFile) {
+        try (var channel = FileChannel.open(outputFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            channel.position(size);
+            if (size > 0 && !endsWithNewLine(channel, size)) {
+                channel.write(ByteBuffer.wrap(new byte[]{'\n'}));
+            }
+            writeLines(orders, channel);
+            channel.force(false);
         } catch (IOException e) {
             throw new RuntimeException("IOException happened while writing order file: " + outputFile, e);
         }
     }
 
-    private String addOrders(List<Order> orders) {
-        return orders
-                .stream()
-                .map(order -> addOrderItems(
-                        order.getOrderItems(),
-                        order.getPrice(),
-                        order.getTimestampCreated(),
-                        order.getOrderId(),
-                        order.getCustomerId()
-                ))
-                .collect(Collectors.joining("\n"));
+    private void writeLines(Iterable<Order> orders, FileChannel channel) throws IOException {
+        var text = new StringBuilder(1024);
+        var out = new LogBuffer(FLUSH_THRESHOLD + 4096);
+        for (Order order : orders) {
+            text.setLength(0);
+            appendOrderLines(text, order);
+            out.writeUtf8(text);
+            if (out.size() >= FLUSH_THRESHOLD) {
+                drain(out, channel);
+            }
+        }
+        drain(out, channel);
+    }
+
+    private static void replace(Path target, ChannelWriter writer) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (var channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writer.write(channel);
+            channel.force(false);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static boolean endsWithNewLine(FileChannel channel, long size) throws IOException {
+        var last = ByteBuffer.allocate(1);
+        channel.read(last, size - 1);
+        return last.get(0) == '\n';
     }
 
-    private String addOrderItems(List<OrderItem> orderItems, BigDecimal totalPrice, LocalDateTime timestampCreated, Long orderId, long customerId) {
-        return orderItems
-                .stream()
-                .map(orderItem -> addOrderItem(
-                        orderItem,
-                        totalPrice,
-                        timestampCreated,
-                        orderId,
-                        customerId
-                ))
-                .collect(Collectors.joining("\n"));
+    private static void drain(LogBuffer out, FileChannel channel) throws IOException {
+        var bytes = out.asByteBuffer();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        out.clear();
+    }
+
+    @FunctionalInterface
+    private interface ChannelWriter {
+        void write(FileChannel channel) throws IOException;
     }
 
-    private String addOrderItem(OrderItem orderItem, BigDecimal totalPrice, LocalDateTime timestampCreated, Long orderId, long customerId) {
-        return String.join(
-                ",",
-                Long.toString(orderId),
-                Long.toString(customerId),
-                orderItem.getFood().getName(),
-                Integer.toString(orderItem.getPieces()),
-                orderItem.getPrice().toPlainString(),
-                timestampCreated.format(DATE_TIME_FORMATTER),
-                totalPrice.toPlainString());
+    /**
+     * Appends the CSV lines of one order to {@code sb}, each terminated by {@code '\n'}.
+     */
+    void appendOrderLines(StringBuilder sb, Order order) {
+        String timestamp = order.getTimestampCreated().format(DATE_TIME_FORMATTER);
+        for (OrderItem item : order.getOrderItems()) {
+            sb.append(order.getOrderId()).append(',')
+                    .append(order.getCustomerId()).append(',')
+                    .append(item.getFood().getName()).append(',')
+                    .append(item.getPieces()).append(',');
+            Money.appendTo(sb, item.getPriceMinor()).append(',')
+                    .append(timestamp).append(',');
+            Money.appendTo(sb, order.getPriceMinor()).append('\n');
+        }
     }
 
     public void appendOrder(Order order, String outputFile) {
@@ -75,9 +130,9 @@ public class OrderWriter {
                     Long.toString(order.getCustomerId()),
                     item.getFood().getName(),
                     Integer.toString(item.getPieces()),
-                    item.getPrice().toPlainString(),
+                    Money.format(item.getPriceMinor()),
                     order.getTimestampCreated().format(DATE_TIME_FORMATTER),
-                    order.getPrice().toPlainString()
+                    Money.format(order.getPriceMinor())
             ));
             sb.append(System.lineSeparator());
         }
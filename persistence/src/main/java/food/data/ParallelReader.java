@@ -0,0 +1,151 @@
+package food.data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parallel variant of {@link Reader#read(String)} for large files.
+ * <p>
+ * The file is split into newline-aligned chunks, each chunk is memory-mapped with
+ * {@link FileChannel#map} and parsed by its own task on a {@link ForkJoinPool}. Chunk results are
+ * concatenated in file order, so the result is identical to the sequential reader's. Files below
+ * {@link #DEFAULT_MIN_CHUNK_SIZE} are simply read sequentially.
+ */
+public class ParallelReader<T> {
+
+    static final int DEFAULT_MIN_CHUNK_SIZE = 1 << 20;
+    private static final int MAX_CHUNK_SIZE = 256 << 20;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final int BOUNDARY_SCAN_SIZE = 8 * 1024;
+
+    private final Reader<T> reader;
+    private final ForkJoinPool pool;
+    private final int minChunkSize;
+
+    public ParallelReader(Reader<T> reader) {
+        this(reader, ForkJoinPool.commonPool());
+    }
+
+    public ParallelReader(Reader<T> reader, ForkJoinPool pool) {
+        this(reader, pool, DEFAULT_MIN_CHUNK_SIZE);
+    }
+
+    ParallelReader(Reader<T> reader, ForkJoinPool pool, int minChunkSize) {
+        this.reader = Objects.requireNonNull(reader);
+        this.pool = Objects.requireNonNull(pool);
+        this.minChunkSize = minChunkSize;
+    }
+
+    public List<T> read(String pathOfFile) {
+        try (var channel = FileChannel.open(Reader.toPath(pathOfFile))) {
+            long size = channel.size();
+            if (size < 2L * minChunkSize) {
+                return reader.read(pathOfFile);
+            }
+            List<ChunkTask> tasks = new ArrayList<>();
+            long[] boundaries = boundaries(channel, size);
+            for (int i = 0; i + 1 < boundaries.length; i++) {
+                if (boundaries[i + 1] > boundaries[i]) {
+                    tasks.add(new ChunkTask(channel, boundaries[i], boundaries[i + 1]));
+                }
+            }
+            return pool.invoke(new RecursiveTask<List<T>>() {
+                @Override
+                protected List<T> compute() {
+                    invokeAll(tasks);
+                    int total = 0;
+                    for (ChunkTask task : tasks) {
+                        total += task.join().size();
+                    }
+                    List<T> result = new ArrayList<>(total);
+                    for (ChunkTask task : tasks) {
+                        result.addAll(task.join());
+                    }
+                    return result;
+                }
+            });
+        } catch (IOException e) {
+            throw new RuntimeException("IOException happened while reading file: " + pathOfFile, e);
+        }
+    }
+
+    /**
+     * Chunk start offsets plus the file size; every inner boundary sits right after a newline.
+     */
+    private long[] boundaries(FileChannel channel, long size) throws IOException {
+        long byThreads = (long) pool.getParallelism() * CHUNKS_PER_THREAD;
+        long chunks = Math.min(byThreads, size / minChunkSize);
+        chunks = Math.max(chunks, (size + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE);
+
+        long[] boundaries = new long[(int) chunks + 1];
+        boundaries[boundaries.length - 1] = size;
+        ByteBuffer scan = ByteBuffer.allocate(BOUNDARY_SCAN_SIZE);
+        for (int i = 1; i < chunks; i++) {
+            long nominal = Math.max(size / chunks * i, boundaries[i - 1]);
+            boundaries[i] = nextLineStart(channel, nominal, size, scan);
+        }
+        return boundaries;
+    }
+
+    private static long nextLineStart(FileChannel channel, long from, long size, ByteBuffer scan) throws IOException {
+        long position = from;
+        while (position < size) {
+            scan.clear();
+            int read = channel.read(scan, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (scan.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private final class ChunkTask extends RecursiveTask<List<T>> {
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+
+        ChunkTask(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected List<T> compute() {
+            MappedByteBuffer buffer;
+            try {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            } catch (IOException e) {
+                throw new RuntimeException("IOException happened while mapping file chunk at " + start, e);
+            }
+            List<T> records = new ArrayList<>();
+            CsvRow row = new CsvRow();
+            int limit = buffer.limit();
+            int lineStart = 0;
+            for (int i = 0; i <= limit; i++) {
+                if (i == limit || buffer.get(i) == '\n') {
+                    int lineEnd = i > lineStart && buffer.get(i - 1) == '\r' ? i - 1 : i;
+                    if (lineEnd > lineStart) {
+                        row.parse(buffer, lineStart, lineEnd);
+                        records.add(reader.parse(row));
+                    }
+                    lineStart = i + 1;
+                }
+            }
+            return records;
+        }
+    }
+}
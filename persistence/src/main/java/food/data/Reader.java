@@ -1,30 +1,75 @@
 package food.data;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-public abstract class Reader {
+/**
+ * Streaming CSV reader. Lines are parsed one at a time out of a reusable buffer and mapped by
+ * {@link #parse(CsvRow)}, so the file is never held in memory as a whole.
+ */
+public abstract class Reader<T> {
 
-    public abstract List read(String pathOfFile);
+    public List<T> read(String pathOfFile) {
+        List<T> result = new ArrayList<>();
+        forEach(pathOfFile, result::add);
+        return result;
+    }
+
+    /**
+     * Parses the file row by row, handing each record to {@code action} as soon as it is read.
+     */
+    public void forEach(String pathOfFile, Consumer<? super T> action) {
+        try (var cursor = open(pathOfFile)) {
+            while (cursor.next()) {
+                action.accept(parse(cursor.row()));
+            }
+        } catch (UncheckedIOException e) {
+            throw new RuntimeException("IOException happened while reading file: " + pathOfFile, e.getCause());
+        }
+    }
+
+    /**
+     * Lazily parses the file; the returned stream must be closed to release the file.
+     */
+    public Stream<T> stream(String pathOfFile) {
+        var cursor = open(pathOfFile);
+        var spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                if (!cursor.next()) {
+                    return false;
+                }
+                action.accept(parse(cursor.row()));
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(cursor::close);
+    }
 
-    protected List<String> readFromFile(String pathOfFile) {
-        List<String> lines;
-        var path = Paths.get(pathOfFile).normalize().toAbsolutePath();
+    /**
+     * Maps one row to a record. The row is reused, so nothing may keep a reference to it.
+     */
+    protected abstract T parse(CsvRow row);
+
+    protected static Path toPath(String pathOfFile) {
+        return Paths.get(pathOfFile).normalize().toAbsolutePath();
+    }
+
+    private CsvCursor open(String pathOfFile) {
         try {
-            lines = Files.readAllLines(path);
+            return new CsvCursor(FileChannel.open(toPath(pathOfFile)));
         } catch (IOException e) {
             throw new RuntimeException("IOException happened while reading file: " + pathOfFile, e);
         }
-        if (lines.isEmpty()) {
-            throw new IllegalArgumentException("The file is empty!");
-        }
-        return lines;
-    }
-
-    protected String[] splitLineByComma(String line) {
-        return line.split(",");
     }
 }
@@ -0,0 +1,62 @@
+package food.data;
+
+import food.domain.Order;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads orders by their location in the sealed journal segments.
+ * <p>
+ * One reader is kept open per segment until {@link #close()}, so a page of orders costs one open
+ * file and one buffer per segment it touches; locations in journal order mostly hit data the
+ * segment's reader has already buffered.
+ */
+final class SegmentOrderReader implements AutoCloseable {
+
+    private final JournalSegments segments;
+    private final OrderLogFormat format;
+    private final FoodCatalog catalog;
+    private final Map<Long, OrderLogReader> readers = new HashMap<>();
+
+    SegmentOrderReader(JournalSegments segments, OrderLogFormat format, FoodCatalog catalog) {
+        this.segments = segments;
+        this.format = format;
+        this.catalog = catalog;
+    }
+
+    /**
+     * @throws IllegalStateException if the order is not at that location
+     */
+    Order read(long orderId, long segment, long recordOffset) {
+        OrderLogReader reader = readers.get(segment);
+        if (reader == null) {
+            reader = open(segment, recordOffset);
+            readers.put(segment, reader);
+        } else {
+            reader.seek(recordOffset);
+        }
+        Order order = reader.next();
+        if (order == null || order.getOrderId() != orderId) {
+            throw new IllegalStateException("Order " + orderId + " is not at offset " + recordOffset
+                    + " of journal segment " + segment);
+        }
+        return order;
+    }
+
+    private OrderLogReader open(long segment, long recordOffset) {
+        var file = segments.path(segment);
+        try {
+            return format.openReader(file, recordOffset, catalog);
+        } catch (IOException e) {
+            throw new RuntimeException("IOException happened while reading file: " + file, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        readers.values().forEach(OrderLogReader::close);
+        readers.clear();
+    }
+}
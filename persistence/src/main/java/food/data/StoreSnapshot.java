@@ -0,0 +1,249 @@
+package food.data;
+
+import food.domain.Order;
+import food.values.Money;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32C;
+
+/**
+ * State derived from the journal segments {@code 1..coveredSegment}, so that start-up only has to
+ * replay the segments after them.
+ * <p>
+ * A snapshot holds the next order id, how much every customer has spent (balances are the
+ * opening balance from {@code customers.csv} minus that) and, per customer, where each of their
+ * orders is stored and when it was created. Snapshots are immutable; {@link #fold} returns a new one that shares the index
+ * arrays of every customer it did not touch.
+ * <p>
+ * On disk a snapshot is the magic {@code FDSS}, a version byte, a varint payload and a CRC32C of
+ * the payload. It is written to a temporary file and moved into place, so a reader either sees
+ * the old or the new snapshot.
+ */
+final class StoreSnapshot {
+
+    static final String FILE_NAME = "snapshot.bin";
+    // longs per order in orderLocations
+    static final int LOCATION_SIZE = 4;
+
+    private static final byte[] MAGIC = {'F', 'D', 'S', 'S'};
+    private static final byte VERSION = 2;
+    private static final int HEADER_SIZE = MAGIC.length + 1;
+    private static final StoreSnapshot EMPTY = new StoreSnapshot(0, 0, Map.of(), Map.of());
+
+    private final long coveredSegment;
+    private final long nextOrderId;
+    private final Map<Long, Long> spent;
+    // customer id -> (order id, segment, record offset, created epoch millis) entries, in journal order
+    private final Map<Long, long[]> orderIndex;
+
+    private StoreSnapshot(long coveredSegment, long nextOrderId, Map<Long, Long> spent, Map<Long, long[]> orderIndex) {
+        this.coveredSegment = coveredSegment;
+        this.nextOrderId = nextOrderId;
+        this.spent = spent;
+        this.orderIndex = orderIndex;
+    }
+
+    static StoreSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * The last journal segment whose orders are included; 0 if none are.
+     */
+    long coveredSegment() {
+        return coveredSegment;
+    }
+
+    long nextOrderId() {
+        return nextOrderId;
+    }
+
+    /**
+     * Total of the covered orders of this customer, in minor units.
+     */
+    long spent(long customerId) {
+        return spent.getOrDefault(customerId, 0L);
+    }
+
+    /**
+     * Every customer with covered orders.
+     */
+    Set<Long> customerIds() {
+        return Collections.unmodifiableSet(spent.keySet());
+    }
+
+    /**
+     * Number of covered orders of this customer.
+     */
+    int orderCount(long customerId) {
+        long[] locations = orderIndex.get(customerId);
+        return locations == null ? 0 : locations.length / LOCATION_SIZE;
+    }
+
+    /**
+     * Id, segment, record offset and creation time (epoch milliseconds, UTC) of every covered
+     * order of this customer, as consecutive runs of {@link #LOCATION_SIZE}. The array is shared
+     * and must not be modified.
+     */
+    long[] orderLocations(long customerId) {
+        long[] locations = orderIndex.get(customerId);
+        return locations == null ? new long[0] : locations;
+    }
+
+    /**
+     * Adds every order of {@code segment}, which must come after {@link #coveredSegment()}.
+     * Reading stops at a torn record: whatever follows it never reached a caller as durable.
+     */
+    StoreSnapshot fold(long segment, OrderLogReader reader) {
+        if (segment <= coveredSegment) {
+            throw new IllegalArgumentException("Segment " + segment + " is already covered by snapshot of " + coveredSegment);
+        }
+        Map<Long, Long> newSpent = new HashMap<>(spent);
+        Map<Long, Locations> added = new HashMap<>();
+        long maxId = nextOrderId - 1;
+        for (Order order; (order = reader.next()) != null; ) {
+            newSpent.merge(order.getCustomerId(), order.getPriceMinor(), Money::add);
+            added.computeIfAbsent(order.getCustomerId(), id -> new Locations(orderLocations(id)))
+                    .add(order.getOrderId(), segment, reader.recordOffset(),
+                            order.getTimestampCreated().toInstant(ZoneOffset.UTC).toEpochMilli());
+            maxId = Math.max(maxId, order.getOrderId());
+        }
+        Map<Long, long[]> newIndex = new HashMap<>(orderIndex);
+        added.forEach((customerId, locations) -> newIndex.put(customerId, locations.toArray()));
+        return new StoreSnapshot(segment, maxId + 1, newSpent, newIndex);
+    }
+
+    void write(Path file) {
+        var out = new LogBuffer(64 * 1024);
+        out.writeBytes(MAGIC, 0, MAGIC.length);
+        out.writeByte(VERSION);
+        out.writeVarLong(coveredSegment);
+        out.writeVarLong(nextOrderId);
+        out.writeVarLong(spent.size());
+        spent.forEach((customerId, amount) -> {
+            out.writeSignedVarLong(customerId);
+            out.writeSignedVarLong(amount);
+        });
+        out.writeVarLong(orderIndex.size());
+        orderIndex.forEach((customerId, locations) -> {
+            out.writeSignedVarLong(customerId);
+            out.writeVarLong(locations.length / LOCATION_SIZE);
+            for (int i = 0; i < locations.length; i += LOCATION_SIZE) {
+                out.writeVarLong(locations[i]);
+                out.writeVarLong(locations[i + 1]);
+                out.writeVarLong(locations[i + 2]);
+                out.writeSignedVarLong(locations[i + 3]);
+            }
+        });
+        var crc = new CRC32C();
+        crc.update(out.array(), HEADER_SIZE, out.size() - HEADER_SIZE);
+        out.writeIntBigEndian((int) crc.getValue());
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (var channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            var bytes = out.asByteBuffer();
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(true);
+        } catch (IOException e) {
+            throw new RuntimeException("IOException happened while writing file: " + temp, e);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException("IOException happened while writing file: " + file, e);
+        }
+    }
+
+    /**
+     * @throws IllegalStateException if the file is not an intact snapshot
+     */
+    static StoreSnapshot read(Path file) {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new RuntimeException("IOException happened while reading file: " + file, e);
+        }
+        if (bytes.length < HEADER_SIZE + 4 || !Arrays.equals(bytes, 0, MAGIC.length, MAGIC, 0, MAGIC.length)) {
+            throw new IllegalStateException("Not a snapshot: " + file);
+        }
+        if (bytes[MAGIC.length] != VERSION) {
+            throw new IllegalStateException("Unsupported snapshot version " + bytes[MAGIC.length] + ": " + file);
+        }
+        var in = ByteBuffer.wrap(bytes);
+        int payloadLength = bytes.length - HEADER_SIZE - 4;
+        var crc = new CRC32C();
+        crc.update(bytes, HEADER_SIZE, payloadLength);
+        if ((int) crc.getValue() != in.getInt(bytes.length - 4)) {
+            throw new IllegalStateException("Snapshot checksum mismatch: " + file);
+        }
+        in.position(HEADER_SIZE).limit(HEADER_SIZE + payloadLength);
+        try {
+            long coveredSegment = LogBuffer.readVarLong(in);
+            long nextOrderId = LogBuffer.readVarLong(in);
+            int spentCount = Math.toIntExact(LogBuffer.readVarLong(in));
+            Map<Long, Long> spent = HashMap.newHashMap(spentCount);
+            for (int i = 0; i < spentCount; i++) {
+                spent.put(LogBuffer.readSignedVarLong(in), LogBuffer.readSignedVarLong(in));
+            }
+            int indexCount = Math.toIntExact(LogBuffer.readVarLong(in));
+            Map<Long, long[]> orderIndex = HashMap.newHashMap(indexCount);
+            for (int i = 0; i < indexCount; i++) {
+                long customerId = LogBuffer.readSignedVarLong(in);
+                var locations = new long[Math.multiplyExact(Math.toIntExact(LogBuffer.readVarLong(in)), LOCATION_SIZE)];
+                for (int j = 0; j < locations.length; j += LOCATION_SIZE) {
+                    locations[j] = LogBuffer.readVarLong(in);
+                    locations[j + 1] = LogBuffer.readVarLong(in);
+                    locations[j + 2] = LogBuffer.readVarLong(in);
+                    locations[j + 3] = LogBuffer.readSignedVarLong(in);
+                }
+                orderIndex.put(customerId, locations);
+            }
+            return new StoreSnapshot(coveredSegment, nextOrderId, spent, orderIndex);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Malformed snapshot: " + file, e);
+        }
+    }
+
+    /**
+     * Growable copy of one customer's locations.
+     */
+    private static final class Locations {
+        private long[] values;
+        private int size;
+
+        Locations(long[] existing) {
+            values = Arrays.copyOf(existing, Math.max(existing.length * 2, 8 * LOCATION_SIZE));
+            size = existing.length;
+        }
+
+        void add(long orderId, long segment, long offset, long createdMillis) {
+            if (values.length - size < LOCATION_SIZE) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[size++] = orderId;
+            values[size++] = segment;
+            values[size++] = offset;
+            values[size++] = createdMillis;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package food.data;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Append-only store of deduplicated strings, kept as UTF-8 in one byte array instead of one
+ * {@link String} object each.
+ * <p>
+ * A string is referred to by its offset in the array, where it is stored as a varint length
+ * followed by its bytes; {@link #NULL} stands for {@code null}. Interned strings are deduplicated;
+ * strings that are known to be unique, like user names, are {@linkplain #add added} without
+ * taking room in the deduplication table. Adding must be serialised by the caller, but references that reached a reader
+ * through a volatile write stay readable without locking: bytes are never moved or overwritten,
+ * only copied into a larger array that is published afterwards.
+ */
+final class StringPool {
+
+    static final int NULL = -1;
+
+    private volatile byte[] bytes;
+    private int size;
+    // open addressing over the references, 0 empty, reference + 1 otherwise
+    private int[] slots = new int[1024];
+    private int interned;
+
+    StringPool() {
+        this(4096);
+    }
+
+    StringPool(int initialBytes) {
+        bytes = new byte[Math.max(16, initialBytes)];
+    }
+
+    /**
+     * The reference of {@code value}, adding it if the pool does not hold it yet.
+     */
+    int intern(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        int mask = slots.length - 1;
+        for (int i = hash(utf8, 0, utf8.length) & mask; ; i = (i + 1) & mask) {
+            int ref = slots[i] - 1;
+            if (ref < 0) {
+                break;
+            }
+            if (equals(ref, utf8)) {
+                return ref;
+            }
+        }
+        int ref = append(utf8);
+        if (++interned * 2 > slots.length) {
+            rehash();
+        }
+        insert(slots, ref, utf8, 0, utf8.length);
+        return ref;
+    }
+
+    /**
+     * Appends {@code value} without looking for an equal string.
+     */
+    int add(String value) {
+        return value == null ? NULL : append(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    String get(int ref) {
+        if (ref == NULL) {
+            return null;
+        }
+        byte[] b = bytes;
+        int length = length(b, ref);
+        int at = ref + lengthSize(length);
+        return new String(b, at, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Whether the string at {@code ref} is the one encoded in {@code utf8}, without decoding it.
+     */
+    boolean equals(int ref, byte[] utf8) {
+        if (ref == NULL) {
+            return false;
+        }
+        byte[] b = bytes;
+        int length = length(b, ref);
+        int at = ref + lengthSize(length);
+        return length == utf8.length && Arrays.equals(b, at, at + length, utf8, 0, length);
+    }
+
+    /**
+     * {@link #hash(byte[], int, int)} of the string at {@code ref}.
+     */
+    int hash(int ref) {
+        byte[] b = bytes;
+        int length = length(b, ref);
+        int at = ref + lengthSize(length);
+        return hash(b, at, at + length);
+    }
+
+    /**
+     * Bytes in use, for sizing.
+     */
+    int size() {
+        return size;
+    }
+
+    static int hash(byte[] utf8, int from, int to) {
+        int h = 1;
+        for (int i = from; i < to; i++) {
+            h = 31 * h + utf8[i];
+        }
+        return h * 0x9E3779B9;
+    }
+
+    private int append(byte[] utf8) {
+        int needed = size + 5 + utf8.length;
+        byte[] b = bytes;
+        if (needed > b.length) {
+            b = Arrays.copyOf(b, Math.max(needed, b.length + (b.length >> 1)));
+        }
+        int ref = size;
+        int at = size;
+        int length = utf8.length;
+        while ((length & ~0x7F) != 0) {
+            b[at++] = (byte) ((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+        b[at++] = (byte) length;
+        System.arraycopy(utf8, 0, b, at, utf8.length);
+        size = at + utf8.length;
+        bytes = b;
+        return ref;
+    }
+
+    private void rehash() {
+        int[] larger = new int[slots.length * 2];
+        byte[] b = bytes;
+        for (int slot : slots) {
+            if (slot != 0) {
+                int ref = slot - 1;
+                int length = length(b, ref);
+                int at = ref + lengthSize(length);
+                insert(larger, ref, b, at, at + length);
+            }
+        }
+        slots = larger;
+    }
+
+    private static int length(byte[] b, int ref) {
+        int length = 0;
+        for (int shift = 0, at = ref; ; shift += 7) {
+            byte next = b[at++];
+            length |= (next & 0x7F) << shift;
+            if (next >= 0) {
+                return length;
+            }
+        }
+    }
+
+    private static int lengthSize(int length) {
+        return (38 - Integer.numberOfLeadingZeros(length | 1)) / 7;
+    }
+
+    private static void insert(int[] table, int ref, byte[] utf8, int from, int to) {
+        int mask = table.length - 1;
+        int i = hash(utf8, from, to) & mask;
+        while (table[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        table[i] = ref + 1;
+    }
+}
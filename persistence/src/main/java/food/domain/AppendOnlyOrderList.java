@@ -0,0 +1,56 @@
+package food.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Orders in the order they were appended, for {@link OrderHistory} implementations.
+ * <p>
+ * Appends are serialised and grow the backing array by doubling, so they cost amortised O(1).
+ * Readers take no lock: the array is published before the size, so every position below
+ * {@link #size()} can be read directly, and a page copies only its own orders.
+ */
+public final class AppendOnlyOrderList {
+
+    private volatile Order[] orders;
+    private volatile int size;
+
+    public AppendOnlyOrderList(List<Order> initial) {
+        this.orders = initial.toArray(new Order[Math.max(initial.size(), 8)]);
+        this.size = initial.size();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Order get(int index) {
+        Objects.checkIndex(index, size);
+        return orders[index];
+    }
+
+    /**
+     * The orders from position {@code from} up to {@code to}, exclusive.
+     *
+     * @throws IndexOutOfBoundsException unless {@code 0 <= from <= to <= size()}
+     */
+    public List<Order> range(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        Order[] current = orders;
+        return new ArrayList<>(Arrays.asList(current).subList(from, to));
+    }
+
+    public synchronized void append(Order order) {
+        Objects.requireNonNull(order, "order is null");
+        int at = size;
+        Order[] current = orders;
+        if (at == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+            orders = current;
+        }
+        current[at] = order;
+        size = at + 1;
+    }
+}
@@ -1,42 +1,106 @@
 package food.domain;
 
+import food.values.Money;
+
 import java.math.BigDecimal;
-import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 public class Cart {
-    private List<OrderItem> orderItems;
+    // insertion-ordered, keyed by food id so lookups and updates are O(1); a food keeps its id
+    // across catalog versions, so a cart holds at most one item per food whatever the price.
+    // Foods from outside a catalog are keyed by name.
+    private final Map<Object, OrderItem> orderItems = new LinkedHashMap<>();
     //the field price can be used later to add discounts, so it would differ from the sum of the OrderItems
-    private BigDecimal price;
+    // in Money minor units
+    private long price;
 
     public Cart() {
     }
 
-    private Cart(List<OrderItem> orderItems, BigDecimal price) {
-        this.orderItems = orderItems;
-        this.price = price;
-    }
-
     //this utility method is not part of the homework specification!
     public static Cart getEmptyCart() {
-        return new Cart(new ArrayList<>(), BigDecimal.ZERO);
+        return new Cart();
     }
 
+    /**
+     * The items in the order they were first added, as an immutable snapshot.
+     */
     public List<OrderItem> getOrderItems() {
-        return orderItems;
+        return List.copyOf(orderItems.values());
     }
 
     public void setOrderItems(List<OrderItem> orderItems) {
-        this.orderItems = orderItems;
+        this.orderItems.clear();
+        orderItems.forEach(this::putItem);
+    }
+
+    /**
+     * A new cart with the same items and price, which can be read without the owner's lock.
+     */
+    public Cart copy() {
+        Cart copy = new Cart();
+        copy.orderItems.putAll(orderItems);
+        copy.price = price;
+        return copy;
+    }
+
+    public OrderItem getItem(Food food) {
+        return orderItems.get(keyOf(food));
+    }
+
+    /**
+     * Adds the item, or replaces the item for the same food in place.
+     *
+     * @return the replaced item, or {@code null}
+     */
+    public OrderItem putItem(OrderItem item) {
+        return orderItems.put(keyOf(item.getFood()), item);
+    }
+
+    /**
+     * @return the removed item, or {@code null} if the food was not in the cart
+     */
+    public OrderItem removeItem(Food food) {
+        return orderItems.remove(keyOf(food));
+    }
+
+    public int size() {
+        return orderItems.size();
+    }
+
+    public boolean isEmpty() {
+        return orderItems.isEmpty();
+    }
+
+    /**
+     * Removes all items and resets the price.
+     */
+    public void clear() {
+        orderItems.clear();
+        price = 0;
     }
 
     public BigDecimal getPrice() {
-        return price;
+        return Money.toBigDecimal(price);
     }
 
     public void setPrice(BigDecimal price) {
-        this.price = price;
+        this.price = Money.of(price);
+    }
+
+    public long getPriceMinor() {
+        return price;
+    }
+
+    public void setPriceMinor(long priceMinor) {
+        this.price = priceMinor;
+    }
+
+    private static Object keyOf(Food food) {
+        return food.hasId() ? (Object) food.getId() : food.getName();
     }
 
     @Override
@@ -46,7 +110,7 @@ public class Cart {
         if (o == null || getClass() != o.getClass())
             return false;
         Cart cart = (Cart) o;
-        return Objects.equals(orderItems, cart.orderItems) && Objects.equals(price, cart.price);
+        return price == cart.price && Objects.equals(orderItems, cart.orderItems);
     }
 
     @Override
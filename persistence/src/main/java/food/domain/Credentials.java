@@ -49,7 +49,7 @@ public class Credentials {
     public String toString() {
         return "Credentials{" +
                 "userName='" + userName + '\'' +
-                ", password='" + password + '\'' +
+                ", password=" + (password == null ? "null" : "'****'") +
                 '}';
     }
 }
@@ -1,30 +1,86 @@
 package food.domain;
 
+import food.values.Money;
+import food.values.PasswordHash;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
 public class Customer extends Credentials {
-    private final List<Order> orders = new ArrayList<>();
+    private static final VarHandle BALANCE;
+    private static final VarHandle HELD;
+
+    static {
+        try {
+            BALANCE = MethodHandles.lookup().findVarHandle(Customer.class, "balance", long.class);
+            HELD = MethodHandles.lookup().findVarHandle(Customer.class, "held", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // created on first use, so customers who never order carry no history
+    private volatile OrderHistory orderHistory;
+    // null while the customer still has a plaintext password
+    private PasswordHash passwordHash;
     private long id;
     private String name;
-    private BigDecimal balance;
+    // in Money minor units
+    private long balance;
+    // in Money minor units, reserved from the balance but not yet debited; never persisted
+    private long held;
     private Cart cart;
 
     public Customer() {
     }
 
     public Customer(String userName, String password, long id, String name, BigDecimal balance, Cart cart) {
+        this(userName, password, id, name, Money.of(balance), cart);
+    }
+
+    public Customer(String userName, String password, long id, String name, long balanceMinor, Cart cart) {
         super(userName, password);
         this.id = id;
         this.name = name;
-        this.balance = balance;
+        this.balance = balanceMinor;
         this.cart = cart;
     }
 
+    /**
+     * The customer's orders, oldest first, as a read-only view that loads the
+     * {@linkplain #getOrderHistory() history} a page at a time.
+     */
     public List<Order> getOrders() {
-        return orders;
+        return new OrderHistoryView(getOrderHistory());
+    }
+
+    public OrderHistory getOrderHistory() {
+        OrderHistory history = orderHistory;
+        if (history == null) {
+            synchronized (this) {
+                history = orderHistory;
+                if (history == null) {
+                    orderHistory = history = OrderHistory.inMemory(List.of());
+                }
+            }
+        }
+        return history;
+    }
+
+    public void setOrderHistory(OrderHistory orderHistory) {
+        this.orderHistory = Objects.requireNonNull(orderHistory, "orderHistory");
+    }
+
+    public PasswordHash getPasswordHash() {
+        return passwordHash;
+    }
+
+    public void setPasswordHash(PasswordHash passwordHash) {
+        this.passwordHash = passwordHash;
     }
 
     public long getId() {
@@ -44,11 +100,111 @@ public class Customer extends Credentials {
     }
 
     public BigDecimal getBalance() {
-        return balance;
+        return Money.toBigDecimal(getBalanceMinor());
     }
 
     public void setBalance(BigDecimal balance) {
-        this.balance = balance;
+        setBalanceMinor(Money.of(balance));
+    }
+
+    public long getBalanceMinor() {
+        return balance;
+    }
+
+    public void setBalanceMinor(long balanceMinor) {
+        this.balance = balanceMinor;
+    }
+
+    /**
+     * Subtracts {@code amountMinor} from the balance unless that would take it below zero, with a
+     * compare-and-set rather than a lock. Holds are not taken into account.
+     *
+     * @return whether the balance was debited
+     */
+    public boolean tryDebit(long amountMinor) {
+        if (amountMinor < 0) {
+            throw new IllegalArgumentException("Debit must not be negative: " + amountMinor);
+        }
+        long current;
+        do {
+            current = (long) BALANCE.getVolatile(this);
+            if (current < amountMinor) {
+                return false;
+            }
+        } while (!BALANCE.compareAndSet(this, current, current - amountMinor));
+        return true;
+    }
+
+    /**
+     * Adds {@code amountMinor} to the balance with a compare-and-set and returns the new balance.
+     *
+     * @throws ArithmeticException if the balance would overflow
+     */
+    public long credit(long amountMinor) {
+        if (amountMinor < 0) {
+            throw new IllegalArgumentException("Credit must not be negative: " + amountMinor);
+        }
+        long current;
+        long credited;
+        do {
+            current = (long) BALANCE.getVolatile(this);
+            credited = Math.addExact(current, amountMinor);
+        } while (!BALANCE.compareAndSet(this, current, credited));
+        return credited;
+    }
+
+    /**
+     * The part of the balance that is reserved, for example for a cart, and not yet debited.
+     */
+    public long getHeldMinor() {
+        return (long) HELD.getVolatile(this);
+    }
+
+    /**
+     * Reserves {@code amountMinor} if the balance minus what is already held covers it. The
+     * balance itself is not touched; {@link #tryDebit} the amount and {@link #release} it to
+     * turn a hold into a debit.
+     *
+     * @return whether the amount is now held
+     */
+    public boolean tryHold(long amountMinor) {
+        if (amountMinor < 0) {
+            throw new IllegalArgumentException("Hold must not be negative: " + amountMinor);
+        }
+        long current;
+        do {
+            current = getHeldMinor();
+            if (Money.subtract(getBalanceMinor(), current) < amountMinor) {
+                return false;
+            }
+        } while (!compareAndSetHeld(current, current + amountMinor));
+        return true;
+    }
+
+    /**
+     * Gives back {@code amountMinor} of what is held.
+     *
+     * @throws IllegalArgumentException if less than that is held
+     */
+    public void release(long amountMinor) {
+        if (amountMinor < 0) {
+            throw new IllegalArgumentException("Release must not be negative: " + amountMinor);
+        }
+        long current;
+        do {
+            current = getHeldMinor();
+            if (current < amountMinor) {
+                throw new IllegalArgumentException("Cannot release " + amountMinor + ", only " + current + " is held");
+            }
+        } while (!compareAndSetHeld(current, current - amountMinor));
+    }
+
+    /**
+     * Sets the held amount if it is still {@code expected}; subclasses that keep it elsewhere
+     * override this together with {@link #getHeldMinor()}.
+     */
+    protected boolean compareAndSetHeld(long expected, long heldMinor) {
+        return HELD.compareAndSet(this, expected, heldMinor);
     }
 
     public Cart getCart() {
@@ -59,38 +215,37 @@ public class Customer extends Credentials {
         this.cart = cart;
     }
 
+    // identity only: the balance, cart and order history change while the customer is in use.
+    // Goes through the getters, so a customer equals a view of the same stored customer.
     @Override public boolean equals(Object o) {
         if (this == o)
             return true;
-        if (o == null || getClass() != o.getClass())
-            return false;
-        if (!super.equals(o))
+        if (!(o instanceof Customer customer))
             return false;
-        Customer customer = (Customer) o;
-        return id == customer.id && Objects.equals(name, customer.name) && Objects.equals(balance, customer.balance)
-            && Objects.equals(orders, customer.orders) && Objects.equals(cart, customer.cart);
+        return getId() == customer.getId() && Objects.equals(getUserName(), customer.getUserName());
     }
 
     @Override public int hashCode() {
-        return Objects.hash(super.hashCode(), id, name, balance, orders, cart);
+        return Objects.hash(getId(), getUserName());
     }
 
     @Override public String toString() {
         return "Customer{" +
-            "id=" + id +
-            ", name='" + name + '\'' +
-            ", balance=" + balance +
-            ", orders=" + orders +
-            ", cart=" + cart +
+            "id=" + getId() +
+            ", userName='" + getUserName() + '\'' +
+            ", name='" + getName() + '\'' +
+            ", balance=" + Money.format(getBalanceMinor()) +
+            ", orders=" + getOrderHistory().size() +
             '}';
     }
 
     public static class Builder {
         private String userName;
         private String password;
+        private PasswordHash passwordHash;
         private long id;
         private String name;
-        private BigDecimal balance;
+        private long balance;
         private List<Order> orders = new ArrayList<>();
         private Cart cart;
 
@@ -104,6 +259,11 @@ public class Customer extends Credentials {
             return this;
         }
 
+        public Builder passwordHash(PasswordHash passwordHash) {
+            this.passwordHash = passwordHash;
+            return this;
+        }
+
         public Builder orders(List<Order> orders) {
             this.orders = orders;
             return this;
@@ -120,7 +280,12 @@ public class Customer extends Credentials {
         }
 
         public Builder balance(BigDecimal balance) {
-            this.balance = balance;
+            this.balance = Money.of(balance);
+            return this;
+        }
+
+        public Builder balanceMinor(long balanceMinor) {
+            this.balance = balanceMinor;
             return this;
         }
 
@@ -130,7 +295,12 @@ public class Customer extends Credentials {
         }
 
         public Customer build() {
-            return new Customer(userName, password, id, name, balance, cart);
+            var customer = new Customer(userName, password, id, name, balance, cart);
+            customer.setPasswordHash(passwordHash);
+            if (!orders.isEmpty()) {
+                customer.setOrderHistory(OrderHistory.inMemory(orders));
+            }
+            return customer;
         }
     }
 }
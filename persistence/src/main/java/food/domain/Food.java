@@ -1,22 +1,51 @@
 package food.domain;
 
+import food.values.Money;
+
 import java.math.BigDecimal;
 import java.util.Objects;
 
 public class Food {
+    public static final int UNASSIGNED_ID = -1;
+
+    // catalog id, set once when the catalog interns the food; foods built outside a catalog keep UNASSIGNED_ID
+    private final int id;
     private String name;
     private BigDecimal calorie;
     private String description;
-    private BigDecimal price;
+    // in Money minor units
+    private long price;
 
     public Food() {
+        this.id = UNASSIGNED_ID;
     }
 
     public Food(String name, BigDecimal calorie, String description, BigDecimal price) {
+        this.id = UNASSIGNED_ID;
         this.name = name;
         this.calorie = calorie;
         this.description = description;
-        this.price = price;
+        this.price = Money.of(price);
+    }
+
+    public Food(String name, BigDecimal calorie, String description, long priceMinor) {
+        this(UNASSIGNED_ID, name, calorie, description, priceMinor);
+    }
+
+    public Food(int id, String name, BigDecimal calorie, String description, long priceMinor) {
+        this.id = id;
+        this.name = name;
+        this.calorie = calorie;
+        this.description = description;
+        this.price = priceMinor;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public boolean hasId() {
+        return id != UNASSIGNED_ID;
     }
 
     public String getName() {
@@ -44,41 +73,64 @@ public class Food {
     }
 
     public BigDecimal getPrice() {
-        return price;
+        return Money.toBigDecimal(price);
     }
 
     public void setPrice(BigDecimal price) {
-        this.price = price;
+        this.price = Money.of(price);
+    }
+
+    public long getPriceMinor() {
+        return price;
     }
 
+    public void setPriceMinor(long priceMinor) {
+        this.price = priceMinor;
+    }
+
+    /**
+     * Two catalogued foods are the same food if they have the same id, whatever catalog version
+     * they come from; otherwise foods are compared by their fields.
+     */
     @Override public boolean equals(Object o) {
         if (this == o)
             return true;
         if (o == null || getClass() != o.getClass())
             return false;
         Food food = (Food) o;
-        return Objects.equals(name, food.name) && Objects.equals(calorie, food.calorie) && Objects.equals(description,
-            food.description) && Objects.equals(price, food.price);
+        if (hasId() && food.hasId()) {
+            return id == food.id;
+        }
+        return price == food.price && Objects.equals(name, food.name) && Objects.equals(calorie, food.calorie)
+            && Objects.equals(description, food.description);
     }
 
+    // a catalog gives an id to one name only, so the name hash agrees with both kinds of equality
     @Override public int hashCode() {
-        return Objects.hash(name, calorie, description, price);
+        return Objects.hashCode(name);
     }
 
     @Override public String toString() {
         return "Food{" +
-            "name='" + name + '\'' +
+            "id=" + id +
+            ", name='" + name + '\'' +
             ", calorie=" + calorie +
             ", description='" + description + '\'' +
-            ", price=" + price +
+            ", price=" + Money.format(price) +
             '}';
     }
 
     public static class Builder {
+        private int id = UNASSIGNED_ID;
         private String name;
         private BigDecimal calorie;
         private String description;
-        private BigDecimal price;
+        private long price;
+
+        public Builder id(int id) {
+            this.id = id;
+            return this;
+        }
 
         public Builder name(String name) {
             this.name = name;
@@ -96,12 +148,17 @@ public class Food {
         }
 
         public Builder price(BigDecimal price) {
-            this.price = price;
+            this.price = Money.of(price);
+            return this;
+        }
+
+        public Builder priceMinor(long priceMinor) {
+            this.price = priceMinor;
             return this;
         }
 
         public Food build() {
-            return new Food(name, calorie, description, price);
+            return new Food(id, name, calorie, description, price);
         }
     }
 }
@@ -1,5 +1,7 @@
 package food.domain;
 
+import food.values.Money;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -10,7 +12,8 @@ public class Order {
     private long customerId;
     private List<OrderItem> orderItems;
     //the field price can be used later to add discounts, so it would differ from the sum of food prices
-    private BigDecimal price;
+    // in Money minor units
+    private long price;
     private LocalDateTime timestampCreated;
 
     public Order() {
@@ -18,17 +21,22 @@ public class Order {
 
     public Order(Customer customer) {
         this.customerId = customer.getId();
-        this.orderItems = customer.getCart().getOrderItems();
-        this.price = customer.getCart().getPrice();
+        // snapshot the items: the cart is emptied and reused after checkout
+        this.orderItems = List.copyOf(customer.getCart().getOrderItems());
+        this.price = customer.getCart().getPriceMinor();
         this.timestampCreated = LocalDateTime.now();
         this.orderId = null;
     }
 
     public Order(Long orderId, long customerId, List<OrderItem> orderItems, BigDecimal price, LocalDateTime timestampCreated) {
+        this(orderId, customerId, orderItems, Money.of(price), timestampCreated);
+    }
+
+    public Order(Long orderId, long customerId, List<OrderItem> orderItems, long priceMinor, LocalDateTime timestampCreated) {
         this.orderId = orderId;
         this.customerId = customerId;
         this.orderItems = orderItems;
-        this.price = price;
+        this.price = priceMinor;
         this.timestampCreated = timestampCreated;
     }
 
@@ -57,11 +65,19 @@ public class Order {
     }
 
     public BigDecimal getPrice() {
-        return price;
+        return Money.toBigDecimal(price);
     }
 
     public void setPrice(BigDecimal price) {
-        this.price = price;
+        this.price = Money.of(price);
+    }
+
+    public long getPriceMinor() {
+        return price;
+    }
+
+    public void setPriceMinor(long priceMinor) {
+        this.price = priceMinor;
     }
 
     public LocalDateTime getTimestampCreated() {
@@ -78,8 +94,8 @@ public class Order {
         if (o == null || getClass() != o.getClass())
             return false;
         Order order = (Order) o;
-        return customerId == order.customerId && Objects.equals(orderId, order.orderId) && Objects.equals(orderItems, order.orderItems)
-            && Objects.equals(price, order.price) && Objects.equals(timestampCreated, order.timestampCreated);
+        return customerId == order.customerId && price == order.price && Objects.equals(orderId, order.orderId)
+            && Objects.equals(orderItems, order.orderItems) && Objects.equals(timestampCreated, order.timestampCreated);
     }
 
     @Override public int hashCode() {
@@ -91,7 +107,7 @@ public class Order {
             "orderId=" + orderId +
             ", customerId=" + customerId +
             ", items=" + orderItems +
-            ", price=" + price +
+            ", price=" + Money.format(price) +
             ", timestampCreated=" + timestampCreated +
             '}';
     }
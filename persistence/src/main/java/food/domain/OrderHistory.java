@@ -0,0 +1,62 @@
+package food.domain;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The orders of one customer, oldest first, addressed by position.
+ * <p>
+ * A data store backs this with its order log, so a customer with a long history costs a few
+ * longs per order until a page of it is actually read. {@link Customer#getOrders()} is a list
+ * view that reads the history page by page as it is iterated.
+ */
+public interface OrderHistory {
+
+    int size();
+
+    /**
+     * Up to {@code limit} orders starting at position {@code from}, oldest first.
+     *
+     * @throws IndexOutOfBoundsException if {@code from} is not between 0 and {@link #size()}
+     */
+    List<Order> page(int from, int limit);
+
+    /**
+     * Records a newly created order at the end of the history.
+     */
+    void append(Order order);
+
+    /**
+     * The {@code limit} most recent orders, newest first.
+     */
+    default List<Order> latest(int limit) {
+        int size = size();
+        int from = Math.max(0, size - limit);
+        return page(from, size - from).reversed();
+    }
+
+    /**
+     * A history that keeps its orders on the heap, for customers not attached to a data store.
+     */
+    static OrderHistory inMemory(List<Order> orders) {
+        var list = new AppendOnlyOrderList(orders);
+        return new OrderHistory() {
+            @Override
+            public int size() {
+                return list.size();
+            }
+
+            @Override
+            public List<Order> page(int from, int limit) {
+                int size = list.size();
+                Objects.checkFromToIndex(from, from, size);
+                return list.range(from, (int) Math.min(size, (long) from + Math.max(0, limit)));
+            }
+
+            @Override
+            public void append(Order order) {
+                list.append(order);
+            }
+        };
+    }
+}
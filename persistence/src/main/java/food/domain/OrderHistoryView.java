@@ -0,0 +1,39 @@
+package food.domain;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Read-only list over an {@link OrderHistory}, fetching it {@link #PAGE_SIZE} orders at a time.
+ * Only the current page is kept, so iterating a long history does not pull all of it onto the heap.
+ */
+final class OrderHistoryView extends AbstractList<Order> implements RandomAccess {
+
+    static final int PAGE_SIZE = 64;
+
+    private final OrderHistory history;
+    private List<Order> page = List.of();
+    private int pageStart;
+
+    OrderHistoryView(OrderHistory history) {
+        this.history = history;
+    }
+
+    @Override
+    public Order get(int index) {
+        if (index < pageStart || index >= pageStart + page.size()) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size());
+            }
+            page = history.page(index, PAGE_SIZE);
+            pageStart = index;
+        }
+        return page.get(index - pageStart);
+    }
+
+    @Override
+    public int size() {
+        return history.size();
+    }
+}
@@ -1,5 +1,7 @@
 package food.domain;
 
+import food.values.Money;
+
 import java.math.BigDecimal;
 import java.util.Objects;
 
@@ -7,15 +9,20 @@ public class OrderItem {
     private Food food;
     private int pieces;
     //the field price can be used later to add discounts, so it would differ from (food x pieces)
-    private BigDecimal price;
+    // in Money minor units
+    private long price;
 
     public OrderItem() {
     }
 
     public OrderItem(Food food, int pieces, BigDecimal price) {
+        this(food, pieces, Money.of(price));
+    }
+
+    public OrderItem(Food food, int pieces, long priceMinor) {
         this.food = food;
         this.pieces = pieces;
-        this.price = price;
+        this.price = priceMinor;
     }
 
     public Food getFood() {
@@ -35,11 +42,19 @@ public class OrderItem {
     }
 
     public BigDecimal getPrice() {
-        return price;
+        return Money.toBigDecimal(price);
     }
 
     public void setPrice(BigDecimal price) {
-        this.price = price;
+        this.price = Money.of(price);
+    }
+
+    public long getPriceMinor() {
+        return price;
+    }
+
+    public void setPriceMinor(long priceMinor) {
+        this.price = priceMinor;
     }
 
     @Override public boolean equals(Object o) {
@@ -48,7 +63,7 @@ public class OrderItem {
         if (o == null || getClass() != o.getClass())
             return false;
         OrderItem orderItem = (OrderItem) o;
-        return pieces == orderItem.pieces && Objects.equals(food, orderItem.food) && Objects.equals(price, orderItem.price);
+        return pieces == orderItem.pieces && price == orderItem.price && Objects.equals(food, orderItem.food);
     }
 
     @Override public int hashCode() {
@@ -59,14 +74,14 @@ public class OrderItem {
         return "OrderItem{" +
             "food=" + food +
             ", pieces=" + pieces +
-            ", price=" + price +
+            ", price=" + Money.format(price) +
             '}';
     }
 
     public static class Builder {
         private Food food;
         private int pieces;
-        private BigDecimal price;
+        private long price;
 
         public Builder food(Food food) {
             this.food = food;
@@ -79,7 +94,12 @@ public class OrderItem {
         }
 
         public Builder price(BigDecimal price) {
-            this.price = price;
+            this.price = Money.of(price);
+            return this;
+        }
+
+        public Builder priceMinor(long priceMinor) {
+            this.price = priceMinor;
             return this;
         }
 
@@ -0,0 +1,106 @@
+package food.values;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money arithmetic on {@code long} minor units (cents) with a scale of
+ * {@value #SCALE}.
+ * <p>
+ * Amounts are plain {@code long}s, so cart and balance math allocates nothing. Overflow throws
+ * {@link ArithmeticException} instead of wrapping. Values with more than {@value #SCALE} decimals
+ * are rounded {@link RoundingMode#HALF_EVEN half-even}, the same as for {@link BigDecimal} input.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+    public static final RoundingMode ROUNDING = RoundingMode.HALF_EVEN;
+    private static final long MINOR_PER_UNIT = 100;
+
+    private Money() {
+    }
+
+    public static long of(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(SCALE, ROUNDING).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long minor) {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+
+    public static long times(long unitMinor, int pieces) {
+        return Math.multiplyExact(unitMinor, pieces);
+    }
+
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    public static long subtract(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    /**
+     * Parses a plain decimal such as {@code 12.99}, {@code -3} or {@code 0.5}.
+     */
+    public static long parse(CharSequence text) {
+        int length = text.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            i++;
+        }
+        long units = 0;
+        long fraction = 0;
+        int fractionDigits = -1;
+        int digits = 0;
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else if (c >= '0' && c <= '9' && fractionDigits < 0) {
+                units = Math.addExact(Math.multiplyExact(units, 10), c - '0');
+                digits++;
+            } else if (c >= '0' && c <= '9' && fractionDigits < SCALE) {
+                fraction = fraction * 10 + (c - '0');
+                fractionDigits++;
+                digits++;
+            } else {
+                // more decimals than the scale, exponents or garbage
+                return of(new BigDecimal(text.toString()));
+            }
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("Not a money amount: " + text);
+        }
+        for (int d = Math.max(fractionDigits, 0); d < SCALE; d++) {
+            fraction *= 10;
+        }
+        long minor = Math.addExact(Math.multiplyExact(units, MINOR_PER_UNIT), fraction);
+        return negative ? -minor : minor;
+    }
+
+    /**
+     * Formats like {@link BigDecimal#toPlainString()} at scale {@value #SCALE}, e.g. {@code 8.50}.
+     */
+    public static String format(long minor) {
+        return appendTo(new StringBuilder(24), minor).toString();
+    }
+
+    public static StringBuilder appendTo(StringBuilder sb, long minor) {
+        long units = minor / MINOR_PER_UNIT;
+        long cents = minor % MINOR_PER_UNIT;
+        if (minor < 0) {
+            // neither part can be Long.MIN_VALUE, so negating them is exact
+            sb.append('-');
+            units = -units;
+            cents = -cents;
+        }
+        sb.append(units).append('.');
+        if (cents < 10) {
+            sb.append('0');
+        }
+        return sb.append(cents);
+    }
+}
@@ -0,0 +1,131 @@
+package food.values;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * A salted, deliberately slow password hash (PBKDF2 with HMAC-SHA256).
+ * <p>
+ * The text form, as stored in the password column of {@code customers.csv}, is
+ * <pre>
+ *   pbkdf2-sha256$iterations$salt$hash
+ * </pre>
+ * with salt and hash in unpadded Base64. {@link #matches(String)} compares in constant time, so
+ * the time a check takes says nothing about how much of the password was right.
+ */
+public final class PasswordHash {
+
+    public static final String ALGORITHM = "pbkdf2-sha256";
+    // OWASP's current recommendation for PBKDF2-HMAC-SHA256
+    public static final int DEFAULT_ITERATIONS = 600_000;
+
+    private static final String PREFIX = ALGORITHM + "$";
+    private static final int SALT_LENGTH = 16;
+    private static final int HASH_LENGTH = 32;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final int iterations;
+    private final byte[] salt;
+    private final byte[] hash;
+
+    private PasswordHash(int iterations, byte[] salt, byte[] hash) {
+        this.iterations = iterations;
+        this.salt = salt;
+        this.hash = hash;
+    }
+
+    public static PasswordHash create(String password) {
+        return create(password, DEFAULT_ITERATIONS);
+    }
+
+    /**
+     * Hashes the password with a fresh random salt.
+     */
+    public static PasswordHash create(String password, int iterations) {
+        if (password == null) throw new IllegalArgumentException("password is null");
+        if (iterations < 1) throw new IllegalArgumentException("iterations must be positive: " + iterations);
+        var salt = new byte[SALT_LENGTH];
+        RANDOM.nextBytes(salt);
+        return new PasswordHash(iterations, salt, derive(password, salt, iterations));
+    }
+
+    /**
+     * Whether the text is in the form written by {@link #encode()}, as opposed to a plaintext password.
+     */
+    public static boolean isEncoded(String text) {
+        return text != null && text.startsWith(PREFIX);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the text is not in the form written by {@link #encode()}
+     */
+    public static PasswordHash parse(String text) {
+        if (!isEncoded(text)) {
+            throw new IllegalArgumentException("Not a " + ALGORITHM + " password hash");
+        }
+        String[] parts = text.substring(PREFIX.length()).split("\\$", -1);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Malformed " + ALGORITHM + " password hash");
+        }
+        try {
+            int iterations = Integer.parseInt(parts[0]);
+            byte[] salt = Base64.getDecoder().decode(parts[1]);
+            byte[] hash = Base64.getDecoder().decode(parts[2]);
+            if (iterations < 1 || salt.length == 0 || hash.length != HASH_LENGTH) {
+                throw new IllegalArgumentException("Malformed " + ALGORITHM + " password hash");
+            }
+            return new PasswordHash(iterations, salt, hash);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed " + ALGORITHM + " password hash", e);
+        }
+    }
+
+    public boolean matches(String password) {
+        return password != null && MessageDigest.isEqual(hash, derive(password, salt, iterations));
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public String encode() {
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return PREFIX + iterations + "$" + base64.encodeToString(salt) + "$" + base64.encodeToString(hash);
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) {
+        var spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_LENGTH * 8);
+        try {
+            return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2WithHmacSHA256 is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        PasswordHash that = (PasswordHash) o;
+        return iterations == that.iterations && Arrays.equals(salt, that.salt) && Arrays.equals(hash, that.hash);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(salt) + Arrays.hashCode(hash);
+    }
+
+    @Override
+    public String toString() {
+        return "PasswordHash{" + ALGORITHM + ", iterations=" + iterations + '}';
+    }
+}
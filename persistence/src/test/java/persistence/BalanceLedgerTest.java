@@ -0,0 +1,85 @@
+// BalanceLedgerTest.java
+package food.data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BalanceLedgerTest {
+
+    @Test
+    void shouldDebitOnlyWhatTheBalanceCovers() {
+        // Given
+        ByteBuffer segment = BalanceLedger.inMemory(16).segment(1);
+        BalanceLedger.set(segment, 3, 1000L);
+
+        // When
+        boolean debited = BalanceLedger.tryDebit(segment, 3, 600L);
+        boolean overdrawn = BalanceLedger.tryDebit(segment, 3, 600L);
+
+        // Then
+        assertThat(debited).isTrue();
+        assertThat(overdrawn).isFalse();
+        assertThat(BalanceLedger.get(segment, 3)).isEqualTo(400L);
+        assertThat(BalanceLedger.credit(segment, 3, 100L)).isEqualTo(500L);
+        assertThat(BalanceLedger.get(segment, 2)).isZero();
+        assertThatThrownBy(() -> BalanceLedger.tryDebit(segment, 3, -1L)).isInstanceOf(IllegalArgumentException.class);
+        BalanceLedger.set(segment, 3, Long.MAX_VALUE);
+        assertThatThrownBy(() -> BalanceLedger.credit(segment, 3, 1L)).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void shouldNeverOverdrawUnderConcurrentDebits() throws Exception {
+        // Given
+        ByteBuffer segment = BalanceLedger.inMemory(16).segment(0);
+        BalanceLedger.set(segment, 0, 1000L);
+        var successes = new AtomicInteger();
+
+        // When
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            IntStream.range(0, 5000).forEach(i -> executor.submit(() -> {
+                if (BalanceLedger.tryDebit(segment, 0, 3L)) {
+                    successes.incrementAndGet();
+                }
+            }));
+        }
+
+        // Then
+        assertThat(successes.get()).isEqualTo(333);
+        assertThat(BalanceLedger.get(segment, 0)).isEqualTo(1L);
+    }
+
+    @Test
+    void shouldRestoreMappedBalancesOnlyAfterCleanClose(@TempDir Path tempDir) {
+        // Given
+        Path file = tempDir.resolve(BalanceLedger.FILE_NAME);
+        BalanceLedger ledger = BalanceLedger.map(file, 16);
+        BalanceLedger.set(ledger.segment(2), 5, 4200L);
+        ledger.close(40, 77L);
+
+        // When
+        BalanceLedger restored = BalanceLedger.map(file, 16);
+        long balance = BalanceLedger.get(restored.segment(2), 5);
+        restored.close();
+        BalanceLedger afterUncleanClose = BalanceLedger.map(file, 16);
+
+        // Then
+        assertThat(ledger.restoredRows()).isEqualTo(-1L);
+        assertThat(restored.restoredRows()).isEqualTo(40L);
+        assertThat(restored.restoredFingerprint()).isEqualTo(77L);
+        assertThat(balance).isEqualTo(4200L);
+        assertThat(afterUncleanClose.restoredRows()).isEqualTo(-1L);
+        afterUncleanClose.close(40, 77L);
+        try (BalanceLedger resized = BalanceLedger.map(file, 32)) {
+            assertThat(resized.restoredRows()).isEqualTo(-1L);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+// CartTest.java
+package food.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CartTest {
+
+    private final Food pizza = new Food.Builder().name("Pizza").price(new BigDecimal("10.00")).build();
+    private final Food burger = new Food.Builder().name("Burger").price(new BigDecimal("8.50")).build();
+    private final Food salad = new Food.Builder().name("Salad").price(new BigDecimal("7.25")).build();
+
+    @Test
+    void shouldReplaceItemInPlace() {
+        // Given
+        Cart cart = Cart.getEmptyCart();
+        cart.putItem(new OrderItem(pizza, 1, 1000L));
+        cart.putItem(new OrderItem(burger, 1, 850L));
+        cart.putItem(new OrderItem(salad, 1, 725L));
+
+        // When
+        OrderItem previous = cart.putItem(new OrderItem(burger, 3, 2550L));
+
+        // Then
+        assertThat(previous.getPieces()).isEqualTo(1);
+        assertThat(cart.getOrderItems())
+                .extracting(item -> item.getFood().getName(), OrderItem::getPieces)
+                .containsExactly(tuple("Pizza", 1), tuple("Burger", 3), tuple("Salad", 1));
+    }
+
+    @Test
+    void shouldFindAndRemoveItemsByFood() {
+        // Given
+        Cart cart = Cart.getEmptyCart();
+        cart.putItem(new OrderItem(pizza, 2, 2000L));
+
+        // When & Then
+        assertThat(cart.getItem(pizza).getPieces()).isEqualTo(2);
+        assertThat(cart.getItem(burger)).isNull();
+        assertThat(cart.removeItem(burger)).isNull();
+        assertThat(cart.removeItem(pizza).getPieces()).isEqualTo(2);
+        assertThat(cart.isEmpty()).isTrue();
+    }
+
+    @Test
+    void shouldKeyCataloguedItemsByFoodId() {
+        // Given
+        Cart cart = Cart.getEmptyCart();
+        Food catalogued = new Food.Builder().id(4).name("Pizza").price(new BigDecimal("12.00")).build();
+        Food repriced = new Food.Builder().id(4).name("Pizza").price(new BigDecimal("13.00")).build();
+        cart.putItem(new OrderItem(catalogued, 2, 2400L));
+
+        // When
+        OrderItem previous = cart.putItem(new OrderItem(repriced, 1, 1300L));
+
+        // Then
+        assertThat(previous.getPieces()).isEqualTo(2);
+        assertThat(cart.size()).isEqualTo(1);
+        assertThat(cart.getItem(catalogued).getFood()).isSameAs(repriced);
+        assertThat(cart.getItem(pizza)).isNull();
+    }
+
+    @Test
+    void shouldExposeItemsAsSnapshot() {
+        // Given
+        Cart cart = Cart.getEmptyCart();
+        cart.putItem(new OrderItem(pizza, 1, 1000L));
+        cart.setPriceMinor(1000L);
+        List<OrderItem> snapshot = cart.getOrderItems();
+
+        // When
+        cart.clear();
+
+        // Then
+        assertThat(snapshot).hasSize(1);
+        assertThat(cart.getOrderItems()).isEmpty();
+        assertThat(cart.getPriceMinor()).isZero();
+        assertThatThrownBy(() -> snapshot.add(new OrderItem(burger, 1, 850L)))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+}
@@ -0,0 +1,85 @@
+// CsvCursorTest.java
+package food.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CsvCursorTest {
+
+    private static CsvCursor cursor(String content, int bufferSize) {
+        var input = new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+        return new CsvCursor(Channels.newChannel(input), bufferSize);
+    }
+
+    private static List<String> readAll(CsvCursor cursor) {
+        List<String> rows = new ArrayList<>();
+        while (cursor.next()) {
+            rows.add(cursor.row().toString());
+        }
+        return rows;
+    }
+
+    @Test
+    void shouldReadLinesLongerThanBuffer() {
+        // Given
+        String longLine = "x".repeat(100) + ",1";
+
+        // When
+        List<String> rows = readAll(cursor("a,1\n" + longLine + "\nb,2", 8));
+
+        // Then
+        assertThat(rows).containsExactly("a,1", longLine, "b,2");
+    }
+
+    @Test
+    void shouldSkipBlankLinesAndHandleCrLf() {
+        // When
+        List<String> rows = readAll(cursor("a,1\r\n\r\n\nb,2\r\n", 16));
+
+        // Then
+        assertThat(rows).containsExactly("a,1", "b,2");
+    }
+
+    @Test
+    void shouldKeepQuotedCommasInOneField() {
+        // Given
+        CsvCursor cursor = cursor("Dish,\"cheese, tomato\",1.50", 16);
+
+        // When
+        assertThat(cursor.next()).isTrue();
+        CsvRow row = cursor.row();
+
+        // Then
+        assertThat(row.size()).isEqualTo(3);
+        assertThat(row.getString(1)).isEqualTo("\"cheese, tomato\"");
+        assertThat(row.getBigDecimal(2)).isEqualTo(new BigDecimal("1.50"));
+        assertThat(cursor.next()).isFalse();
+    }
+
+    @Test
+    void shouldParseNumbersWithoutCopying() {
+        // Given
+        CsvCursor cursor = cursor("-42,0.05,1e3,ä", 64);
+
+        // When
+        assertThat(cursor.next()).isTrue();
+        CsvRow row = cursor.row();
+
+        // Then
+        assertThat(row.getLong(0)).isEqualTo(-42L);
+        assertThat(row.getBigDecimal(1)).isEqualTo(new BigDecimal("0.05"));
+        assertThat(row.getBigDecimal(2)).isEqualTo(new BigDecimal("1e3"));
+        assertThat(row.getMoney(1)).isEqualTo(5L);
+        assertThat(row.getMoney(2)).isEqualTo(100_000L);
+        assertThat(row.getString(3)).isEqualTo("ä");
+        assertThatThrownBy(() -> row.getLong(3)).isInstanceOf(NumberFormatException.class);
+    }
+}
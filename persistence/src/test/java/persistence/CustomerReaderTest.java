@@ -3,6 +3,7 @@
 package food.data;
 
 import food.domain.Customer;
+import food.values.PasswordHash;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -47,7 +48,7 @@ class CustomerReaderTest {
         assertThat(firstCustomer.getId()).isEqualTo(1L);
         assertThat(firstCustomer.getName()).isEqualTo("John Doe");
         assertThat(firstCustomer.getBalance()).isEqualByComparingTo(new BigDecimal("100.50"));
-        assertThat(firstCustomer.getCart()).isNotNull();
+        assertThat(firstCustomer.getCart()).isNull();
 
         Customer secondCustomer = customers.get(1);
         assertThat(secondCustomer.getUserName()).isEqualTo("jane_smith");
@@ -87,4 +88,37 @@ class CustomerReaderTest {
         assertThat(customer.getId()).isEqualTo(999L);
         assertThat(customer.getBalance()).isEqualByComparingTo(new BigDecimal("1000.00"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldStreamCustomers(@TempDir Path tempDir) throws IOException {
+        // Given
+        Path customerFile = tempDir.resolve("customers.csv");
+        Files.writeString(customerFile, "a,pa,1,A,1.00\nb,pb,2,B,2.00\n");
+
+        // When
+        List<Long> ids;
+        try (var customers = customerReader.stream(customerFile.toString())) {
+            ids = customers.map(Customer::getId).toList();
+        }
+
+        // Then
+        assertThat(ids).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void shouldReadPasswordHashes(@TempDir Path tempDir) throws IOException {
+        // Given
+        Path customerFile = tempDir.resolve("customers.csv");
+        String hash = PasswordHash.create("password123", 1000).encode();
+        Files.writeString(customerFile, "john_doe," + hash + ",1,John Doe,100.50\njane_smith,secret456,2,Jane Smith,250.75\n");
+
+        // When
+        List<Customer> customers = customerReader.read(customerFile.toString());
+
+        // Then
+        assertThat(customers.get(0).getPassword()).isNull();
+        assertThat(customers.get(0).getPasswordHash().matches("password123")).isTrue();
+        assertThat(customers.get(1).getPasswordHash()).isNull();
+        assertThat(customers.get(1).getPassword()).isEqualTo("secret456");
+    }
+}
@@ -0,0 +1,133 @@
+// CustomerTableTest.java
+package food.data;
+
+import food.domain.Cart;
+import food.domain.Customer;
+import food.values.PasswordHash;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CustomerTableTest {
+
+    private static CustomerTable table(Path folder, String content) throws IOException {
+        Path file = folder.resolve("customers.csv");
+        Files.writeString(file, content);
+        return CustomerTable.read(file.toString());
+    }
+
+    @Test
+    void shouldReadCustomersIntoColumns(@TempDir Path tempDir) throws IOException {
+        // Given
+        String hash = PasswordHash.create("secret456", 1000).encode();
+
+        // When
+        CustomerTable table = table(tempDir, """
+                john_doe,password123,1,John Doe,100.50
+                jane_smith,%s,2,Jane Smith,250.75
+                """.formatted(hash));
+
+        // Then
+        assertThat(table.customers()).hasSize(2);
+        Customer john = table.findByUserName("john_doe").orElseThrow();
+        assertThat(john.getId()).isEqualTo(1L);
+        assertThat(john.getName()).isEqualTo("John Doe");
+        assertThat(john.getPassword()).isEqualTo("password123");
+        assertThat(john.getPasswordHash()).isNull();
+        assertThat(john.getBalanceMinor()).isEqualTo(10050L);
+        assertThat(john.getCart()).isNull();
+        Customer jane = table.findById(2L).orElseThrow();
+        assertThat(jane.getPassword()).isNull();
+        assertThat(jane.getPasswordHash().matches("secret456")).isTrue();
+        assertThat(table.plaintextPasswords()).isEqualTo(1);
+        assertThat(table.findById(3L)).isEmpty();
+        assertThat(table.findByUserName("nobody")).isEmpty();
+    }
+
+    @Test
+    void shouldShareStateBetweenViewsOfOneRow(@TempDir Path tempDir) throws IOException {
+        // Given
+        CustomerTable table = table(tempDir, "john_doe,password123,1,John Doe,100.50\n");
+        Customer first = table.findById(1L).orElseThrow();
+
+        // When
+        first.setBalanceMinor(5000L);
+        first.setCart(Cart.getEmptyCart());
+        first.setName("Johnny");
+        first.tryHold(1500L);
+        Customer second = table.findByUserName("john_doe").orElseThrow();
+
+        // Then
+        assertThat(second).isNotSameAs(first).isEqualTo(first);
+        assertThat(second.getBalanceMinor()).isEqualTo(5000L);
+        assertThat(second.getCart()).isSameAs(first.getCart());
+        assertThat(second.getName()).isEqualTo("Johnny");
+        assertThat(second.getHeldMinor()).isEqualTo(1500L);
+        assertThat(second.tryHold(4000L)).isFalse();
+        assertThat(table.customers().get(0).getBalance()).isEqualByComparingTo("50.00");
+    }
+
+    @Test
+    void shouldReindexRenamedCustomer(@TempDir Path tempDir) throws IOException {
+        // Given
+        CustomerTable table = table(tempDir, """
+                john_doe,password123,1,John Doe,100.50
+                jane_smith,secret456,2,Jane Smith,250.75
+                """);
+        Customer john = table.findById(1L).orElseThrow();
+
+        // When
+        john.setUserName("johnny");
+
+        // Then
+        assertThat(table.findByUserName("john_doe")).isEmpty();
+        assertThat(table.findByUserName("johnny")).contains(john);
+        assertThatThrownBy(() -> john.setUserName("jane_smith"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("jane_smith");
+    }
+
+    @Test
+    void shouldCopySavedCustomersIntoRows(@TempDir Path tempDir) throws IOException {
+        // Given
+        CustomerTable table = table(tempDir, "john_doe,password123,1,John Doe,100.50\n");
+        Customer replacement = new Customer.Builder().id(1L).userName("john").password("pw").name("John")
+                .balanceMinor(700L).build();
+
+        // When
+        table.save(replacement);
+        for (long id = 2; id <= 2 * CustomerTable.CHUNK_SIZE; id++) {
+            table.save(new Customer.Builder().id(id).userName("user" + id).name("Same Name").build());
+        }
+
+        // Then
+        assertThat(table.customers()).hasSize(2 * CustomerTable.CHUNK_SIZE);
+        assertThat(table.findByUserName("john_doe")).isEmpty();
+        Customer john = table.findByUserName("john").orElseThrow();
+        assertThat(john).isEqualTo(replacement);
+        assertThat(john.getBalanceMinor()).isEqualTo(700L);
+        assertThat(table.findByUserName("user" + 2 * CustomerTable.CHUNK_SIZE).orElseThrow().getId())
+                .isEqualTo(2L * CustomerTable.CHUNK_SIZE);
+        assertThatThrownBy(() -> table.save(new Customer.Builder().id(99_999L).userName("john").build()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldIndexOnlyFirstOfDuplicateRows(@TempDir Path tempDir) throws IOException {
+        // When
+        CustomerTable table = table(tempDir, """
+                john_doe,password123,1,John Doe,100.50
+                john_doe,other,2,John Again,1.00
+                """);
+
+        // Then
+        assertThat(table.customers()).hasSize(2);
+        assertThat(table.findByUserName("john_doe").orElseThrow().getId()).isEqualTo(1L);
+        assertThat(table.findById(2L)).isEmpty();
+    }
+}
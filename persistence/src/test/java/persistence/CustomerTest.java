@@ -0,0 +1,133 @@
+// CustomerTest.java
+package food.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CustomerTest {
+
+    private final Food pizza = new Food.Builder().name("Pizza").price(new BigDecimal("10.00")).build();
+
+    private Order order(long orderId) {
+        return new Order(orderId, 1L, List.of(new OrderItem(pizza, 1, 1000L)), 1000L, LocalDateTime.of(2025, 1, 15, 12, 0));
+    }
+
+    private Customer john() {
+        return new Customer.Builder().id(1L).userName("john_doe").password("password123").name("John Doe")
+                .balance(new BigDecimal("100.00")).cart(Cart.getEmptyCart()).build();
+    }
+
+    @Test
+    void shouldCompareByIdentityOnly() {
+        // Given
+        Customer customer = john();
+        Customer sameCustomer = john();
+
+        // When
+        sameCustomer.setBalanceMinor(0L);
+        sameCustomer.getOrderHistory().append(order(0L));
+        sameCustomer.getCart().putItem(new OrderItem(pizza, 2, 2000L));
+
+        // Then
+        assertThat(sameCustomer).isEqualTo(customer).hasSameHashCodeAs(customer);
+        assertThat(new Customer.Builder().id(2L).userName("john_doe").build()).isNotEqualTo(customer);
+    }
+
+    @Test
+    void shouldDebitOnlyWhatTheBalanceCovers() {
+        // Given
+        Customer customer = john();
+
+        // When
+        boolean debited = customer.tryDebit(6000L);
+        boolean overdrawn = customer.tryDebit(6000L);
+
+        // Then
+        assertThat(debited).isTrue();
+        assertThat(overdrawn).isFalse();
+        assertThat(customer.getBalanceMinor()).isEqualTo(4000L);
+        assertThat(customer.credit(1000L)).isEqualTo(5000L);
+        assertThatThrownBy(() -> customer.credit(-1L)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldHoldOnlyWhatTheBalanceLessHoldsCovers() {
+        // Given
+        Customer customer = john();
+
+        // When
+        boolean held = customer.tryHold(6000L);
+        boolean overheld = customer.tryHold(6000L);
+        boolean debitedPastHold = customer.tryDebit(6000L);
+
+        // Then
+        assertThat(held).isTrue();
+        assertThat(overheld).isFalse();
+        assertThat(debitedPastHold).isTrue();
+        assertThat(customer.getBalanceMinor()).isEqualTo(4000L);
+        customer.release(6000L);
+        assertThat(customer.getHeldMinor()).isZero();
+        assertThatThrownBy(() -> customer.release(1L)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> customer.tryHold(-1L)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldNotPrintOrdersOrCart() {
+        // Given
+        Customer customer = john();
+        customer.getOrderHistory().append(order(0L));
+
+        // When
+        String text = customer.toString();
+
+        // Then
+        assertThat(text).contains("id=1", "userName='john_doe'", "orders=1").doesNotContain("Pizza", "password123");
+        assertThat(new Credentials("john_doe", "password123").toString()).doesNotContain("password123");
+    }
+
+    @Test
+    void shouldPageThroughOrderHistoryView() {
+        // Given
+        Customer customer = john();
+        LongStream.range(0, 150).forEach(id -> customer.getOrderHistory().append(order(id)));
+
+        // When
+        List<Order> orders = customer.getOrders();
+
+        // Then
+        assertThat(orders).hasSize(150);
+        assertThat(orders.get(149).getOrderId()).isEqualTo(149L);
+        assertThat(orders).extracting(Order::getOrderId).startsWith(0L, 1L).endsWith(148L, 149L);
+        assertThatThrownBy(() -> orders.add(order(150L))).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> orders.get(150)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void shouldReadHistoryPagesWhileAppending() throws InterruptedException {
+        // Given
+        OrderHistory history = john().getOrderHistory();
+        Thread writer = Thread.ofPlatform().start(
+                () -> LongStream.range(0, 10_000).forEach(id -> history.append(order(id))));
+
+        // When
+        while (writer.isAlive()) {
+            int size = history.size();
+            List<Order> page = history.page(Math.max(0, size - 64), 64);
+
+            // Then
+            for (int i = 0; i < page.size(); i++) {
+                assertThat(page.get(i).getOrderId()).isEqualTo(Math.max(0, size - 64) + i);
+            }
+        }
+        writer.join();
+        assertThat(history.size()).isEqualTo(10_000);
+        assertThat(history.page(10_000, 64)).isEmpty();
+        assertThatThrownBy(() -> history.page(10_001, 64)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+}
@@ -7,11 +7,21 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -39,6 +49,16 @@ class FileDataStoreTest {
         Files.writeString(customersFile, content);
     }
 
+    private void copyInputFiles(Path folder) {
+        try {
+            Files.createDirectories(folder);
+            Files.copy(tempDir.resolve("customers.csv"), folder.resolve("customers.csv"));
+            Files.copy(tempDir.resolve("foods.csv"), folder.resolve("foods.csv"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     private void createTestFoodsFile() throws IOException {
         Path foodsFile = tempDir.resolve("foods.csv");
         String content = """
@@ -241,4 +261,766 @@ class FileDataStoreTest {
                 .anyMatch(customer -> customer.getOrders().contains(order));
         assertThat(orderFoundInCustomers).isFalse();
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldFindCustomersByUserNameAndId() {
+        // Given
+        dataStore.init();
+
+        // When & Then
+        assertThat(dataStore.findCustomerByUserName("jane_smith"))
+                .hasValueSatisfying(c -> assertThat(c.getId()).isEqualTo(2L));
+        assertThat(dataStore.findCustomerById(1L))
+                .hasValueSatisfying(c -> assertThat(c.getUserName()).isEqualTo("john_doe"));
+        assertThat(dataStore.findCustomerByUserName("nobody")).isEmpty();
+        assertThat(dataStore.findCustomerById(999L)).isEmpty();
+    }
+
+    @Test
+    void shouldIndexSavedCustomers() {
+        // Given
+        dataStore.init();
+        Customer newCustomer = new Customer.Builder()
+                .userName("new_user")
+                .password("pw")
+                .id(3L)
+                .name("New User")
+                .balance(new BigDecimal("10.00"))
+                .cart(Cart.getEmptyCart())
+                .build();
+
+        // When
+        dataStore.saveCustomer(newCustomer);
+
+        // Then
+        assertThat(dataStore.getCustomers()).hasSize(3);
+        assertThat(dataStore.findCustomerByUserName("new_user")).containsSame(newCustomer);
+        assertThat(dataStore.findCustomerById(3L)).containsSame(newCustomer);
+    }
+
+    @Test
+    void shouldReindexRenamedCustomer() {
+        // Given
+        dataStore.init();
+        Customer john = dataStore.findCustomerById(1L).orElseThrow();
+
+        // When
+        john.setUserName("johnny");
+        dataStore.saveCustomer(john);
+
+        // Then
+        assertThat(dataStore.findCustomerByUserName("johnny")).containsSame(john);
+        assertThat(dataStore.findCustomerByUserName("john_doe")).isEmpty();
+        assertThat(dataStore.getCustomers()).hasSize(2);
+    }
+
+    @Test
+    void shouldRejectUserNameOfAnotherCustomer() {
+        // Given
+        dataStore.init();
+        Customer john = dataStore.findCustomerById(1L).orElseThrow();
+
+        // When
+        john.setUserName("jane_smith");
+
+        // Then
+        assertThatThrownBy(() -> dataStore.saveCustomer(john))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("jane_smith");
+    }
+
+    @Test
+    void shouldAssignUniqueIdsUnderConcurrentOrders() throws Exception {
+        // Given
+        dataStore.init();
+        Food pizza = dataStore.getFoods().get(0);
+        int threads = 8;
+        int ordersPerThread = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // When
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long customerId = t % 2 + 1;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < ordersPerThread; i++) {
+                    dataStore.createOrder(new Order(null, customerId,
+                            List.of(new OrderItem(pizza, 1, pizza.getPrice())), pizza.getPrice(), LocalDateTime.now()));
+                }
+            }));
+        }
+        for (var future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        int total = threads * ordersPerThread;
+        assertThat(dataStore.getOrders()).extracting(Order::getOrderId)
+                .containsExactlyElementsOf(LongStream.range(0, total).boxed().toList());
+        assertThat(dataStore.findCustomerById(1L).orElseThrow().getOrders()).hasSize(total / 2);
+        assertThat(dataStore.findCustomerById(2L).orElseThrow().getOrders()).hasSize(total / 2);
+        assertThat(Files.readAllLines(tempDir.resolve("orders.csv"))).hasSize(total);
+    }
+
+    @Test
+    void shouldContinueOrderIdsFromExistingJournal() throws IOException {
+        // Given
+        Files.writeString(tempDir.resolve("orders.csv"), """
+                40,1,Pizza,1,12.99,15/01/2025 14:30,12.99
+                41,2,Burger,1,8.50,15/01/2025 14:31,8.50""");
+        dataStore.init();
+        Food pizza = dataStore.getFoods().get(0);
+
+        // When
+        Order createdOrder = dataStore.createOrder(new Order(null, 1L,
+                List.of(new OrderItem(pizza, 1, pizza.getPrice())), pizza.getPrice(), LocalDateTime.now()));
+
+        // Then
+        assertThat(createdOrder.getOrderId()).isEqualTo(42L);
+    }
+
+    @Test
+    void shouldLookUpFoodsByCatalogId() {
+        // Given
+        dataStore.init();
+
+        // When
+        Food burger = dataStore.findFoodById(1).orElseThrow();
+
+        // Then
+        assertThat(burger.getName()).isEqualTo("Burger");
+        assertThat(burger).isSameAs(dataStore.getFoods().get(1));
+        assertThat(dataStore.findFoodById(2)).isEmpty();
+    }
+
+    @Test
+    void shouldReplayJournalOnRestart() {
+        // Given
+        dataStore.init();
+        Food pizza = dataStore.getFoods().get(0);
+        Food burger = dataStore.getFoods().get(1);
+        dataStore.createOrder(new Order(null, 1L, List.of(new OrderItem(pizza, 1, pizza.getPriceMinor())),
+                pizza.getPriceMinor(), LocalDateTime.of(2025, 1, 15, 14, 30)));
+        dataStore.createOrder(new Order(null, 1L, List.of(new OrderItem(burger, 2, 1700L)),
+                1700L, LocalDateTime.of(2025, 1, 15, 14, 31)));
+        dataStore.close();
+
+        // When
+        var restarted = new FileDataStore(tempDir.toString());
+        restarted.init();
+
+        // Then
+        assertThat(restarted.getOrders()).extracting(Order::getOrderId).containsExactly(0L, 1L);
+        Customer john = restarted.findCustomerById(1L).orElseThrow();
+        assertThat(john.getOrders()).extracting(Order::getOrderId).containsExactly(0L, 1L);
+        assertThat(john.getBalanceMinor()).isEqualTo(10050L - 1299L - 1700L);
+        assertThat(john.getOrders().get(1).getOrderItems().get(0).getFood()).isSameAs(restarted.getFoods().get(1));
+        assertThat(restarted.getLastReplay().orders()).isEqualTo(2);
+        assertThat(restarted.createOrder(new Order(null, 2L, List.of(new OrderItem(burger, 1, 850L)), 850L,
+                LocalDateTime.now())).getOrderId()).isEqualTo(2L);
+        assertThatThrownBy(() -> restarted.createOrder(new Order(null, 2L, List.of(), 0L, LocalDateTime.now())))
+                .isInstanceOf(IllegalArgumentException.class);
+        restarted.close();
+    }
+
+    @Test
+    void shouldCutTornRecordOffJournalOnReplay() throws IOException {
+        // Given
+        Files.writeString(tempDir.resolve("orders.csv"), """
+                0,1,Pizza,1,12.99,15/01/2025 14:30,21.49
+                0,1,Burger,1,8.50,15/01/2025 14:30,21.49
+                1,2,Pizza,1,12.99,15/01/2025 14:31,21.49
+                1,2,Bur""");
+
+        // When
+        dataStore.init();
+
+        // Then
+        assertThat(dataStore.getOrders()).extracting(Order::getOrderId).containsExactly(0L);
+        assertThat(dataStore.getLastReplay().discardedBytes()).isPositive();
+        assertThat(dataStore.findCustomerById(2L).orElseThrow().getOrders()).isEmpty();
+        Food pizza = dataStore.getFoods().get(0);
+        Order next = dataStore.createOrder(new Order(null, 2L, List.of(new OrderItem(pizza, 1, pizza.getPriceMinor())),
+                pizza.getPriceMinor(), LocalDateTime.of(2025, 1, 15, 14, 32)));
+        assertThat(next.getOrderId()).isEqualTo(1L);
+        assertThat(Files.readAllLines(tempDir.resolve("orders.csv"))).containsExactly(
+                "0,1,Pizza,1,12.99,15/01/2025 14:30,21.49",
+                "0,1,Burger,1,8.50,15/01/2025 14:30,21.49",
+                "1,2,Pizza,1,12.99,15/01/2025 14:32,12.99");
+    }
+
+    @Test
+    void shouldReplayBinaryJournal() {
+        // Given
+        var binaryStore = new FileDataStore.Builder(tempDir.toString()).orderLogFormat(OrderLogFormat.BINARY).build();
+        binaryStore.init();
+        Food pizza = binaryStore.getFoods().get(0);
+        binaryStore.createOrder(new Order(null, 2L, List.of(new OrderItem(pizza, 1, pizza.getPriceMinor())),
+                pizza.getPriceMinor(), LocalDateTime.of(2025, 1, 15, 14, 30)));
+        binaryStore.close();
+
+        // When
+        binaryStore.init();
+
+        // Then
+        assertThat(tempDir.resolve("orders.log")).exists();
+        assertThat(binaryStore.findCustomerById(2L).orElseThrow().getBalanceMinor()).isEqualTo(25075L - 1299L);
+        assertThat(binaryStore.getOrders()).hasSize(1);
+        binaryStore.close();
+    }
+
+    @Test
+    void shouldReadBinaryJournalAfterMenuEdit() throws IOException {
+        // Given
+        var binaryStore = new FileDataStore.Builder(tempDir.toString()).orderLogFormat(OrderLogFormat.BINARY).build();
+        binaryStore.init();
+        pizzaOrder(binaryStore, 1L);
+        Food burger = binaryStore.getFoods().get(1);
+        binaryStore.createOrder(new Order(null, 2L, List.of(new OrderItem(burger, 2, 1700L)), 1700L,
+                LocalDateTime.of(2025, 1, 15, 14, 30)));
+        binaryStore.close();
+
+        // When: pizza leaves the menu and the remaining foods move
+        Files.writeString(tempDir.resolve("foods.csv"), "Soup,120,Hot soup,4.00\nBurger,450,Tasty burger,9.00\n");
+        binaryStore.init();
+
+        // Then
+        assertThat(binaryStore.getOrders()).hasSize(2);
+        assertThat(binaryStore.findCustomerById(1L).orElseThrow().getOrders().get(0).getOrderItems())
+                .extracting(item -> item.getFood().getName(), OrderItem::getPriceMinor)
+                .containsExactly(tuple("Pizza", 1299L));
+        assertThat(binaryStore.findCustomerById(2L).orElseThrow().getOrders().get(0).getOrderItems())
+                .extracting(item -> item.getFood().getName(), OrderItem::getPieces)
+                .containsExactly(tuple("Burger", 2));
+        assertThat(binaryStore.findCustomerById(2L).orElseThrow().getBalanceMinor()).isEqualTo(25075L - 1700L);
+        binaryStore.close();
+    }
+
+    private Order pizzaOrder(FileDataStore store, long customerId) {
+        Food pizza = store.getFoods().get(0);
+        return store.createOrder(new Order(null, customerId, List.of(new OrderItem(pizza, 1, pizza.getPriceMinor())),
+                pizza.getPriceMinor(), LocalDateTime.of(2025, 1, 15, 14, 30)));
+    }
+
+    @Test
+    void shouldReplayJournalIntoColumnarCustomers() {
+        // Given
+        dataStore.init();
+        pizzaOrder(dataStore, 1L);
+        dataStore.snapshot();
+        pizzaOrder(dataStore, 1L);
+        dataStore.close();
+
+        // When
+        var columnar = new FileDataStore.Builder(tempDir.toString()).fsyncInterval(Duration.ofMillis(5))
+                .snapshotInterval(Duration.ZERO).customerStorage(CustomerStorage.COLUMNAR).build();
+        columnar.init();
+
+        // Then
+        Customer john = columnar.findCustomerByUserName("john_doe").orElseThrow();
+        assertThat(john.getBalanceMinor()).isEqualTo(10050L - 2 * 1299L);
+        assertThat(john.getOrders()).extracting(Order::getOrderId).containsExactly(0L, 1L);
+        assertThat(columnar.getCustomers()).extracting(Customer::getName).containsExactly("John Doe", "Jane Smith");
+        pizzaOrder(columnar, 1L);
+        assertThat(columnar.findCustomerById(1L).orElseThrow().getOrders()).hasSize(3);
+        columnar.close();
+    }
+
+    @Test
+    void shouldKeepMappedBalancesAcrossCleanRestart() throws IOException {
+        // Given
+        var mapped = new FileDataStore.Builder(tempDir.toString()).fsyncInterval(Duration.ofMillis(5))
+                .snapshotInterval(Duration.ZERO).customerStorage(CustomerStorage.COLUMNAR_MAPPED).build();
+        mapped.init();
+        Customer john = mapped.findCustomerById(1L).orElseThrow();
+        assertThat(john.tryDebit(1299L)).isTrue();
+        pizzaOrder(mapped, 1L);
+        john.credit(500L);
+        mapped.close();
+
+        // When
+        mapped.init();
+
+        // Then
+        assertThat(tempDir.resolve(BalanceLedger.FILE_NAME)).exists();
+        assertThat(mapped.findCustomerById(1L).orElseThrow().getBalanceMinor()).isEqualTo(10050L - 1299L + 500L);
+        assertThat(mapped.findCustomerById(2L).orElseThrow().getBalanceMinor()).isEqualTo(25075L);
+        assertThat(mapped.findCustomerById(1L).orElseThrow().getOrders()).hasSize(1);
+        mapped.close();
+        Files.delete(tempDir.resolve(BalanceLedger.FILE_NAME));
+        mapped.init();
+        assertThat(mapped.findCustomerById(1L).orElseThrow().getBalanceMinor()).isEqualTo(10050L - 1299L);
+        mapped.close();
+    }
+
+    @Test
+    void shouldDiscardMappedBalancesWhenCustomersFileChanges() throws IOException {
+        // Given
+        var mapped = new FileDataStore.Builder(tempDir.toString()).fsyncInterval(Duration.ofMillis(5))
+                .snapshotInterval(Duration.ZERO).customerStorage(CustomerStorage.COLUMNAR_MAPPED).build();
+        mapped.init();
+        mapped.findCustomerById(1L).orElseThrow().credit(500L);
+        mapped.close();
+
+        // When: same number of rows, swapped and with a top-up
+        Files.writeString(tempDir.resolve("customers.csv"), """
+                jane_smith,secret456,2,Jane Smith,250.75
+                john_doe,password123,1,John Doe,200.50
+                """);
+        mapped.init();
+
+        // Then
+        assertThat(mapped.findCustomerById(1L).orElseThrow().getBalanceMinor()).isEqualTo(20050L);
+        assertThat(mapped.findCustomerById(2L).orElseThrow().getBalanceMinor()).isEqualTo(25075L);
+        mapped.close();
+    }
+
+    @Test
+    void shouldReplayOnlyJournalTailAfterSnapshot() {
+        // Given
+        dataStore.init();
+        pizzaOrder(dataStore, 1L);
+        pizzaOrder(dataStore, 1L);
+        dataStore.snapshot();
+        pizzaOrder(dataStore, 2L);
+        dataStore.close();
+
+        // When
+        var restarted = new FileDataStore(tempDir.toString());
+        restarted.init();
+
+        // Then
+        assertThat(restarted.getLastReplay().orders()).isEqualTo(1);
+        assertThat(restarted.getOrders()).extracting(Order::getOrderId).containsExactly(2L);
+        assertThat(restarted.findCustomerById(1L).orElseThrow().getBalanceMinor()).isEqualTo(10050L - 2 * 1299L);
+        assertThat(restarted.findCustomerById(2L).orElseThrow().getBalanceMinor()).isEqualTo(25075L - 1299L);
+        assertThat(pizzaOrder(restarted, 2L).getOrderId()).isEqualTo(3L);
+        assertThat(tempDir.resolve("snapshot.bin")).exists();
+        assertThat(tempDir.resolve("archive").resolve("orders-000001.csv")).exists();
+        restarted.close();
+    }
+
+    @Test
+    void shouldKeepIdsFromSnapshotWhenJournalTailIsEmpty() {
+        // Given
+        dataStore.init();
+        pizzaOrder(dataStore, 1L);
+        dataStore.snapshot();
+        dataStore.snapshot(); // nothing new: no empty segment, same snapshot
+        dataStore.close();
+
+        // When
+        dataStore.init();
+
+        // Then
+        assertThat(dataStore.getOrders()).isEmpty();
+        assertThat(pizzaOrder(dataStore, 1L).getOrderId()).isEqualTo(1L);
+        assertThat(tempDir.resolve("archive").resolve("orders-000002.csv")).doesNotExist();
+        dataStore.close();
+    }
+
+    @Test
+    void shouldRebuildFromArchiveWhenSnapshotIsDamaged() throws IOException {
+        // Given
+        dataStore.init();
+        pizzaOrder(dataStore, 1L);
+        dataStore.snapshot();
+        pizzaOrder(dataStore, 1L);
+        dataStore.close();
+        Files.writeString(tempDir.resolve("snapshot.bin"), "garbage");
+
+        // When
+        dataStore.init();
+
+        // Then
+        assertThat(dataStore.getOrders()).extracting(Order::getOrderId).containsExactly(0L, 1L);
+        assertThat(dataStore.findCustomerById(1L).orElseThrow().getBalanceMinor()).isEqualTo(10050L - 2 * 1299L);
+        dataStore.close();
+    }
+
+    @Test
+    void shouldReplaySegmentRotatedBeforeSnapshotWasWritten() throws IOException {
+        // Given
+        dataStore.init();
+        pizzaOrder(dataStore, 1L);
+        dataStore.close();
+        Files.createDirectories(tempDir.resolve("segments"));
+        Files.move(tempDir.resolve("orders.csv"), tempDir.resolve("segments").resolve("orders-000001.csv"));
+
+        // When
+        dataStore.init();
+        pizzaOrder(dataStore, 2L);
+        dataStore.snapshot();
+
+        // Then
+        assertThat(dataStore.getLastReplay().orders()).isEqualTo(1);
+        assertThat(dataStore.findCustomerById(1L).orElseThrow().getBalanceMinor()).isEqualTo(10050L - 1299L);
+        assertThat(tempDir.resolve("archive").resolve("orders-000001.csv")).exists();
+        assertThat(tempDir.resolve("archive").resolve("orders-000002.csv")).exists();
+        assertThat(tempDir.resolve("segments").resolve("orders-000001.csv")).doesNotExist();
+        dataStore.close();
+    }
+
+    @Test
+    void shouldReplayRolledSegmentsInJournalOrder() {
+        // Given
+        var rolling = new FileDataStore.Builder(tempDir.toString()).orderLogFormat(OrderLogFormat.BINARY)
+                .snapshotInterval(Duration.ZERO).rotation(new JournalRotation(64, Duration.ZERO)).build();
+        rolling.init();
+        for (int i = 0; i < 10; i++) {
+            pizzaOrder(rolling, 1L + i % 2);
+        }
+        rolling.close();
+
+        // When
+        rolling.init();
+
+        // Then
+        assertThat(tempDir.resolve("journal.manifest")).exists();
+        assertThat(tempDir.resolve("segments").resolve("orders-000001.log")).exists();
+        assertThat(rolling.getLastReplay().orders()).isEqualTo(10);
+        assertThat(rolling.findCustomerById(1L).orElseThrow().getOrders()).extracting(Order::getOrderId)
+                .containsExactly(0L, 2L, 4L, 6L, 8L);
+        assertThat(pizzaOrder(rolling, 2L).getOrderId()).isEqualTo(10L);
+        rolling.close();
+    }
+
+    @Test
+    void shouldExportOnlyNewOrdersFromBinaryJournal() throws IOException {
+        // Given
+        var binaryStore = new FileDataStore.Builder(tempDir.toString()).orderLogFormat(OrderLogFormat.BINARY).build();
+        binaryStore.init();
+        pizzaOrder(binaryStore, 1L);
+        binaryStore.writeOrders();
+        pizzaOrder(binaryStore, 2L);
+
+        // When
+        binaryStore.writeOrders();
+        binaryStore.writeOrders();
+        binaryStore.close();
+        binaryStore.init();
+        pizzaOrder(binaryStore, 1L);
+        binaryStore.writeOrders();
+        binaryStore.close();
+
+        // Then
+        assertThat(Files.readAllLines(tempDir.resolve("orders.csv"))).extracting(line -> line.substring(0, 4))
+                .containsExactly("0,1,", "1,2,", "2,1,");
+    }
+
+    @Test
+    void shouldCutGarbledTailOffExport() throws IOException {
+        // Given
+        var binaryStore = new FileDataStore.Builder(tempDir.toString()).orderLogFormat(OrderLogFormat.BINARY).build();
+        binaryStore.init();
+        pizzaOrder(binaryStore, 1L);
+        pizzaOrder(binaryStore, 2L);
+        binaryStore.writeOrders();
+        binaryStore.close();
+        Files.writeString(tempDir.resolve("orders.csv"), "1x\u0000,\u0000\n", StandardOpenOption.APPEND);
+
+        // When
+        binaryStore.init();
+        pizzaOrder(binaryStore, 1L);
+        binaryStore.writeOrders();
+        binaryStore.close();
+
+        // Then
+        assertThat(Files.readAllLines(tempDir.resolve("orders.csv"))).extracting(line -> line.substring(0, 4))
+                .containsExactly("0,1,", "1,2,", "2,1,");
+    }
+
+    @Test
+    void shouldExportTornLastOrderAgain() throws IOException {
+        // Given
+        var binaryStore = new FileDataStore.Builder(tempDir.toString()).orderLogFormat(OrderLogFormat.BINARY).build();
+        binaryStore.init();
+        pizzaOrder(binaryStore, 1L);
+        pizzaOrder(binaryStore, 2L);
+        binaryStore.writeOrders();
+        binaryStore.close();
+        Path export = tempDir.resolve("orders.csv");
+        List<String> exported = Files.readAllLines(export);
+        try (var channel = FileChannel.open(export, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(export) - 10);
+        }
+
+        // When
+        binaryStore.init();
+        binaryStore.writeOrders();
+        binaryStore.close();
+
+        // Then
+        assertThat(Files.readAllLines(export)).isEqualTo(exported);
+    }
+
+    @Test
+    void shouldExportOrdersArchivedBeforeExport() throws IOException {
+        // Given
+        var binaryStore = new FileDataStore.Builder(tempDir.toString()).orderLogFormat(OrderLogFormat.BINARY)
+                .snapshotInterval(Duration.ZERO).build();
+        binaryStore.init();
+        pizzaOrder(binaryStore, 1L);
+        binaryStore.writeOrders();
+        pizzaOrder(binaryStore, 2L);
+        pizzaOrder(binaryStore, 1L);
+        binaryStore.snapshot();
+        pizzaOrder(binaryStore, 2L);
+        binaryStore.close();
+
+        // When
+        binaryStore.init();
+        binaryStore.writeOrders();
+        binaryStore.close();
+
+        // Then
+        assertThat(Files.readAllLines(tempDir.resolve("orders.csv"))).extracting(line -> line.substring(0, 4))
+                .containsExactly("0,1,", "1,2,", "2,1,", "3,2,");
+    }
+
+    private Order pizzaOrderAt(long customerId, LocalDateTime created) {
+        Food pizza = dataStore.getFoods().get(0);
+        return dataStore.createOrder(new Order(null, customerId, List.of(new OrderItem(pizza, 1, pizza.getPriceMinor())),
+                pizza.getPriceMinor(), created));
+    }
+
+    @Test
+    void shouldPageThroughCustomerOrdersNewestFirst() {
+        // Given
+        dataStore.init();
+        LocalDateTime start = LocalDateTime.of(2025, 1, 15, 12, 0);
+        for (int i = 0; i < 5; i++) {
+            pizzaOrderAt(1L, start.plusMinutes(i));
+            pizzaOrderAt(2L, start.plusMinutes(i));
+        }
+
+        // When
+        OrderPage first = dataStore.findOrders(OrderQuery.lastOrdersOf(1L, 2));
+        OrderPage second = dataStore.findOrders(new OrderQuery.Builder().customerId(1L).limit(2)
+                .after(first.nextCursor()).build());
+        OrderPage third = dataStore.findOrders(new OrderQuery.Builder().customerId(1L).limit(2)
+                .after(second.nextCursor()).build());
+
+        // Then
+        assertThat(first.orders()).extracting(Order::getOrderId).containsExactly(8L, 6L);
+        assertThat(second.orders()).extracting(Order::getOrderId).containsExactly(4L, 2L);
+        assertThat(third.orders()).extracting(Order::getOrderId).containsExactly(0L);
+        assertThat(third.hasNext()).isFalse();
+    }
+
+    @Test
+    void shouldKeepPagesStableWhileOrdersArrive() {
+        // Given
+        dataStore.init();
+        LocalDateTime start = LocalDateTime.of(2025, 1, 15, 12, 0);
+        for (int i = 0; i < 4; i++) {
+            pizzaOrderAt(1L, start.plusMinutes(i));
+        }
+        OrderPage first = dataStore.findOrders(new OrderQuery.Builder().limit(2).oldestFirst().build());
+
+        // When
+        pizzaOrderAt(1L, start.minusMinutes(1));
+        pizzaOrderAt(1L, start.plusMinutes(10));
+        OrderPage second = dataStore.findOrders(new OrderQuery.Builder().limit(2).oldestFirst()
+                .after(first.nextCursor()).build());
+
+        // Then
+        assertThat(first.orders()).extracting(Order::getOrderId).containsExactly(0L, 1L);
+        assertThat(second.orders()).extracting(Order::getOrderId).containsExactly(2L, 3L);
+        assertThat(second.hasNext()).isTrue();
+    }
+
+    @Test
+    void shouldFindOrdersInTimeWindowAfterReplay() {
+        // Given
+        dataStore.init();
+        LocalDateTime start = LocalDateTime.of(2025, 1, 15, 12, 0);
+        for (int i = 0; i < 6; i++) {
+            pizzaOrderAt(1L + i % 2, start.plusHours(i));
+        }
+        dataStore.close();
+        var restarted = new FileDataStore(tempDir.toString());
+        restarted.init();
+
+        // When
+        OrderPage page = restarted.findOrders(new OrderQuery.Builder()
+                .createdFrom(start.plusHours(1))
+                .createdBefore(start.plusHours(4))
+                .build());
+
+        // Then
+        assertThat(page.orders()).extracting(Order::getOrderId).containsExactly(3L, 2L, 1L);
+        assertThat(page.hasNext()).isFalse();
+        restarted.close();
+    }
+
+    @Test
+    void shouldFindSnapshottedOrdersAfterRestart() {
+        for (OrderLogFormat format : List.of(OrderLogFormat.CSV, OrderLogFormat.BINARY)) {
+            // Given
+            copyInputFiles(tempDir.resolve(format.fileName()));
+            var store = new FileDataStore.Builder(tempDir.resolve(format.fileName()).toString()).orderLogFormat(format)
+                    .snapshotInterval(Duration.ZERO).build();
+            store.init();
+            LocalDateTime start = LocalDateTime.of(2025, 1, 15, 12, 0);
+            Food pizza = store.getFoods().get(0);
+            for (int i = 0; i < 6; i++) {
+                store.createOrder(new Order(null, 1L + i % 2, List.of(new OrderItem(pizza, 1, pizza.getPriceMinor())),
+                        pizza.getPriceMinor(), start.plusHours(i)));
+                if (i == 3) {
+                    store.snapshot();
+                }
+            }
+            store.close();
+
+            // When
+            store.init();
+            OrderPage first = store.findOrders(new OrderQuery.Builder().customerId(1L).limit(2).oldestFirst().build());
+            OrderPage second = store.findOrders(new OrderQuery.Builder().customerId(1L).limit(2).oldestFirst()
+                    .after(first.nextCursor()).build());
+            OrderPage window = store.findOrders(new OrderQuery.Builder()
+                    .createdFrom(start.plusHours(1)).createdBefore(start.plusHours(5)).build());
+
+            // Then
+            assertThat(store.getOrders()).extracting(Order::getOrderId).containsExactly(4L, 5L);
+            assertThat(first.orders()).extracting(Order::getOrderId).containsExactly(0L, 2L);
+            assertThat(first.orders().get(0).getOrderItems().get(0).getFood()).isSameAs(store.getFoods().get(0));
+            assertThat(second.orders()).extracting(Order::getOrderId).containsExactly(4L);
+            assertThat(second.hasNext()).isFalse();
+            assertThat(window.orders()).extracting(Order::getOrderId).containsExactly(4L, 3L, 2L, 1L);
+            store.close();
+        }
+    }
+
+    @Test
+    void shouldRejectInvalidOrderQueries() {
+        // Given
+        dataStore.init();
+
+        // When / Then
+        assertThatThrownBy(() -> new OrderQuery.Builder().limit(0).build())
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> dataStore.findOrders(new OrderQuery.Builder().after("not-a-cursor").build()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid order cursor");
+    }
+
+    @Test
+    void shouldLoadArchivedOrderHistoryOnDemand() {
+        // Given
+        var binaryStore = new FileDataStore.Builder(tempDir.toString()).orderLogFormat(OrderLogFormat.BINARY)
+                .snapshotInterval(Duration.ZERO).build();
+        binaryStore.init();
+        for (int i = 0; i < 6; i++) {
+            pizzaOrder(binaryStore, 1L + i % 2);
+        }
+        binaryStore.snapshot();
+        pizzaOrder(binaryStore, 1L);
+        binaryStore.close();
+
+        // When
+        binaryStore.init();
+        Customer john = binaryStore.findCustomerById(1L).orElseThrow();
+        pizzaOrder(binaryStore, 1L);
+
+        // Then
+        assertThat(binaryStore.getOrders()).extracting(Order::getOrderId).containsExactly(6L, 7L);
+        OrderHistory history = john.getOrderHistory();
+        assertThat(history.size()).isEqualTo(5);
+        assertThat(history.page(1, 3)).extracting(Order::getOrderId).containsExactly(2L, 4L, 6L);
+        assertThat(history.latest(2)).extracting(Order::getOrderId).containsExactly(7L, 6L);
+        assertThat(john.getOrders()).extracting(Order::getOrderId).containsExactly(0L, 2L, 4L, 6L, 7L);
+        assertThat(john.getOrders().get(0).getOrderItems().get(0).getFood()).isSameAs(binaryStore.getFoods().get(0));
+        binaryStore.close();
+    }
+
+    @Test
+    void shouldKeepOrderHistoryOfReplacedCustomer() {
+        // Given
+        dataStore.init();
+        pizzaOrder(dataStore, 1L);
+        Customer john = dataStore.findCustomerById(1L).orElseThrow();
+
+        // When
+        LongStream.range(3, 40).forEach(id -> dataStore.saveCustomer(new Customer.Builder().id(id)
+                .userName("user" + id).password("pw").name("User " + id).build()));
+        Customer johnny = new Customer.Builder().id(1L).userName("johnny").password("password123")
+                .name("John Doe").balanceMinor(john.getBalanceMinor()).build();
+        dataStore.saveCustomer(johnny);
+
+        // Then
+        assertThat(dataStore.findCustomerById(1L).orElseThrow().getOrders()).extracting(Order::getOrderId)
+                .containsExactly(0L);
+        assertThat(dataStore.getCustomers()).hasSize(39).first().isSameAs(johnny);
+        assertThat(dataStore.getCustomers().get(38).getId()).isEqualTo(39L);
+    }
+
+    @Test
+    void shouldReloadValidFoodsOnly() throws IOException {
+        // Given
+        dataStore.init();
+        FoodCatalog original = dataStore.getFoodCatalog();
+        Food pizza = original.foods().get(0);
+
+        // When
+        Files.writeString(tempDir.resolve("foods.csv"), "Pizza,300,Delicious pizza,13.99\nSoup,120,Hot soup,4.00\n");
+        boolean reloaded = dataStore.reloadFoods();
+        FoodCatalog updated = dataStore.getFoodCatalog();
+        Files.writeString(tempDir.resolve("foods.csv"), "Pizza,300,Delicious pizza,not-a-price\n");
+        boolean invalid = dataStore.reloadFoods();
+
+        // Then
+        assertThat(reloaded).isTrue();
+        assertThat(invalid).isFalse();
+        assertThat(dataStore.getFoodCatalog()).isSameAs(updated);
+        assertThat(updated.get(pizza.getId()).getPriceMinor()).isEqualTo(1399L);
+        assertThat(pizza.getPriceMinor()).isEqualTo(1299L);
+        assertThat(updated.foods()).extracting(Food::getName).containsExactly("Pizza", "Soup");
+    }
+
+    @Test
+    void shouldKeepFoodIdsAcrossRestartWithEditedMenu() throws IOException {
+        // Given
+        dataStore.init();
+        Files.writeString(tempDir.resolve("foods.csv"), "Pizza,300,Delicious pizza,12.99\nBurger,450,Tasty burger,8.50\nSoup,120,Hot soup,4.00\n");
+        dataStore.reloadFoods();
+        dataStore.close();
+
+        // When
+        Files.writeString(tempDir.resolve("foods.csv"), "Salad,80,Green salad,7.25\nSoup,120,Hot soup,4.00\nPizza,300,Delicious pizza,12.99\n");
+        dataStore.init();
+
+        // Then
+        FoodCatalog catalog = dataStore.getFoodCatalog();
+        assertThat(catalog.foods()).extracting(Food::getName, Food::getId)
+                .containsExactly(tuple("Salad", 3), tuple("Soup", 2), tuple("Pizza", 0));
+        assertThat(catalog.get(1).getName()).isEqualTo("Burger");
+        assertThat(dataStore.findFoodById(1)).isEmpty();
+        assertThat(tempDir.resolve("foods.ids")).hasContent("Pizza\nBurger\nSoup\nSalad");
+        dataStore.close();
+    }
+
+    @Test
+    void shouldReloadFoodsWhenFileChanges() throws Exception {
+        // Given
+        dataStore.init();
+        dataStore.watchFoods(Duration.ofMillis(50));
+        FoodCatalog original = dataStore.getFoodCatalog();
+
+        // When
+        Path replacement = tempDir.resolve("foods.csv.new");
+        Files.writeString(replacement, "Pizza,300,Delicious pizza,9.99\n");
+        Files.move(replacement, tempDir.resolve("foods.csv"), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+        while (dataStore.getFoodCatalog() == original && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+
+        // Then
+        assertThat(dataStore.getFoodCatalog()).isNotSameAs(original);
+        assertThat(dataStore.getFoods()).extracting(Food::getPriceMinor).containsExactly(999L);
+        dataStore.close();
+    }
+}
@@ -0,0 +1,123 @@
+// FoodCatalogTest.java
+package food.data;
+
+import food.domain.Food;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class FoodCatalogTest {
+
+    private static Food food(String name, String price) {
+        return new Food.Builder()
+                .name(name)
+                .calorie(new BigDecimal("100"))
+                .description(name + " description")
+                .price(new BigDecimal(price))
+                .build();
+    }
+
+    @Test
+    void shouldAssignDenseIdsInFileOrder() {
+        // When
+        FoodCatalog catalog = FoodCatalog.of(List.of(food("Pizza", "12.99"), food("Burger", "8.50")));
+
+        // Then
+        assertThat(catalog.size()).isEqualTo(2);
+        assertThat(catalog.get(0).getName()).isEqualTo("Pizza");
+        assertThat(catalog.get(1).getName()).isEqualTo("Burger");
+        assertThat(catalog.foods()).extracting(Food::getId).containsExactly(0, 1);
+        assertThat(catalog.findById(2)).isEmpty();
+        assertThatThrownBy(() -> catalog.get(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldInternFoodsByName() {
+        // Given
+        Food original = food("Pizza", "12.99");
+        FoodCatalog catalog = FoodCatalog.of(List.of(original, food("Pizza", "1.00")));
+
+        // When
+        Food interned = catalog.intern(food("Pizza", "12.99"));
+
+        // Then
+        assertThat(catalog.size()).isEqualTo(1);
+        assertThat(interned).isSameAs(catalog.get(0));
+        assertThat(catalog.findByName("Pizza")).containsSame(interned);
+        assertThat(original.hasId()).isFalse();
+    }
+
+    @Test
+    void shouldCompareCataloguedFoodsById() {
+        // Given
+        FoodCatalog catalog = FoodCatalog.of(List.of(food("Pizza", "12.99"), food("Burger", "8.50")));
+        Food pizza = catalog.get(0);
+        Food repriced = catalog.update(List.of(food("Pizza", "14.99"))).get(0);
+
+        // Then
+        assertThat(repriced).isNotSameAs(pizza).isEqualTo(pizza).hasSameHashCodeAs(pizza);
+        assertThat(pizza).isEqualTo(food("Pizza", "12.99")).hasSameHashCodeAs(food("Pizza", "12.99"));
+        assertThat(repriced).isNotEqualTo(food("Pizza", "12.99"));
+        assertThat(pizza).isNotEqualTo(catalog.get(1));
+        assertThat(catalog.intern(food("Pizza", "1.00"))).isNotSameAs(pizza);
+    }
+
+    @Test
+    void shouldKeepIdsAndUnchangedFoodsAcrossUpdates() {
+        // Given
+        FoodCatalog catalog = FoodCatalog.of(List.of(food("Pizza", "12.99"), food("Burger", "8.50"), food("Salad", "7.25")));
+
+        // When
+        FoodCatalog updated = catalog.update(List.of(food("Soup", "4.00"), food("Burger", "8.50"), food("Pizza", "13.99")));
+
+        // Then
+        assertThat(updated.foods()).extracting(Food::getName).containsExactly("Soup", "Burger", "Pizza");
+        assertThat(updated.foods()).extracting(Food::getId).containsExactly(3, 1, 0);
+        assertThat(updated.get(1)).isSameAs(catalog.get(1));
+        assertThat(updated.get(0)).isNotSameAs(catalog.get(0));
+        assertThat(updated.get(0).getPriceMinor()).isEqualTo(1399L);
+        assertThat(catalog.get(0).getPriceMinor()).isEqualTo(1299L);
+        assertThat(updated.findById(2)).isEmpty();
+        assertThat(updated.get(2)).isSameAs(catalog.get(2));
+        assertThatThrownBy(() -> updated.get(4)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(updated.size()).isEqualTo(3);
+        assertThat(updated.update(List.of(food("Salad", "7.25"))).findById(2)).contains(catalog.get(2));
+    }
+
+    @Test
+    void shouldSeedIdsFromWrittenNames(@TempDir Path tempDir) {
+        // Given
+        FoodCatalog catalog = FoodCatalog.of(List.of(food("Pizza", "12.99"), food("Burger", "8.50"), food("Salad", "7.25")));
+        Path file = tempDir.resolve("foods.ids");
+        catalog.writeNames(file);
+
+        // When
+        FoodCatalog restarted = FoodCatalog.of(List.of(food("Soup", "4.00"), food("Salad", "7.25"), food("Pizza", "13.99")),
+                FoodCatalog.readNames(file));
+
+        // Then
+        assertThat(restarted.foods()).extracting(Food::getId).containsExactly(3, 2, 0);
+        assertThat(restarted.get(1).getName()).isEqualTo("Burger");
+        assertThat(restarted.findById(1)).isEmpty();
+        assertThat(restarted.names()).containsExactly("Pizza", "Burger", "Salad", "Soup");
+        assertThat(FoodCatalog.readNames(tempDir.resolve("missing.ids"))).isEmpty();
+        assertThatThrownBy(() -> FoodCatalog.of(List.of(food("Pizza", "1.00")), List.of("Pizza", "Pizza")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldRejectInvalidUpdates() {
+        // Given
+        FoodCatalog catalog = FoodCatalog.of(List.of(food("Pizza", "12.99")));
+
+        // When / Then
+        assertThatThrownBy(() -> catalog.update(List.of())).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> catalog.update(List.of(food(" ", "1.00")))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> catalog.update(List.of(food("Pizza", "-1.00")))).isInstanceOf(IllegalArgumentException.class);
+    }
+}
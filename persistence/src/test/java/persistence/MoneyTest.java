@@ -0,0 +1,56 @@
+// MoneyTest.java
+package food.values;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void shouldParsePlainDecimals() {
+        assertThat(Money.parse("12.99")).isEqualTo(1299L);
+        assertThat(Money.parse("8.5")).isEqualTo(850L);
+        assertThat(Money.parse("100")).isEqualTo(10000L);
+        assertThat(Money.parse("-0.05")).isEqualTo(-5L);
+        assertThat(Money.parse(".5")).isEqualTo(50L);
+    }
+
+    @Test
+    void shouldRoundExtraDecimalsHalfEven() {
+        assertThat(Money.parse("0.125")).isEqualTo(12L);
+        assertThat(Money.parse("0.135")).isEqualTo(14L);
+        assertThat(Money.of(new BigDecimal("2.345"))).isEqualTo(234L);
+    }
+
+    @Test
+    void shouldRejectMalformedAmounts() {
+        assertThatThrownBy(() -> Money.parse("")).isInstanceOf(NumberFormatException.class);
+        assertThatThrownBy(() -> Money.parse("1.2x")).isInstanceOf(NumberFormatException.class);
+    }
+
+    @Test
+    void shouldFormatLikeBigDecimalPlainString() {
+        assertThat(Money.format(850L)).isEqualTo("8.50");
+        assertThat(Money.format(0L)).isEqualTo("0.00");
+        assertThat(Money.format(-5L)).isEqualTo("-0.05");
+        assertThat(Money.format(123456L)).isEqualTo(new BigDecimal("1234.56").toPlainString());
+        assertThat(Money.format(Long.MIN_VALUE)).isEqualTo(BigDecimal.valueOf(Long.MIN_VALUE, 2).toPlainString());
+        assertThat(Money.format(Long.MAX_VALUE)).isEqualTo(BigDecimal.valueOf(Long.MAX_VALUE, 2).toPlainString());
+    }
+
+    @Test
+    void shouldConvertToAndFromBigDecimal() {
+        assertThat(Money.toBigDecimal(1299L)).isEqualTo(new BigDecimal("12.99"));
+        assertThat(Money.of(null)).isZero();
+        assertThat(Money.of(new BigDecimal("7"))).isEqualTo(700L);
+    }
+
+    @Test
+    void shouldFailOnOverflow() {
+        assertThatThrownBy(() -> Money.times(Long.MAX_VALUE / 2, 3)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.add(Long.MAX_VALUE, 1)).isInstanceOf(ArithmeticException.class);
+    }
+}
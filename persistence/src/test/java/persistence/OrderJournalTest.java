@@ -0,0 +1,239 @@
+// OrderJournalTest.java
+package food.data;
+
+import food.domain.Food;
+import food.domain.Order;
+import food.domain.OrderItem;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class OrderJournalTest {
+
+    private final Food pizza = new Food.Builder()
+            .name("Pizza")
+            .calorie(new BigDecimal("300"))
+            .description("Delicious pizza")
+            .price(new BigDecimal("10.99"))
+            .build();
+
+    private Order order(long orderId) {
+        return new Order(
+                orderId,
+                123L,
+                List.of(new OrderItem(pizza, 1, new BigDecimal("10.99"))),
+                new BigDecimal("10.99"),
+                LocalDateTime.of(2025, 1, 15, 14, 30)
+        );
+    }
+
+    @Test
+    void shouldAppendOrderAndCompleteFuture(@TempDir Path tempDir) throws IOException {
+        // Given
+        Path file = tempDir.resolve("orders.csv");
+        Order order = order(7L);
+
+        // When
+        try (var journal = new OrderJournal(file)) {
+            assertThat(journal.append(order).join()).isSameAs(order);
+        }
+
+        // Then
+        assertThat(Files.readString(file)).isEqualTo("7,123,Pizza,1,10.99,15/01/2025 14:30,10.99\n");
+    }
+
+    @Test
+    void shouldGroupCommitConcurrentAppends(@TempDir Path tempDir) throws IOException {
+        // Given
+        Path file = tempDir.resolve("orders.csv");
+        List<CompletableFuture<Order>> futures = new ArrayList<>();
+
+        // When
+        try (var journal = new OrderJournal(file)) {
+            IntStream.range(0, 500).parallel()
+                    .mapToObj(i -> journal.append(order(i)))
+                    .forEach(future -> {
+                        synchronized (futures) {
+                            futures.add(future);
+                        }
+                    });
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        }
+
+        // Then
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(500);
+        assertThat(lines.stream().map(line -> Long.parseLong(line.substring(0, line.indexOf(',')))))
+                .containsExactlyInAnyOrderElementsOf(IntStream.range(0, 500).mapToObj(Long::valueOf).toList());
+    }
+
+    @Test
+    void shouldSeparateFromExistingLineWithoutTrailingNewLine(@TempDir Path tempDir) throws IOException {
+        // Given
+        Path file = tempDir.resolve("orders.csv");
+        Files.writeString(file, "0,999,Existing Item,1,5.00,01/01/2025 10:00,5.00");
+
+        // When
+        try (var journal = new OrderJournal(file)) {
+            journal.append(order(1L)).join();
+        }
+
+        // Then
+        assertThat(Files.readAllLines(file)).containsExactly(
+                "0,999,Existing Item,1,5.00,01/01/2025 10:00,5.00",
+                "1,123,Pizza,1,10.99,15/01/2025 14:30,10.99");
+    }
+
+    @Test
+    void shouldCompleteAppendsForEveryFsyncPolicy(@TempDir Path tempDir) throws IOException {
+        for (FsyncPolicy policy : FsyncPolicy.values()) {
+            // Given
+            Path file = tempDir.resolve(policy + ".csv");
+
+            // When
+            try (var journal = new OrderJournal(file, policy, Duration.ofMillis(5))) {
+                journal.append(order(1L)).join();
+                journal.append(order(2L)).join();
+            }
+
+            // Then
+            assertThat(Files.readAllLines(file)).hasSize(2);
+        }
+    }
+
+    @Test
+    void shouldRejectAppendAfterClose(@TempDir Path tempDir) {
+        // Given
+        var journal = new OrderJournal(tempDir.resolve("orders.csv"));
+        journal.close();
+
+        // When & Then
+        assertThatThrownBy(() -> journal.append(order(1L)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("closed");
+    }
+
+    @Test
+    void shouldWriteBinaryLogWithHeaderOnce(@TempDir Path tempDir) throws IOException {
+        // Given
+        Path file = tempDir.resolve("orders.log");
+
+        // When
+        try (var journal = new OrderJournal(file, OrderLogFormat.BINARY, FsyncPolicy.PER_BATCH, Duration.ofMillis(5))) {
+            journal.append(order(1L)).join();
+        }
+        try (var journal = new OrderJournal(file, OrderLogFormat.BINARY, FsyncPolicy.PER_BATCH, Duration.ofMillis(5))) {
+            journal.append(order(2L)).join();
+        }
+
+        // Then
+        try (var reader = OrderLogFormat.BINARY.openReader(file, 0, FoodCatalog.empty())) {
+            assertThat(reader.next().getOrderId()).isEqualTo(1L);
+            assertThat(reader.next().getOrderId()).isEqualTo(2L);
+            assertThat(reader.next()).isNull();
+            assertThat(reader.isTruncated()).isFalse();
+        }
+    }
+
+    @Test
+    void shouldRotateIntoNewFile(@TempDir Path tempDir) throws IOException {
+        // Given
+        Path file = tempDir.resolve("orders.csv");
+        var segments = new JournalSegments(tempDir, OrderLogFormat.CSV);
+
+        // When
+        try (var journal = new OrderJournal(file, OrderLogFormat.CSV, FsyncPolicy.PER_BATCH,
+                Duration.ofMillis(5), segments, JournalRotation.NEVER)) {
+            journal.append(order(1L)).join();
+            journal.rotate().join();
+            journal.append(order(2L)).join();
+        }
+
+        // Then
+        assertThat(Files.readAllLines(tempDir.resolve("segments").resolve("orders-000001.csv")))
+                .containsExactly("1,123,Pizza,1,10.99,15/01/2025 14:30,10.99");
+        assertThat(Files.readAllLines(file)).containsExactly("2,123,Pizza,1,10.99,15/01/2025 14:30,10.99");
+    }
+
+    @Test
+    void shouldKeepWrittenOrdersWhenRotationFails(@TempDir Path tempDir) throws IOException {
+        // Given: a file where the segments folder should go
+        Path file = tempDir.resolve("orders.csv");
+        Files.writeString(tempDir.resolve("segments"), "");
+        var segments = new JournalSegments(tempDir, OrderLogFormat.CSV);
+
+        // When
+        try (var journal = new OrderJournal(file, OrderLogFormat.CSV, FsyncPolicy.INTERVAL,
+                Duration.ofMinutes(1), segments, JournalRotation.NEVER)) {
+            CompletableFuture<Order> first = journal.append(order(1L));
+            CompletableFuture<Void> rotated = journal.rotate();
+            CompletableFuture<Order> second = journal.append(order(2L));
+            journal.flush();
+
+            // Then
+            assertThatThrownBy(rotated::join).hasCauseInstanceOf(UncheckedIOException.class);
+            assertThat(first.join().getOrderId()).isEqualTo(1L);
+            assertThat(second.join().getOrderId()).isEqualTo(2L);
+        }
+        assertThat(Files.readAllLines(file)).extracting(line -> line.substring(0, 2)).containsExactly("1,", "2,");
+    }
+
+    @Test
+    void shouldRollOverBySizeAndRecordSegmentsInManifest(@TempDir Path tempDir) throws IOException {
+        // Given
+        Path file = tempDir.resolve("orders.csv");
+        var segments = new JournalSegments(tempDir, OrderLogFormat.CSV);
+        var rotation = new JournalRotation(80, Duration.ZERO);
+
+        // When
+        try (var journal = new OrderJournal(file, OrderLogFormat.CSV, FsyncPolicy.PER_BATCH,
+                Duration.ofMillis(5), segments, rotation)) {
+            for (long id = 0; id < 5; id++) {
+                journal.append(order(id)).join();
+                journal.flush();
+            }
+        }
+
+        // Then: each segment closes once it holds two 43-byte lines
+        assertThat(segments.after(0)).extracting(JournalSegments.Segment::number).containsExactly(1L, 2L);
+        assertThat(Files.readAllLines(tempDir.resolve("journal.manifest")))
+                .extracting(line -> line.substring(0, line.lastIndexOf(',')))
+                .containsExactly("1,segments,86", "2,segments,86");
+        assertThat(Files.readAllLines(file)).hasSize(1);
+    }
+
+    @Test
+    void shouldRollOverIdleJournalByAge(@TempDir Path tempDir) throws Exception {
+        // Given
+        Path file = tempDir.resolve("orders.csv");
+        var segments = new JournalSegments(tempDir, OrderLogFormat.CSV);
+        var rotation = new JournalRotation(Long.MAX_VALUE, Duration.ofMillis(50));
+
+        // When
+        try (var journal = new OrderJournal(file, OrderLogFormat.CSV, FsyncPolicy.PER_BATCH,
+                Duration.ofMillis(5), segments, rotation)) {
+            journal.append(order(1L)).join();
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (segments.after(0).isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+
+        // Then
+        assertThat(segments.after(0)).hasSize(1);
+        assertThat(Files.size(file)).isZero();
+    }
+}
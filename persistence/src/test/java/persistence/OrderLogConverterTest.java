@@ -0,0 +1,61 @@
+// OrderLogConverterTest.java
+package food.data;
+
+import food.domain.Food;
+import food.domain.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class OrderLogConverterTest {
+
+    private final FoodCatalog catalog = FoodCatalog.of(List.of(
+            new Food.Builder().name("Pizza").price(new BigDecimal("12.99")).build(),
+            new Food.Builder().name("Burger").price(new BigDecimal("8.50")).build()));
+
+    private static final String CSV = """
+            0,1,Pizza,1,12.99,15/01/2025 14:30,21.49
+            0,1,Burger,1,8.50,15/01/2025 14:30,21.49
+            1,2,Burger,2,17.00,15/01/2025 14:31,17.00
+            """;
+
+    @Test
+    void shouldConvertCsvToBinaryAndBack(@TempDir Path tempDir) throws IOException {
+        // Given
+        Path csv = tempDir.resolve("orders.csv");
+        Path binary = tempDir.resolve("orders.log");
+        Path back = tempDir.resolve("back.csv");
+        Files.writeString(csv, CSV);
+
+        // When
+        long toBinary = OrderLogConverter.convert(csv, OrderLogFormat.CSV, binary, OrderLogFormat.BINARY, catalog);
+        long toCsv = OrderLogConverter.convert(binary, OrderLogFormat.BINARY, back, OrderLogFormat.CSV, catalog);
+
+        // Then
+        assertThat(toBinary).isEqualTo(2);
+        assertThat(toCsv).isEqualTo(2);
+        assertThat(Files.readString(back)).isEqualTo(CSV);
+        assertThat(tempDir.resolve("orders.log.tmp")).doesNotExist();
+    }
+
+    @Test
+    void shouldRefuseToConvertDamagedLog(@TempDir Path tempDir) throws IOException {
+        // Given
+        Path csv = tempDir.resolve("orders.csv");
+        Path binary = tempDir.resolve("orders.log");
+        Files.writeString(csv, CSV + "2,1,Pizza,1,12.99,15/01/2025 14:32,21.4");
+
+        // When & Then
+        assertThatThrownBy(() -> OrderLogConverter.convert(csv, OrderLogFormat.CSV, binary, OrderLogFormat.BINARY, catalog))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("damaged");
+        assertThat(binary).doesNotExist();
+    }
+}
@@ -0,0 +1,271 @@
+// OrderLogFormatTest.java
+package food.data;
+
+import food.domain.Food;
+import food.domain.Order;
+import food.domain.OrderItem;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class OrderLogFormatTest {
+
+    private final FoodCatalog catalog = FoodCatalog.of(List.of(
+            new Food.Builder().name("Pizza").calorie(new BigDecimal("300")).description("Cheesy").price(new BigDecimal("12.99")).build(),
+            new Food.Builder().name("Burger").calorie(new BigDecimal("500")).description("Juicy").price(new BigDecimal("8.50")).build()));
+
+    private Order order(long orderId) {
+        Food pizza = catalog.get(0);
+        Food burger = catalog.get(1);
+        return new Order(orderId, 7L,
+                List.of(new OrderItem(pizza, 2, 2598L), new OrderItem(burger, 1, 850L)),
+                3448L, LocalDateTime.of(2025, 1, 15, 14, 30));
+    }
+
+    private static void write(Path file, OrderLogFormat format, Order... orders) throws IOException {
+        var out = new LogBuffer();
+        format.writePreamble(0, -1, out);
+        for (Order order : orders) {
+            format.write(order, out);
+        }
+        try (var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.write(out.asByteBuffer());
+        }
+    }
+
+    private static List<Order> readAll(Path file, OrderLogFormat format, FoodCatalog catalog) throws IOException {
+        List<Order> orders = new ArrayList<>();
+        try (var reader = format.openReader(file, 0, catalog)) {
+            for (Order order; (order = reader.next()) != null; ) {
+                orders.add(order);
+            }
+        }
+        return orders;
+    }
+
+    @Test
+    void shouldRoundTripOrdersInBothFormats(@TempDir Path tempDir) throws IOException {
+        for (OrderLogFormat format : List.of(OrderLogFormat.CSV, OrderLogFormat.BINARY)) {
+            // Given
+            Path file = tempDir.resolve(format.fileName());
+            write(file, format, order(1L), order(2L));
+
+            // When
+            List<Order> orders = readAll(file, format, catalog);
+
+            // Then
+            assertThat(orders).extracting(Order::getOrderId).containsExactly(1L, 2L);
+            Order first = orders.get(0);
+            assertThat(first.getCustomerId()).isEqualTo(7L);
+            assertThat(first.getPriceMinor()).isEqualTo(3448L);
+            assertThat(first.getTimestampCreated()).isEqualTo(LocalDateTime.of(2025, 1, 15, 14, 30));
+            assertThat(first.getOrderItems()).extracting(OrderItem::getFood)
+                    .containsExactly(catalog.get(0), catalog.get(1));
+            assertThat(first.getOrderItems()).extracting(OrderItem::getPieces).containsExactly(2, 1);
+            assertThat(first.getOrderItems()).extracting(OrderItem::getPriceMinor).containsExactly(2598L, 850L);
+        }
+    }
+
+    @Test
+    void shouldBeSmallerInBinary(@TempDir Path tempDir) throws IOException {
+        // Given
+        Path csv = tempDir.resolve("orders.csv");
+        Path binary = tempDir.resolve("orders.log");
+
+        // When
+        write(csv, OrderLogFormat.CSV, order(1L), order(2L));
+        write(binary, OrderLogFormat.BINARY, order(1L), order(2L));
+
+        // Then
+        assertThat(Files.size(binary)).isLessThan(Files.size(csv) / 2);
+    }
+
+    @Test
+    void shouldStopAtTornBinaryRecord(@TempDir Path tempDir) throws IOException {
+        // Given
+        Path file = tempDir.resolve("orders.log");
+        write(file, OrderLogFormat.BINARY, order(1L), order(2L));
+        long fullSize = Files.size(file);
+        try (var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(fullSize - 3);
+        }
+
+        // When
+        try (var reader = OrderLogFormat.BINARY.openReader(file, 0, catalog)) {
+            // Then
+            assertThat(reader.next().getOrderId()).isEqualTo(1L);
+            long firstEnd = reader.validLength();
+            assertThat(reader.next()).isNull();
+            assertThat(reader.isTruncated()).isTrue();
+            assertThat(reader.validLength()).isEqualTo(firstEnd);
+            assertThat(firstEnd).isEqualTo(BinaryOrderLogFormat.HEADER_SIZE + (fullSize - BinaryOrderLogFormat.HEADER_SIZE) / 2);
+        }
+    }
+
+    @Test
+    void shouldRejectBinaryRecordWithBadChecksum(@TempDir Path tempDir) throws IOException {
+        // Given
+        Path file = tempDir.resolve("orders.log");
+        write(file, OrderLogFormat.BINARY, order(1L));
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[BinaryOrderLogFormat.HEADER_SIZE + 6] ^= 0x01;
+        Files.write(file, bytes);
+
+        // When
+        List<Order> orders;
+        boolean truncated;
+        try (var reader = OrderLogFormat.BINARY.openReader(file, 0, catalog)) {
+            orders = new ArrayList<>();
+            for (Order order; (order = reader.next()) != null; ) {
+                orders.add(order);
+            }
+            truncated = reader.isTruncated();
+        }
+
+        // Then
+        assertThat(orders).isEmpty();
+        assertThat(truncated).isTrue();
+    }
+
+    @Test
+    void shouldResumeBinaryReadingAtRecordBoundary(@TempDir Path tempDir) throws IOException {
+        // Given
+        Path file = tempDir.resolve("orders.log");
+        write(file, OrderLogFormat.BINARY, order(1L), order(2L), order(3L));
+        long afterFirst;
+        try (var reader = OrderLogFormat.BINARY.openReader(file, 0, catalog)) {
+            reader.next();
+            afterFirst = reader.validLength();
+        }
+
+        // When
+        try (var reader = OrderLogFormat.BINARY.openReader(file, afterFirst, catalog)) {
+            // Then
+            assertThat(reader.next().getOrderId()).isEqualTo(2L);
+            assertThat(reader.next().getOrderId()).isEqualTo(3L);
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    void shouldSeekToRecordsInBothFormats(@TempDir Path tempDir) throws IOException {
+        for (OrderLogFormat format : List.of(OrderLogFormat.CSV, OrderLogFormat.BINARY)) {
+            // Given
+            Path file = tempDir.resolve("seek-" + format.fileName());
+            write(file, format, order(1L), order(2L), order(3L));
+            List<Long> offsets = new ArrayList<>();
+            try (var reader = format.openReader(file, 0, catalog)) {
+                while (reader.next() != null) {
+                    offsets.add(reader.recordOffset());
+                }
+            }
+
+            // When
+            List<Long> ids = new ArrayList<>();
+            try (var reader = format.openReader(file, offsets.get(1), catalog)) {
+                ids.add(reader.next().getOrderId());
+                reader.seek(offsets.get(0));
+                ids.add(reader.next().getOrderId());
+                reader.seek(offsets.get(2));
+                ids.add(reader.next().getOrderId());
+                ids.add(reader.next() == null ? -1L : 0L);
+            }
+
+            // Then
+            assertThat(ids).as(format.fileName()).containsExactly(2L, 1L, 3L, -1L);
+        }
+    }
+
+    @Test
+    void shouldKeepFoodsWithoutCatalogIdByName(@TempDir Path tempDir) throws IOException {
+        // Given
+        Path file = tempDir.resolve("orders.log");
+        Food unknown = new Food.Builder().name("Soup").price(new BigDecimal("4.00")).build();
+        write(file, OrderLogFormat.BINARY, new Order(1L, 7L, List.of(new OrderItem(unknown, 1, 400L)),
+                400L, LocalDateTime.of(2025, 1, 15, 14, 30)));
+
+        // When
+        List<Order> orders = readAll(file, OrderLogFormat.BINARY, catalog);
+
+        // Then
+        assertThat(orders.get(0).getOrderItems().get(0).getFood().getName()).isEqualTo("Soup");
+    }
+
+    @Test
+    void shouldRejectFileWithoutBinaryHeader(@TempDir Path tempDir) throws IOException {
+        // Given
+        Path file = tempDir.resolve("orders.log");
+        Files.writeString(file, "1,7,Pizza,1,12.99,15/01/2025 14:30,12.99\n");
+
+        // When & Then
+        assertThatThrownBy(() -> OrderLogFormat.BINARY.openReader(file, 0, catalog))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("magic");
+    }
+
+    @Test
+    void shouldTreatIncompleteLastCsvOrderAsTorn(@TempDir Path tempDir) throws IOException {
+        // Given
+        Path file = tempDir.resolve("orders.csv");
+        Files.writeString(file, """
+                1,7,Pizza,2,25.98,15/01/2025 14:30,34.48
+                1,7,Burger,1,8.50,15/01/2025 14:30,34.48
+                2,7,Pizza,2,25.98,15/01/2025 14:30,34.48
+                2,7,Bur""");
+
+        // When
+        try (var reader = OrderLogFormat.CSV.openReader(file, 0, catalog)) {
+            // Then
+            assertThat(reader.next().getOrderItems()).hasSize(2);
+            assertThat(reader.next()).isNull();
+            assertThat(reader.isTruncated()).isTrue();
+            assertThat(reader.validLength()).isEqualTo(Files.readString(file).indexOf("2,7,"));
+        }
+    }
+
+    @Test
+    void shouldKeepDiscountedLastCsvOrderButCutUnterminatedLine(@TempDir Path tempDir) throws IOException {
+        // Given
+        Path file = tempDir.resolve("orders.csv");
+        Files.writeString(file, """
+                1,7,Pizza,2,25.98,15/01/2025 14:30,20.00
+                2,7,Pizza,2,25.98,15/01/2025 14:30,25.9""");
+
+        // When
+        try (var reader = OrderLogFormat.CSV.openReader(file, 0, catalog)) {
+            // Then
+            assertThat(reader.next().getPriceMinor()).isEqualTo(2000L);
+            assertThat(reader.next()).isNull();
+            assertThat(reader.isTruncated()).isTrue();
+            assertThat(reader.validLength()).isEqualTo(Files.readString(file).indexOf("2,7,"));
+        }
+    }
+
+    @Test
+    void shouldRejectCorruptCsvLineBeforeTheEnd(@TempDir Path tempDir) throws IOException {
+        // Given
+        Path file = tempDir.resolve("orders.csv");
+        Files.writeString(file, """
+                garbage
+                1,7,Pizza,2,25.98,15/01/2025 14:30,25.98
+                """);
+
+        // When & Then
+        try (var reader = OrderLogFormat.CSV.openReader(file, 0, catalog)) {
+            assertThatThrownBy(reader::next)
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("offset 0");
+        }
+    }
+}
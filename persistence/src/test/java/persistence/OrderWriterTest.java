@@ -13,6 +13,7 @@ import java.math.BigDecimal;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.*;
@@ -166,4 +167,33 @@ class OrderWriterTest {
         String content = Files.readString(outputFile);
         assertThat(content).isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldAppendOrdersAfterExistingContent(@TempDir Path tempDir) throws IOException {
+        // Given
+        Path outputFile = tempDir.resolve("orders.csv");
+        Files.writeString(outputFile, "0,999,Existing Item,1,5.00,01/01/2025 10:00,5.00");
+
+        // When
+        orderWriter.appendOrders(List.of(testOrder), outputFile);
+
+        // Then
+        assertThat(Files.readAllLines(outputFile)).containsExactly(
+                "0,999,Existing Item,1,5.00,01/01/2025 10:00,5.00",
+                "1,123,Pizza,2,21.98,15/01/2025 14:30,30.48",
+                "1,123,Burger,1,8.50,15/01/2025 14:30,30.48");
+    }
+
+    @Test
+    void shouldStreamManyOrdersThroughSmallBuffer(@TempDir Path tempDir) throws IOException {
+        // Given
+        Path outputFile = tempDir.resolve("orders.csv");
+        List<Order> orders = Collections.nCopies(5_000, testOrder);
+
+        // When
+        orderWriter.writeOrders(orders, outputFile.toString());
+
+        // Then
+        assertThat(Files.readAllLines(outputFile)).hasSize(10_000);
+    }
+}
@@ -0,0 +1,75 @@
+// ParallelReaderTest.java
+package food.data;
+
+import food.domain.Customer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ParallelReaderTest {
+
+    private final CustomerReader customerReader = new CustomerReader();
+
+    private static String customers(int count, String lineSeparator) {
+        var sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append("user").append(i).append(",pass").append(i).append(',').append(i)
+                    .append(",Customer ").append(i).append(',').append(i % 1000).append(".25")
+                    .append(lineSeparator);
+            if (i % 97 == 0) {
+                sb.append(lineSeparator);
+            }
+        }
+        return sb.toString();
+    }
+
+    @Test
+    void shouldReadSameCustomersAsSequentialReader(@TempDir Path tempDir) throws IOException {
+        // Given
+        Path file = tempDir.resolve("customers.csv");
+        Files.writeString(file, customers(20_000, "\n"));
+        var parallelReader = new ParallelReader<>(customerReader, new ForkJoinPool(4), 4096);
+
+        // When
+        List<Customer> customers = parallelReader.read(file.toString());
+
+        // Then
+        assertThat(customers).hasSize(20_000).isEqualTo(customerReader.read(file.toString()));
+    }
+
+    @Test
+    void shouldHandleCrLfAndMissingTrailingNewLine(@TempDir Path tempDir) throws IOException {
+        // Given
+        Path file = tempDir.resolve("customers.csv");
+        String content = customers(5_000, "\r\n") + "last,pw,5000,Last,1.00";
+        Files.writeString(file, content);
+        var parallelReader = new ParallelReader<>(customerReader, new ForkJoinPool(3), 1024);
+
+        // When
+        List<Customer> customers = parallelReader.read(file.toString());
+
+        // Then
+        assertThat(customers).hasSize(5_001).isEqualTo(customerReader.read(file.toString()));
+        assertThat(customers.get(5_000).getUserName()).isEqualTo("last");
+    }
+
+    @Test
+    void shouldReadSmallFilesSequentially(@TempDir Path tempDir) throws IOException {
+        // Given
+        Path file = tempDir.resolve("customers.csv");
+        Files.writeString(file, "admin,admin123,999,Administrator,1000.00");
+
+        // When
+        List<Customer> customers = new ParallelReader<>(customerReader).read(file.toString());
+
+        // Then
+        assertThat(customers).extracting(Customer::getId).containsExactly(999L);
+    }
+}
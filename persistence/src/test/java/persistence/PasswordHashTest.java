@@ -0,0 +1,56 @@
+// PasswordHashTest.java
+package food.values;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PasswordHashTest {
+
+    @Test
+    void shouldMatchOnlyTheHashedPassword() {
+        // Given
+        PasswordHash hash = PasswordHash.create("password123", 1000);
+
+        // Then
+        assertThat(hash.matches("password123")).isTrue();
+        assertThat(hash.matches("password124")).isFalse();
+        assertThat(hash.matches(null)).isFalse();
+    }
+
+    @Test
+    void shouldSaltEveryHash() {
+        // When
+        PasswordHash first = PasswordHash.create("password123", 1000);
+        PasswordHash second = PasswordHash.create("password123", 1000);
+
+        // Then
+        assertThat(first.encode()).isNotEqualTo(second.encode());
+        assertThat(first).isNotEqualTo(second);
+    }
+
+    @Test
+    void shouldRoundTripTextForm() {
+        // Given
+        PasswordHash hash = PasswordHash.create("secret456", 1000);
+
+        // When
+        PasswordHash parsed = PasswordHash.parse(hash.encode());
+
+        // Then
+        assertThat(PasswordHash.isEncoded(hash.encode())).isTrue();
+        assertThat(hash.encode()).startsWith("pbkdf2-sha256$1000$").doesNotContain("=");
+        assertThat(parsed).isEqualTo(hash);
+        assertThat(parsed.matches("secret456")).isTrue();
+        assertThat(parsed.toString()).doesNotContain(hash.encode().substring(20));
+    }
+
+    @Test
+    void shouldRejectMalformedHashes() {
+        assertThat(PasswordHash.isEncoded("password123")).isFalse();
+        assertThatThrownBy(() -> PasswordHash.parse("password123")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PasswordHash.parse("pbkdf2-sha256$x$AAAA$AAAA")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PasswordHash.parse("pbkdf2-sha256$1000$AAAA$AAAA")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PasswordHash.parse("pbkdf2-sha256$1000$AAAA")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
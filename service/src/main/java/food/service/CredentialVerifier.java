@@ -0,0 +1,141 @@
+package food.service;
+
+import food.domain.Customer;
+import food.values.PasswordHash;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Checks passwords against customers' {@link PasswordHash}es, remembering recent successful logins.
+ * <p>
+ * A password hash is slow on purpose, so repeating it for every request of a logged-in customer
+ * would dominate the cost of serving them. After a successful check the customer is remembered
+ * under their user name together with a SHA-256 of the password keyed with a per-process secret;
+ * the next login with the same password costs one digest. Entries expire after a fixed time,
+ * the least recently used entry is dropped when the cache is full, and an entry only counts while
+ * the customer still has the password hash it was checked against. Customers and hashes are
+ * compared by value, since a data store may hand out a new view of the same customer every time.
+ * <p>
+ * Every comparison is constant-time. A user name that does not exist, and a customer whose
+ * password is still stored in plaintext, is checked against a dummy hash as well, so every login
+ * that misses the cache costs one password hash and response times do not reveal which user names
+ * are taken or how their passwords are stored.
+ */
+final class CredentialVerifier {
+
+    static final int DEFAULT_CACHE_SIZE = 10_000;
+    static final Duration DEFAULT_CACHE_TTL = Duration.ofMinutes(15);
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final byte[] secret = new byte[32];
+    private final int cacheSize;
+    private final long ttlNanos;
+    private final Map<String, CachedLogin> cache;
+    private volatile PasswordHash unknownUser;
+
+    private record CachedLogin(Customer customer, Object credential, byte[] digest, long expiresAtNanos) {
+    }
+
+    /**
+     * @param cacheSize how many logins to remember; 0 checks every login against its hash
+     */
+    CredentialVerifier(int cacheSize, Duration ttl) {
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("Cache size must be >= 0: " + cacheSize);
+        }
+        RANDOM.nextBytes(secret);
+        this.cacheSize = cacheSize;
+        this.ttlNanos = ttl.toNanos();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedLogin> eldest) {
+                return size() > CredentialVerifier.this.cacheSize;
+            }
+        };
+    }
+
+    /**
+     * @param customer the customer registered under {@code userName}, or {@code null} if there is none
+     */
+    boolean verify(String userName, String password, Customer customer) {
+        if (customer == null) {
+            unknownUserHash().matches(password);
+            return false;
+        }
+        Object credential = credentialOf(customer);
+        byte[] digest = cacheSize == 0 ? null : digest(userName, password);
+        if (digest != null) {
+            CachedLogin cached;
+            synchronized (cache) {
+                cached = cache.get(userName);
+            }
+            if (cached != null && cached.customer().equals(customer) && Objects.equals(cached.credential(), credential)
+                    && System.nanoTime() - cached.expiresAtNanos() < 0
+                    && MessageDigest.isEqual(cached.digest(), digest)) {
+                return true;
+            }
+        }
+        if (!matches(customer, password)) {
+            return false;
+        }
+        if (digest != null) {
+            var login = new CachedLogin(customer, credential, digest, System.nanoTime() + ttlNanos);
+            synchronized (cache) {
+                cache.put(userName, login);
+            }
+        }
+        return true;
+    }
+
+    int cachedLogins() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private boolean matches(Customer customer, String password) {
+        PasswordHash hash = customer.getPasswordHash();
+        if (hash != null) {
+            return hash.matches(password);
+        }
+        // customers.csv from before password hashes; spend the time of a hash check all the same
+        unknownUserHash().matches(password);
+        return customer.getPassword() != null && MessageDigest.isEqual(
+                customer.getPassword().getBytes(StandardCharsets.UTF_8), password.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Object credentialOf(Customer customer) {
+        return customer.getPasswordHash() != null ? customer.getPasswordHash() : customer.getPassword();
+    }
+
+    private byte[] digest(String userName, String password) {
+        try {
+            var sha256 = MessageDigest.getInstance("SHA-256");
+            sha256.update(secret);
+            sha256.update(userName.getBytes(StandardCharsets.UTF_8));
+            sha256.update((byte) 0);
+            sha256.update(password.getBytes(StandardCharsets.UTF_8));
+            return sha256.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private PasswordHash unknownUserHash() {
+        PasswordHash hash = unknownUser;
+        if (hash == null) {
+            var password = new byte[16];
+            RANDOM.nextBytes(password);
+            unknownUser = hash = PasswordHash.create(new String(password, StandardCharsets.ISO_8859_1));
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,39 @@
+package food.service;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped locks keyed by customer id.
+ * <p>
+ * Every customer maps to one of a fixed number of stripes, so operations on the same customer are
+ * serialised while different customers almost always get different locks and proceed in parallel.
+ * The memory cost is fixed no matter how many customers there are.
+ */
+final class CustomerLocks {
+
+    static final int DEFAULT_STRIPES = 1024;
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    CustomerLocks() {
+        this(DEFAULT_STRIPES);
+    }
+
+    CustomerLocks(int stripes) {
+        if (stripes <= 0 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("Stripe count must be a positive power of two: " + stripes);
+        }
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mask = stripes - 1;
+    }
+
+    ReentrantLock lockFor(long customerId) {
+        // spread the bits so sequential ids do not share stripes with their neighbours' multiples
+        long h = customerId * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (h ^ (h >>> 32)) & mask];
+    }
+}
@@ -1,23 +1,57 @@
 package food.service;
 
-import food.data.FileDataStore;
+import food.data.DataStore;
+import food.data.FoodCatalog;
 import food.domain.Cart;
 import food.domain.Credentials;
 import food.domain.Customer;
 import food.domain.Food;
 import food.domain.Order;
 import food.domain.OrderItem;
+import food.values.Money;
 
-import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
 
 public class DefaultFoodDeliveryService implements FoodDeliveryService {
 
-    private final FileDataStore dataStore;
+    private final DataStore dataStore;
+    // carts are serialised per customer, never across customers; balances are compare-and-set
+    private final CustomerLocks customerLocks = new CustomerLocks();
+    private final CredentialVerifier credentialVerifier;
+    private final SessionRegistry sessions;
+    private volatile Menu menu;
 
-    public DefaultFoodDeliveryService(FileDataStore fileDataStore) {
-        this.dataStore = Objects.requireNonNull(fileDataStore);
+    public DefaultFoodDeliveryService(DataStore dataStore) {
+        this(dataStore, CredentialVerifier.DEFAULT_CACHE_SIZE, CredentialVerifier.DEFAULT_CACHE_TTL);
+    }
+
+    /**
+     * @param loginCacheSize how many recent successful logins to remember, so that logging in again
+     *                       skips the password hash; 0 disables the cache
+     * @param loginCacheTtl  how long a remembered login stays valid
+     */
+    public DefaultFoodDeliveryService(DataStore dataStore, int loginCacheSize, Duration loginCacheTtl) {
+        this(dataStore, loginCacheSize, loginCacheTtl, SessionRegistry.DEFAULT_IDLE_TIMEOUT,
+                SessionRegistry.DEFAULT_MAX_SESSIONS, null);
+    }
+
+    /**
+     * @param sessionIdleTimeout how long a session may go unused before it is closed
+     * @param maxSessions        how many sessions may be open; the least recently used go first
+     * @param cartSpillFolder    where the carts of closed sessions are kept until the customer
+     *                           logs in again, or {@code null} to drop them
+     */
+    public DefaultFoodDeliveryService(DataStore dataStore, int loginCacheSize, Duration loginCacheTtl,
+                                      Duration sessionIdleTimeout, int maxSessions, Path cartSpillFolder) {
+        this.dataStore = Objects.requireNonNull(dataStore);
+        this.credentialVerifier = new CredentialVerifier(loginCacheSize, loginCacheTtl);
+        this.sessions = new SessionRegistry(customerLocks, dataStore::getFoodCatalog, sessionIdleTimeout,
+                maxSessions, cartSpillFolder);
     }
 
     @Override
@@ -27,20 +61,52 @@ public class DefaultFoodDeliveryService implements FoodDeliveryService {
                 || credentials.getPassword() == null) {
             throw new AuthenticationException("Invalid credentials.");
         }
-        return dataStore.getCustomers().stream()
-                .filter(c -> credentials.getUserName().equals(c.getUserName())
-                          && credentials.getPassword().equals(c.getPassword()))
-                .findFirst()
-                .orElseThrow(() -> new AuthenticationException("Authentication failed."));
+        Customer customer = dataStore.findCustomerByUserName(credentials.getUserName()).orElse(null);
+        if (!credentialVerifier.verify(credentials.getUserName(), credentials.getPassword(), customer)) {
+            throw new AuthenticationException("Authentication failed.");
+        }
+        return customer;
+    }
+
+    @Override
+    public Session login(Credentials credentials) throws AuthenticationException {
+        return sessions.open(authenticate(credentials));
+    }
+
+    @Override
+    public Optional<Session> findSession(String token) {
+        return sessions.find(token);
+    }
+
+    @Override
+    public void logout(String token) {
+        sessions.close(token);
+    }
+
+    @Override
+    public void close() {
+        sessions.closeAll();
     }
 
     @Override
     public List<Food> listAllFood() {
-        return dataStore.getFoods();
+        return getMenu().foods();
+    }
+
+    @Override
+    public Menu getMenu() {
+        FoodCatalog catalog = dataStore.getFoodCatalog();
+        Menu current = menu;
+        if (current == null || !current.isOf(catalog)) {
+            // racing callers may both build it; either result is equivalent
+            current = Menu.of(catalog);
+            menu = current;
+        }
+        return current;
     }
 
     @Override
-    public void updateCart(Customer customer, Food food, int pieces) throws LowBalanceException {
+    public Cart updateCart(Customer customer, Food food, int pieces) throws LowBalanceException {
         if (customer == null || food == null) {
             throw new IllegalArgumentException("Customer and food must be provided.");
         }
@@ -48,48 +114,60 @@ public class DefaultFoodDeliveryService implements FoodDeliveryService {
             throw new IllegalArgumentException("Pieces must be >= 0.");
         }
 
-        Cart cart = customer.getCart();
-        if (cart == null) {
-            cart = Cart.getEmptyCart();
-            customer.setCart(cart);
+        Lock lock = customerLocks.lockFor(customer.getId());
+        lock.lock();
+        try {
+            updateCartLocked(customer, food, pieces);
+            return customer.getCart().copy();
+        } finally {
+            lock.unlock();
         }
+    }
 
-        OrderItem existing = null;
-        for (OrderItem oi : cart.getOrderItems()) {
-            if (oi.getFood().getName().equals(food.getName())) {
-                existing = oi;
-                break;
-            }
+    private void updateCartLocked(Customer customer, Food food, int pieces) throws LowBalanceException {
+        // only a session can release what the cart holds, so there is no cart without one
+        Cart cart = customer.getCart();
+        if (cart == null || !sessions.isOpen(customer.getId())) {
+            throw new IllegalStateException("Log in before filling the cart.");
         }
 
+        OrderItem existing = cart.getItem(food);
+
         if (pieces == 0) {
             if (existing == null) {
                 throw new IllegalArgumentException("Cannot remove non-existing item from cart.");
             }
-            cart.getOrderItems().remove(existing);
-            cart.setPrice(cart.getPrice().subtract(existing.getPrice()));
+            cart.removeItem(food);
+            customer.release(existing.getPriceMinor());
+            cart.setPriceMinor(Money.subtract(cart.getPriceMinor(), existing.getPriceMinor()));
             return;
         }
 
-        BigDecimal unit = nonNull(food.getPrice());
-        BigDecimal newItemPrice = unit.multiply(BigDecimal.valueOf(pieces));
-
-        BigDecimal cartTotal = nonNull(cart.getPrice());
-        BigDecimal oldItemPrice = existing != null ? nonNull(existing.getPrice()) : BigDecimal.ZERO;
-        BigDecimal prospectiveTotal = cartTotal.subtract(oldItemPrice).add(newItemPrice);
+        // price new items with the current menu; items already in the cart keep their price
+        if (food.hasId()) {
+            Food current = dataStore.getFoodCatalog().findById(food.getId()).orElse(null);
+            if (current == null) {
+                throw new IllegalArgumentException(food.getName() + " is no longer on the menu.");
+            }
+            food = current;
+        }
+        long newItemPrice = Money.times(food.getPriceMinor(), pieces);
+        long oldItemPrice = existing != null ? existing.getPriceMinor() : 0;
+        long prospectiveTotal = Money.add(Money.subtract(cart.getPriceMinor(), oldItemPrice), newItemPrice);
 
-        if (prospectiveTotal.compareTo(nonNull(customer.getBalance())) > 0) {
+        // the cart's total is held, so only the difference needs covering
+        long held = cart.getPriceMinor();
+        if (prospectiveTotal > held && !customer.tryHold(Money.subtract(prospectiveTotal, held))) {
             throw new LowBalanceException(
                     "With current cart content, adding " + pieces + " x " + food.getName()
                     + " would exceed available balance.");
         }
-
-        OrderItem updated = new OrderItem(food, pieces, newItemPrice);
-        if (existing != null) {
-            cart.getOrderItems().remove(existing);
+        if (prospectiveTotal < held) {
+            customer.release(Money.subtract(held, prospectiveTotal));
         }
-        cart.getOrderItems().add(updated);
-        cart.setPrice(prospectiveTotal);
+
+        cart.putItem(new OrderItem(food, pieces, newItemPrice));
+        cart.setPriceMinor(prospectiveTotal);
     }
 
     @Override
@@ -97,26 +175,39 @@ public class DefaultFoodDeliveryService implements FoodDeliveryService {
         if (customer == null) {
             throw new IllegalArgumentException("Customer must be provided.");
         }
+
+        Lock lock = customerLocks.lockFor(customer.getId());
+        lock.lock();
+        try {
+            return createOrderLocked(customer);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Order createOrderLocked(Customer customer) {
         Cart cart = customer.getCart();
-        if (cart == null || cart.getOrderItems().isEmpty()) {
+        if (cart == null || cart.isEmpty()) {
             throw new IllegalStateException("Cannot create order from empty cart.");
         }
-        Order order = new Order(customer);
-
-        Order persisted = dataStore.createOrder(order);
-        customer.getOrders().add(persisted);
-
-        BigDecimal newBalance = nonNull(customer.getBalance()).subtract(nonNull(persisted.getPrice()));
-        customer.setBalance(newBalance);
+        // the total was held as the cart was filled, so the balance covers it without looking
+        // at the items again; if the order cannot be stored the cart keeps its hold
+        long total = cart.getPriceMinor();
+        if (!customer.tryDebit(total)) {
+            throw new LowBalanceException("Cart total exceeds available balance.");
+        }
+        Order persisted;
+        try {
+            persisted = dataStore.createOrder(new Order(customer));
+        } catch (RuntimeException e) {
+            customer.credit(total);
+            throw e;
+        }
 
-        // Empty the cart
-        cart.getOrderItems().clear();
-        cart.setPrice(BigDecimal.ZERO);
+        // the debit replaces the hold; empty the cart
+        customer.release(total);
+        cart.clear();
 
         return persisted;
     }
-
-    private static BigDecimal nonNull(BigDecimal v) {
-        return v == null ? BigDecimal.ZERO : v;
-    }
 }
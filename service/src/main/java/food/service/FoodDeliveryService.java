@@ -1,19 +1,61 @@
 package food.service;
 
 import java.util.List;
+import java.util.Optional;
 
+import food.domain.Cart;
 import food.domain.Customer;
 import food.domain.Food;
 import food.domain.Order;
 import food.domain.Credentials;
 
-public interface FoodDeliveryService {
+public interface FoodDeliveryService extends AutoCloseable {
+    /**
+     * Checks the credentials without opening a session; the customer gets no cart.
+     */
     Customer authenticate(Credentials credentials) throws AuthenticationException;
 
+    /**
+     * Checks the credentials and opens a session, which gives the customer a cart.
+     */
+    Session login(Credentials credentials) throws AuthenticationException;
+
+    /**
+     * The open session with this token; sessions that were idle too long are gone.
+     */
+    Optional<Session> findSession(String token);
+
+    /**
+     * Closes the session; the customer's cart goes with their last session.
+     */
+    void logout(String token);
+
+    /**
+     * Closes every session, which releases what their carts hold and spills the carts.
+     */
+    @Override
+    void close();
+
     List<Food> listAllFood();
 
-    void updateCart(Customer customer, Food food, int pieces) throws LowBalanceException;
+    /**
+     * The current menu; the same instance until the food catalog changes.
+     */
+    Menu getMenu();
+
+    /**
+     * Sets the pieces of a food in the cart; 0 removes it. The cart's total is held on the
+     * customer, so a change is only accepted if the balance minus what is held covers the
+     * difference.
+     *
+     * @return a copy of the cart as the change left it, taken under the customer's lock
+     * @throws IllegalStateException if the customer has no open session
+     */
+    Cart updateCart(Customer customer, Food food, int pieces) throws LowBalanceException;
 
+    /**
+     * Turns the cart into an order: its held total is debited and the hold released.
+     */
     Order createOrder(Customer customer) throws IllegalStateException;
 
 }
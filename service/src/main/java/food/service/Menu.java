@@ -0,0 +1,172 @@
+package food.service;
+
+import food.data.FoodCatalog;
+import food.domain.Food;
+import food.values.Money;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * An immutable, pre-rendered snapshot of the food catalog.
+ * <p>
+ * A menu is built once per {@link FoodCatalog}; serving it again costs a reference comparison.
+ * Besides the foods it carries their rendering as console text and as compact JSON, and a
+ * {@link #version()} derived from the content: a client that still has a menu of the same version
+ * can skip it, and two catalogs with identical foods produce the same version.
+ */
+public final class Menu {
+
+    private final FoodCatalog catalog;
+    private final String text;
+    private final byte[] json;
+    private final String version;
+
+    private Menu(FoodCatalog catalog) {
+        this.catalog = catalog;
+        this.text = renderText(catalog.foods());
+        this.json = renderJson(catalog.foods()).getBytes(StandardCharsets.UTF_8);
+        this.version = '"' + HexFormat.of().formatHex(sha256(json), 0, 8) + '"';
+    }
+
+    public static Menu of(FoodCatalog catalog) {
+        if (catalog == null) throw new IllegalArgumentException("catalog is null");
+        return new Menu(catalog);
+    }
+
+    /**
+     * Whether this menu was built from exactly this catalog instance.
+     */
+    boolean isOf(FoodCatalog catalog) {
+        return this.catalog == catalog;
+    }
+
+    /**
+     * All foods in catalog order, as an immutable list.
+     */
+    public List<Food> foods() {
+        return catalog.foods();
+    }
+
+    public Optional<Food> findFood(int id) {
+        return catalog.findById(id);
+    }
+
+    /**
+     * Content version in HTTP entity-tag form, e.g. {@code "3f9a0c2e1b7d4a65"}.
+     */
+    public String version() {
+        return version;
+    }
+
+    /**
+     * Whether a client holding {@code version} already has this menu.
+     */
+    public boolean isCurrent(String version) {
+        return this.version.equals(version);
+    }
+
+    /**
+     * One line per food: {@code id. name - description, calories kcal, price}.
+     */
+    public String text() {
+        return text;
+    }
+
+    /**
+     * The foods as compact UTF-8 JSON, as a read-only buffer over the shared bytes.
+     */
+    public ByteBuffer json() {
+        return ByteBuffer.wrap(json).asReadOnlyBuffer();
+    }
+
+    public int jsonLength() {
+        return json.length;
+    }
+
+    public void writeJsonTo(OutputStream out) throws IOException {
+        out.write(json);
+    }
+
+    private static String renderText(List<Food> foods) {
+        var sb = new StringBuilder(foods.size() * 64);
+        for (Food food : foods) {
+            sb.append(food.getId() + 1).append(". ").append(food.getName())
+                    .append(" - ").append(food.getDescription())
+                    .append(", ").append(plain(food.getCalorie())).append(" kcal, ");
+            Money.appendTo(sb, food.getPriceMinor()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static String renderJson(List<Food> foods) {
+        var sb = new StringBuilder(foods.size() * 96 + 2).append('[');
+        for (Food food : foods) {
+            if (sb.length() > 1) {
+                sb.append(',');
+            }
+            sb.append("{\"id\":").append(food.getId()).append(",\"name\":");
+            appendJsonString(sb, food.getName());
+            sb.append(",\"description\":");
+            appendJsonString(sb, food.getDescription());
+            sb.append(",\"calories\":").append(plain(food.getCalorie()))
+                    .append(",\"price\":\"");
+            Money.appendTo(sb, food.getPriceMinor()).append("\"}");
+        }
+        return sb.append(']').toString();
+    }
+
+    private static String plain(BigDecimal value) {
+        return value == null ? "0" : value.toPlainString();
+    }
+
+    private static void appendJsonString(StringBuilder sb, String value) {
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        sb.append('"');
+    }
+
+    private static byte[] sha256(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Menu{" +
+                "version=" + version +
+                ", foods=" + catalog.size() +
+                '}';
+    }
+}
@@ -0,0 +1,14 @@
+package food.service;
+
+import food.domain.Customer;
+
+/**
+ * A logged-in customer, identified by an unguessable token.
+ */
+public record Session(String token, Customer customer) {
+
+    @Override
+    public String toString() {
+        return "Session{customerId=" + customer.getId() + '}';
+    }
+}
@@ -0,0 +1,266 @@
+package food.service;
+
+import food.data.FoodCatalog;
+import food.domain.Cart;
+import food.domain.Customer;
+import food.domain.Food;
+import food.domain.OrderItem;
+import food.values.Money;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+
+/**
+ * The open sessions, and with them the customers' carts.
+ * <p>
+ * Customers are loaded without a cart. Opening the first session of a customer attaches one, and
+ * closing or evicting their last session detaches it again, so only customers who are online
+ * carry a cart. The total of an attached cart is held on the customer, see
+ * {@link DefaultFoodDeliveryService#updateCart}; detaching the cart releases it, so a hold never
+ * outlives the sessions. A session is evicted once it has been idle for the idle timeout, and the least
+ * recently used sessions go first when there are more than the maximum. Eviction happens on the
+ * calling threads, at most every quarter of the idle timeout, so the registry needs no thread of
+ * its own.
+ * <p>
+ * With a spill folder, a non-empty cart that is detached is written to {@code <customer id>.cart}
+ * in it, one {@code pieces,price,food name} line per item, and restored when the customer comes
+ * back. Foods are looked up by name, which unlike the id is what {@code foods.csv} is edited by. Restored items keep the price they were
+ * added at; foods that left the menu in the meantime are dropped, and so is the whole cart if
+ * the balance no longer covers it.
+ * <p>
+ * Attaching and detaching take the customer's lock, the same one cart updates take.
+ */
+final class SessionRegistry {
+
+    static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(30);
+    static final int DEFAULT_MAX_SESSIONS = 100_000;
+
+    private static final System.Logger LOGGER = System.getLogger(SessionRegistry.class.getName());
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final CustomerLocks customerLocks;
+    private final Supplier<FoodCatalog> catalog;
+    private final long idleNanos;
+    private final int maxSessions;
+    private final Path spillFolder;
+    private final Map<String, Entry> sessions = new ConcurrentHashMap<>();
+    // open sessions per customer id; only changed under the customer's lock
+    private final Map<Long, Integer> openCounts = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweep = new AtomicLong(System.nanoTime());
+
+    private static final class Entry {
+        final Session session;
+        volatile long lastAccessNanos = System.nanoTime();
+
+        Entry(Session session) {
+            this.session = session;
+        }
+    }
+
+    /**
+     * @param spillFolder where to keep the carts of evicted sessions, or {@code null} to drop them
+     */
+    SessionRegistry(CustomerLocks customerLocks, Supplier<FoodCatalog> catalog, Duration idleTimeout,
+                    int maxSessions, Path spillFolder) {
+        if (maxSessions < 1) {
+            throw new IllegalArgumentException("Max sessions must be positive: " + maxSessions);
+        }
+        this.customerLocks = customerLocks;
+        this.catalog = catalog;
+        this.idleNanos = idleTimeout.toNanos();
+        this.maxSessions = maxSessions;
+        this.spillFolder = spillFolder;
+    }
+
+    Session open(Customer customer) {
+        sweepIfDue();
+        var token = new byte[16];
+        RANDOM.nextBytes(token);
+        var session = new Session(Base64.getUrlEncoder().withoutPadding().encodeToString(token), customer);
+        Lock lock = customerLocks.lockFor(customer.getId());
+        lock.lock();
+        try {
+            openCounts.merge(customer.getId(), 1, Integer::sum);
+            if (customer.getCart() == null) {
+                customer.setCart(restoreCart(customer));
+            }
+            sessions.put(session.token(), new Entry(session));
+        } finally {
+            lock.unlock();
+        }
+        if (sessions.size() > maxSessions) {
+            evictLeastRecentlyUsed(sessions.size() - maxSessions);
+        }
+        return session;
+    }
+
+    /**
+     * The session with this token, unless it was closed or has been idle too long. Finding a
+     * session counts as using it.
+     */
+    Optional<Session> find(String token) {
+        sweepIfDue();
+        Entry entry = token == null ? null : sessions.get(token);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        long now = System.nanoTime();
+        if (now - entry.lastAccessNanos > idleNanos) {
+            close(token);
+            return Optional.empty();
+        }
+        entry.lastAccessNanos = now;
+        return Optional.of(entry.session);
+    }
+
+    void close(String token) {
+        Entry entry = token == null ? null : sessions.remove(token);
+        if (entry == null) {
+            return;
+        }
+        Customer customer = entry.session.customer();
+        Lock lock = customerLocks.lockFor(customer.getId());
+        lock.lock();
+        try {
+            Integer left = openCounts.computeIfPresent(customer.getId(), (id, count) -> count == 1 ? null : count - 1);
+            if (left == null) {
+                spillCart(customer);
+                Cart cart = customer.getCart();
+                if (cart != null) {
+                    customer.release(cart.getPriceMinor());
+                }
+                customer.setCart(null);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Whether the customer has an open session, and with it a cart.
+     */
+    boolean isOpen(long customerId) {
+        return openCounts.containsKey(customerId);
+    }
+
+    /**
+     * Closes every session, releasing the holds of their carts.
+     */
+    void closeAll() {
+        for (String token : sessions.keySet()) {
+            close(token);
+        }
+    }
+
+    int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Evicts every session idle for longer than the timeout.
+     */
+    void evictIdle() {
+        long now = System.nanoTime();
+        for (var entry : sessions.entrySet()) {
+            if (now - entry.getValue().lastAccessNanos > idleNanos) {
+                close(entry.getKey());
+            }
+        }
+    }
+
+    private void sweepIfDue() {
+        long due = nextSweep.get();
+        long now = System.nanoTime();
+        if (now - due >= 0 && nextSweep.compareAndSet(due, now + Math.max(1, idleNanos / 4))) {
+            evictIdle();
+        }
+    }
+
+    private void evictLeastRecentlyUsed(int count) {
+        // sorting is O(n log n), so make room for a tenth more sessions at a time
+        int evict = Math.max(count, maxSessions / 10);
+        List<Map.Entry<String, Entry>> oldest = new ArrayList<>(sessions.entrySet());
+        oldest.sort(Comparator.comparingLong(e -> e.getValue().lastAccessNanos));
+        for (int i = 0; i < Math.min(evict, oldest.size()); i++) {
+            close(oldest.get(i).getKey());
+        }
+    }
+
+    private Path spillFile(long customerId) {
+        return spillFolder.resolve(customerId + ".cart");
+    }
+
+    private void spillCart(Customer customer) {
+        Cart cart = customer.getCart();
+        if (spillFolder == null || cart == null || cart.isEmpty()) {
+            return;
+        }
+        var text = new StringBuilder(cart.size() * 16);
+        for (OrderItem item : cart.getOrderItems()) {
+            text.append(item.getPieces()).append(',');
+            Money.appendTo(text, item.getPriceMinor()).append(',').append(item.getFood().getName()).append('\n');
+        }
+        Path file = spillFile(customer.getId());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(spillFolder);
+            Files.writeString(temp, text);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Could not spill the cart of customer " + customer.getId(), e);
+        }
+    }
+
+    /**
+     * The spilled cart of the customer with its total held, or an empty cart.
+     */
+    private Cart restoreCart(Customer customer) {
+        long customerId = customer.getId();
+        Cart cart = Cart.getEmptyCart();
+        if (spillFolder == null) {
+            return cart;
+        }
+        Path file = spillFile(customerId);
+        if (!Files.exists(file)) {
+            return cart;
+        }
+        try {
+            FoodCatalog foods = catalog.get();
+            long total = 0;
+            for (String line : Files.readAllLines(file)) {
+                String[] fields = line.split(",", 3);
+                Optional<Food> food = foods.findByName(fields[2]);
+                if (food.isPresent()) {
+                    long price = Money.parse(fields[1]);
+                    cart.putItem(new OrderItem(food.get(), Integer.parseInt(fields[0]), price));
+                    total = Money.add(total, price);
+                }
+            }
+            cart.setPriceMinor(total);
+            Files.delete(file);
+            if (!customer.tryHold(total)) {
+                LOGGER.log(System.Logger.Level.WARNING, "Dropped the cart of customer " + customerId
+                        + ": the balance no longer covers it");
+                cart.clear();
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Could not restore the cart of customer " + customerId, e);
+            cart.clear();
+        }
+        return cart;
+    }
+}
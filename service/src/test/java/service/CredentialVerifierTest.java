@@ -0,0 +1,76 @@
+// CredentialVerifierTest.java
+package food.service;
+
+import food.domain.Customer;
+import food.values.PasswordHash;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CredentialVerifierTest {
+
+    private final Customer john = new Customer.Builder().id(1L).userName("john_doe")
+            .passwordHash(PasswordHash.create("password123", 1000)).build();
+
+    @Test
+    void shouldRememberOnlySuccessfulLogins() {
+        // Given
+        var verifier = new CredentialVerifier(10, Duration.ofMinutes(1));
+
+        // When
+        boolean wrong = verifier.verify("john_doe", "wrong", john);
+        int cachedAfterFailure = verifier.cachedLogins();
+        boolean right = verifier.verify("john_doe", "password123", john);
+
+        // Then
+        assertThat(wrong).isFalse();
+        assertThat(cachedAfterFailure).isZero();
+        assertThat(right).isTrue();
+        assertThat(verifier.cachedLogins()).isEqualTo(1);
+        assertThat(verifier.verify("john_doe", "password123", john)).isTrue();
+        assertThat(verifier.verify("john_doe", "wrong", john)).isFalse();
+    }
+
+    @Test
+    void shouldForgetLoginWhenPasswordChanges() {
+        // Given
+        var verifier = new CredentialVerifier(10, Duration.ofMinutes(1));
+        verifier.verify("john_doe", "password123", john);
+
+        // When
+        john.setPasswordHash(PasswordHash.create("new-password", 1000));
+
+        // Then
+        assertThat(verifier.verify("john_doe", "password123", john)).isFalse();
+        assertThat(verifier.verify("john_doe", "new-password", john)).isTrue();
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedLogin() {
+        // Given
+        var verifier = new CredentialVerifier(2, Duration.ofMinutes(1));
+        Customer jane = new Customer.Builder().id(2L).userName("jane_smith").password("secret456").build();
+        Customer bob = new Customer.Builder().id(3L).userName("bob_wilson").password("pass789").build();
+
+        // When
+        verifier.verify("john_doe", "password123", john);
+        verifier.verify("jane_smith", "secret456", jane);
+        verifier.verify("bob_wilson", "pass789", bob);
+
+        // Then
+        assertThat(verifier.cachedLogins()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRejectUnknownUserAndDisabledCache() {
+        // Given
+        var verifier = new CredentialVerifier(0, Duration.ofMinutes(1));
+
+        // Then
+        assertThat(verifier.verify("nobody", "password123", null)).isFalse();
+        assertThat(verifier.verify("john_doe", "password123", john)).isTrue();
+        assertThat(verifier.cachedLogins()).isZero();
+    }
+}
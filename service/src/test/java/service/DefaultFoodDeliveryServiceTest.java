@@ -0,0 +1,297 @@
+// DefaultFoodDeliveryServiceTest.java
+package food.service;
+
+import food.data.CustomerStorage;
+import food.data.FileDataStore;
+import food.domain.Cart;
+import food.domain.Credentials;
+import food.domain.Customer;
+import food.domain.Food;
+import food.domain.Order;
+import food.values.PasswordHash;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DefaultFoodDeliveryServiceTest {
+
+    private FileDataStore dataStore;
+    private DefaultFoodDeliveryService service;
+    private Food pizza;
+    private String dataStoreFolder;
+
+    @BeforeEach
+    void setUp(@TempDir Path tempDir) throws IOException {
+        Files.writeString(tempDir.resolve("customers.csv"), """
+                john_doe,password123,1,John Doe,100.00
+                jane_smith,secret456,2,Jane Smith,250.00
+                """);
+        Files.writeString(tempDir.resolve("foods.csv"), """
+                Pizza,300,Delicious pizza,10.00
+                Burger,450,Tasty burger,8.50
+                """);
+        dataStoreFolder = tempDir.toString();
+        dataStore = new FileDataStore(dataStoreFolder);
+        dataStore.init();
+        service = new DefaultFoodDeliveryService(dataStore);
+        pizza = service.listAllFood().get(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataStore.close();
+    }
+
+    @Test
+    void shouldAuthenticateCustomer() {
+        // When
+        Customer customer = service.authenticate(new Credentials("jane_smith", "secret456"));
+
+        // Then
+        assertThat(customer.getId()).isEqualTo(2L);
+        assertThatThrownBy(() -> service.authenticate(new Credentials("jane_smith", "wrong")))
+                .isInstanceOf(AuthenticationException.class);
+    }
+
+    @Test
+    void shouldAuthenticateCustomerWithHashedPassword(@TempDir Path tempDir) throws IOException {
+        // Given
+        Files.writeString(tempDir.resolve("customers.csv"),
+                "john_doe," + PasswordHash.create("password123", 1000).encode() + ",1,John Doe,100.00\n");
+        Files.writeString(tempDir.resolve("foods.csv"), "Pizza,300,Delicious pizza,10.00\n");
+        var hashedStore = new FileDataStore(tempDir.toString());
+        hashedStore.init();
+        var hashedService = new DefaultFoodDeliveryService(hashedStore);
+
+        // When
+        Customer customer = hashedService.authenticate(new Credentials("john_doe", "password123"));
+
+        // Then
+        assertThat(customer.getId()).isEqualTo(1L);
+        assertThat(hashedService.authenticate(new Credentials("john_doe", "password123"))).isSameAs(customer);
+        assertThatThrownBy(() -> hashedService.authenticate(new Credentials("john_doe", "password")))
+                .isInstanceOf(AuthenticationException.class);
+        assertThatThrownBy(() -> hashedService.authenticate(new Credentials("jane_smith", "password123")))
+                .isInstanceOf(AuthenticationException.class);
+        hashedStore.close();
+    }
+
+    @Test
+    void shouldServeCustomersFromColumnarStorage() {
+        // Given
+        dataStore.close();
+        dataStore = new FileDataStore.Builder(dataStoreFolder).fsyncInterval(Duration.ofMillis(5))
+                .snapshotInterval(Duration.ZERO).customerStorage(CustomerStorage.COLUMNAR).build();
+        dataStore.init();
+        service = new DefaultFoodDeliveryService(dataStore);
+        Customer john = service.login(new Credentials("john_doe", "password123")).customer();
+
+        // When
+        service.updateCart(john, pizza, 2);
+        Order order = service.createOrder(john);
+
+        // Then
+        assertThat(order.getPriceMinor()).isEqualTo(2000L);
+        Customer stored = dataStore.findCustomerById(1L).orElseThrow();
+        assertThat(stored.getBalanceMinor()).isEqualTo(8000L);
+        assertThat(stored.getOrders()).containsExactly(order);
+        assertThat(stored.getCart().isEmpty()).isTrue();
+    }
+
+    @Test
+    void shouldServeSameMenuUntilCatalogChanges() {
+        // Given
+        Menu menu = service.getMenu();
+
+        // When
+        Menu again = service.getMenu();
+        List<Food> foods = service.listAllFood();
+        dataStore.init();
+        Menu reloaded = service.getMenu();
+
+        // Then
+        assertThat(again).isSameAs(menu);
+        assertThat(foods).isSameAs(menu.foods());
+        assertThat(reloaded).isNotSameAs(menu);
+        assertThat(reloaded.isCurrent(menu.version())).isTrue();
+    }
+
+    @Test
+    void shouldKeepCartPricesWhenMenuIsReloaded() throws IOException {
+        // Given
+        Customer customer = service.login(new Credentials("john_doe", "password123")).customer();
+        Food burger = service.listAllFood().get(1);
+        service.updateCart(customer, pizza, 2);
+        Files.writeString(Path.of(dataStoreFolder, "foods.csv"), "Pizza,300,Delicious pizza,12.00\n");
+
+        // When
+        dataStore.reloadFoods();
+        Order order = service.createOrder(customer);
+        Cart cart = service.updateCart(customer, pizza, 1);
+
+        // Then
+        assertThat(order.getPriceMinor()).isEqualTo(2000L);
+        assertThat(customer.getCart().getPriceMinor()).isEqualTo(1200L);
+        assertThat(cart).isNotSameAs(customer.getCart()).isEqualTo(customer.getCart());
+        assertThat(service.getMenu().foods()).extracting(Food::getPriceMinor).containsExactly(1200L);
+        assertThatThrownBy(() -> service.updateCart(customer, burger, 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("no longer on the menu");
+    }
+
+    @Test
+    void shouldCreateOrderAndDebitBalance() {
+        // Given
+        Customer customer = service.login(new Credentials("john_doe", "password123")).customer();
+        service.updateCart(customer, pizza, 3);
+
+        // When
+        Order order = service.createOrder(customer);
+
+        // Then
+        assertThat(order.getOrderItems()).hasSize(1);
+        assertThat(order.getPrice()).isEqualByComparingTo("30.00");
+        assertThat(customer.getBalance()).isEqualByComparingTo("70.00");
+        assertThat(customer.getCart().getOrderItems()).isEmpty();
+        assertThat(customer.getOrders()).containsExactly(order);
+    }
+
+    @Test
+    void shouldHoldCartTotalUntilLastSessionCloses() {
+        // Given
+        Session session = service.login(new Credentials("john_doe", "password123"));
+        Customer customer = session.customer();
+
+        // When
+        service.updateCart(customer, pizza, 3);
+        long heldThree = customer.getHeldMinor();
+        service.updateCart(customer, pizza, 1);
+        long heldOne = customer.getHeldMinor();
+        long balanceWhileHeld = customer.getBalanceMinor();
+        service.logout(session.token());
+
+        // Then
+        assertThat(heldThree).isEqualTo(3000L);
+        assertThat(heldOne).isEqualTo(1000L);
+        assertThat(balanceWhileHeld).isEqualTo(10000L);
+        assertThat(customer.getHeldMinor()).isZero();
+        assertThat(customer.getBalanceMinor()).isEqualTo(10000L);
+        assertThat(customer.getCart()).isNull();
+    }
+
+    @Test
+    void shouldRejectCartWithoutSession() {
+        // Given
+        Customer customer = service.authenticate(new Credentials("john_doe", "password123"));
+
+        // When & Then
+        assertThatThrownBy(() -> service.updateCart(customer, pizza, 1))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(customer.getCart()).isNull();
+        assertThat(customer.getHeldMinor()).isZero();
+    }
+
+    @Test
+    void shouldRejectCartExceedingBalance() {
+        // Given
+        Customer customer = service.login(new Credentials("john_doe", "password123")).customer();
+
+        // When & Then
+        assertThatThrownBy(() -> service.updateCart(customer, pizza, 11))
+                .isInstanceOf(LowBalanceException.class);
+    }
+
+    @Test
+    void shouldNeverOverspendWithConcurrentSessionsOfOneCustomer() throws Exception {
+        // Given
+        Customer customer = service.login(new Credentials("john_doe", "password123")).customer();
+        AtomicInteger orders = new AtomicInteger();
+
+        // When: many sessions repeatedly fill the shared cart and check out
+        runConcurrently(16, () -> {
+            for (int i = 0; i < 20; i++) {
+                try {
+                    service.updateCart(customer, pizza, 1);
+                    service.createOrder(customer);
+                    orders.incrementAndGet();
+                } catch (LowBalanceException | IllegalStateException e) {
+                    // balance spent or cart already checked out by another session
+                }
+            }
+            return null;
+        });
+
+        // Then
+        assertThat(orders.get()).isEqualTo(10);
+        assertThat(customer.getBalance()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(customer.getOrders()).hasSize(10);
+    }
+
+    @Test
+    void shouldKeepCustomersIndependentUnderConcurrency() throws Exception {
+        // Given
+        Customer john = service.login(new Credentials("john_doe", "password123")).customer();
+        Customer jane = service.login(new Credentials("jane_smith", "secret456")).customer();
+
+        // When
+        runConcurrently(2, List.of(john, jane), customer -> {
+            for (int i = 0; i < 5; i++) {
+                service.updateCart(customer, pizza, 1);
+                service.createOrder(customer);
+            }
+        });
+
+        // Then
+        assertThat(john.getBalance()).isEqualByComparingTo("50.00");
+        assertThat(jane.getBalance()).isEqualByComparingTo("200.00");
+        assertThat(dataStore.getOrders()).hasSize(10);
+    }
+
+    private static void runConcurrently(int threads, Callable<Void> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(task));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void runConcurrently(int threads, List<Customer> customers,
+                                        Consumer<Customer> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Customer customer : customers) {
+                futures.add(executor.submit(() -> task.accept(customer)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
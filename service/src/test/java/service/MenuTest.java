@@ -0,0 +1,51 @@
+// MenuTest.java
+package food.service;
+
+import food.data.FoodCatalog;
+import food.domain.Food;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MenuTest {
+
+    private final Food pizza = new Food("Pizza", new BigDecimal("300"), "Delicious pizza", new BigDecimal("10.00"));
+    private final Food burger = new Food("Burger", new BigDecimal("450"), "Tasty \"double\" burger", new BigDecimal("8.50"));
+
+    @Test
+    void shouldRenderTextAndJson() {
+        // When
+        Menu menu = Menu.of(FoodCatalog.of(List.of(pizza, burger)));
+
+        // Then
+        assertThat(menu.text()).isEqualTo("""
+                1. Pizza - Delicious pizza, 300 kcal, 10.00
+                2. Burger - Tasty "double" burger, 450 kcal, 8.50
+                """);
+        assertThat(StandardCharsets.UTF_8.decode(menu.json()).toString()).isEqualTo(
+                "[{\"id\":0,\"name\":\"Pizza\",\"description\":\"Delicious pizza\",\"calories\":300,\"price\":\"10.00\"},"
+                        + "{\"id\":1,\"name\":\"Burger\",\"description\":\"Tasty \\\"double\\\" burger\",\"calories\":450,\"price\":\"8.50\"}]");
+        assertThat(menu.json().isReadOnly()).isTrue();
+        assertThat(menu.jsonLength()).isEqualTo(menu.json().remaining());
+    }
+
+    @Test
+    void shouldVersionByContent() {
+        // Given
+        Menu menu = Menu.of(FoodCatalog.of(List.of(pizza, burger)));
+
+        // When
+        Menu sameFoods = Menu.of(FoodCatalog.of(List.of(pizza, burger)));
+        Menu repriced = Menu.of(FoodCatalog.of(List.of(pizza,
+                new Food("Burger", new BigDecimal("450"), "Tasty \"double\" burger", new BigDecimal("9.00")))));
+
+        // Then
+        assertThat(menu.version()).matches("\"[0-9a-f]{16}\"");
+        assertThat(sameFoods.isCurrent(menu.version())).isTrue();
+        assertThat(repriced.isCurrent(menu.version())).isFalse();
+    }
+}
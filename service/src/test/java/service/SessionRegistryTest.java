@@ -0,0 +1,173 @@
+// SessionRegistryTest.java
+package food.service;
+
+import food.data.FoodCatalog;
+import food.domain.Customer;
+import food.domain.Food;
+import food.domain.OrderItem;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SessionRegistryTest {
+
+    private final FoodCatalog catalog = FoodCatalog.of(List.of(
+            new Food.Builder().name("Pizza").price(new BigDecimal("10.00")).build(),
+            new Food.Builder().name("Soup").price(new BigDecimal("4.50")).build()));
+
+    private SessionRegistry registry(Duration idleTimeout, int maxSessions, Path spillFolder) {
+        return new SessionRegistry(new CustomerLocks(), () -> catalog, idleTimeout, maxSessions, spillFolder);
+    }
+
+    private static Customer customer(long id) {
+        return new Customer.Builder().id(id).userName("user" + id).password("pw").balanceMinor(10_000).build();
+    }
+
+    @Test
+    void shouldAttachCartWhileCustomerHasOpenSession() {
+        // Given
+        var registry = registry(Duration.ofMinutes(1), 10, null);
+        Customer john = customer(1);
+
+        // When
+        Session first = registry.open(john);
+        Session second = registry.open(john);
+        john.getCart().putItem(new OrderItem(catalog.get(0), 1, 1000));
+        registry.close(first.token());
+
+        // Then
+        assertThat(first.token()).isNotEqualTo(second.token());
+        assertThat(john.getCart()).isNotNull();
+        assertThat(john.getCart().size()).isEqualTo(1);
+
+        registry.close(second.token());
+        assertThat(john.getCart()).isNull();
+        assertThat(registry.find(second.token())).isEmpty();
+    }
+
+    @Test
+    void shouldEvictIdleSessions() throws InterruptedException {
+        // Given
+        var registry = registry(Duration.ofMillis(20), 10, null);
+        Customer john = customer(1);
+        Session session = registry.open(john);
+
+        // When
+        Thread.sleep(50);
+
+        // Then
+        assertThat(registry.find(session.token())).isEmpty();
+        assertThat(registry.size()).isZero();
+        assertThat(john.getCart()).isNull();
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedSessionsOverTheLimit() {
+        // Given
+        var registry = registry(Duration.ofMinutes(1), 2, null);
+        Session first = registry.open(customer(1));
+        Session second = registry.open(customer(2));
+        registry.find(first.token());
+
+        // When
+        Session third = registry.open(customer(3));
+
+        // Then
+        assertThat(registry.size()).isEqualTo(2);
+        assertThat(registry.find(second.token())).isEmpty();
+        assertThat(registry.find(first.token())).contains(first);
+        assertThat(registry.find(third.token())).contains(third);
+        assertThat(second.customer().getCart()).isNull();
+    }
+
+    @Test
+    void shouldRestoreSpilledCart(@TempDir Path spillFolder) {
+        // Given
+        var registry = registry(Duration.ofMinutes(1), 10, spillFolder);
+        Customer john = customer(1);
+        Session session = registry.open(john);
+        john.getCart().putItem(new OrderItem(catalog.get(0), 2, 2000));
+        john.getCart().putItem(new OrderItem(catalog.get(1), 1, 450));
+        john.getCart().setPriceMinor(2450);
+        john.tryHold(2450);
+
+        // When
+        registry.close(session.token());
+        Path spilled = spillFolder.resolve("1.cart");
+        boolean wasSpilled = Files.exists(spilled);
+        long heldWhileClosed = john.getHeldMinor();
+        registry.open(john);
+
+        // Then
+        assertThat(wasSpilled).isTrue();
+        assertThat(heldWhileClosed).isZero();
+        assertThat(john.getHeldMinor()).isEqualTo(2450);
+        assertThat(john.getBalanceMinor()).isEqualTo(10_000);
+        assertThat(Files.exists(spilled)).isFalse();
+        assertThat(john.getCart().getPriceMinor()).isEqualTo(2450);
+        assertThat(john.getCart().getItem(catalog.get(0)).getPieces()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRestoreSpilledItemsByFoodName(@TempDir Path spillFolder) {
+        // Given
+        var current = new AtomicReference<>(catalog);
+        var registry = new SessionRegistry(new CustomerLocks(), current::get, Duration.ofMinutes(1), 10, spillFolder);
+        Customer john = customer(1);
+        Session session = registry.open(john);
+        john.getCart().putItem(new OrderItem(catalog.get(0), 2, 2000));
+        john.getCart().setPriceMinor(2000);
+        john.tryHold(2000);
+        registry.close(session.token());
+
+        // When: a menu without the ids of the old one
+        current.set(FoodCatalog.of(List.of(catalog.get(1), catalog.get(0))));
+        registry.open(john);
+
+        // Then
+        assertThat(john.getCart().getOrderItems())
+                .extracting(item -> item.getFood().getName(), OrderItem::getPieces, OrderItem::getPriceMinor)
+                .containsExactly(tuple("Pizza", 2, 2000L));
+    }
+
+    @Test
+    void shouldDropSpilledItemsThatLeftTheMenu(@TempDir Path spillFolder) throws Exception {
+        // Given
+        Files.writeString(spillFolder.resolve("1.cart"), "1,10.00,Pizza\n3,3.00,Noodles\n");
+        var registry = registry(Duration.ofMinutes(1), 10, spillFolder);
+        Customer john = customer(1);
+
+        // When
+        registry.open(john);
+
+        // Then
+        assertThat(john.getCart().size()).isEqualTo(1);
+        assertThat(john.getCart().getPriceMinor()).isEqualTo(1000);
+    }
+
+    @Test
+    void shouldDropRestoredCartTheBalanceNoLongerCovers(@TempDir Path spillFolder) throws Exception {
+        // Given
+        Files.writeString(spillFolder.resolve("1.cart"), "20,200.00,Pizza\n");
+        var registry = registry(Duration.ofMinutes(1), 10, spillFolder);
+        Customer john = customer(1);
+
+        // When
+        Session session = registry.open(john);
+
+        // Then
+        assertThat(john.getCart().isEmpty()).isTrue();
+        assertThat(john.getHeldMinor()).isZero();
+        registry.close(session.token());
+        assertThat(john.getHeldMinor()).isZero();
+        assertThat(john.getBalanceMinor()).isEqualTo(10_000);
+    }
+}